@@ -3,6 +3,7 @@ package com.telemedicine.config;
 import com.telemedicine.entity.User;
 import com.telemedicine.entity.UserRole;
 import com.telemedicine.repository.UserRepository;
+import com.telemedicine.service.StatisticsCounters;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
@@ -17,6 +18,7 @@ public class AdminInitializer implements CommandLineRunner {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final StatisticsCounters statisticsCounters;
 
     @Override
     @Transactional
@@ -41,6 +43,7 @@ public class AdminInitializer implements CommandLineRunner {
                 adminUser.setActive(true);
 
                 User savedUser = userRepository.save(adminUser);
+                statisticsCounters.userCreated(UserRole.ADMIN, true);
                 log.info("Admin user created successfully with ID: {} and email: {}", 
                          savedUser.getId(), savedUser.getEmail());
             } else {
@@ -50,6 +53,7 @@ public class AdminInitializer implements CommandLineRunner {
                 
                 // Vérifier si le rôle est correctement défini
                 if (user.getRole() != UserRole.ADMIN) {
+                    statisticsCounters.userRoleChanged(user.getRole(), UserRole.ADMIN);
                     user.setRole(UserRole.ADMIN);
                     userRepository.save(user);
                     log.info("Updated user role to ADMIN for: {}", user.getEmail());
@@ -0,0 +1,158 @@
+package com.telemedicine.config;
+
+import com.telemedicine.service.SlotReservationService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+// Hibernate's ddl-auto cannot express the constraints that make double booking impossible at the database level,
+// so they are added here once the tables exist. Existing rows are never rewritten and startup never fails: rows
+// that break a constraint are reported, the duration check is added NOT VALID so it still holds every new write,
+// and the exclusion constraint (which PostgreSQL cannot add NOT VALID) waits for a later startup after cleanup.
+// Until then only the doctor row lock prevents double booking. Concurrent instances take a transaction-level
+// advisory lock so only one of them alters the table.
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class AppointmentConstraintsInitializer {
+
+    public static final String DURATION_CONSTRAINT = "appointments_duration_range";
+    public static final String OVERLAP_CONSTRAINT = "appointments_no_overlap";
+
+    private static final int REPORTED_ROWS = 20;
+    private static final String DURATION_CHECK = "duration_minutes BETWEEN " + SlotReservationService.MIN_DURATION_MINUTES
+            + " AND " + SlotReservationService.MAX_DURATION_MINUTES;
+    private static final String APPOINTMENT_END = "appointment_date + COALESCE(duration_minutes, "
+            + SlotReservationService.DEFAULT_DURATION_MINUTES + ") * INTERVAL '1 minute'";
+
+    private final DataSource dataSource;
+
+    @PostConstruct
+    public void init() {
+        try (Connection connection = dataSource.getConnection()) {
+            String database = connection.getMetaData().getDatabaseProductName();
+            if (!"PostgreSQL".equals(database)) {
+                log.warn("Skipping appointment constraints on {}: only the doctor row lock prevents double booking",
+                        database);
+                return;
+            }
+
+            inTransaction(connection, DURATION_CONSTRAINT, this::addDurationConstraint);
+            inTransaction(connection, OVERLAP_CONSTRAINT, this::addOverlapConstraint);
+        } catch (SQLException e) {
+            log.warn("Cannot check the appointment constraints {} and {}: {}", DURATION_CONSTRAINT, OVERLAP_CONSTRAINT,
+                    e.getMessage());
+        }
+    }
+
+    private void addDurationConstraint(Connection connection) throws SQLException {
+        Boolean validated = constraintValidated(connection, DURATION_CONSTRAINT);
+        if (Boolean.TRUE.equals(validated)) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            if (validated == null) {
+                // Enforced for every insert and update from now on, without checking the rows already stored
+                statement.execute("ALTER TABLE appointments ADD CONSTRAINT " + DURATION_CONSTRAINT
+                        + " CHECK (" + DURATION_CHECK + ") NOT VALID");
+                log.info("Added {}", DURATION_CONSTRAINT);
+            }
+
+            List<Long> invalid = ids(connection, "SELECT id FROM appointments WHERE NOT (" + DURATION_CHECK + ")"
+                    + " ORDER BY id LIMIT " + REPORTED_ROWS);
+            if (!invalid.isEmpty()) {
+                // Overlap checks only look back MAX_DURATION_MINUTES, so these rows can be double booked
+                log.warn("{} is not validated: appointments {} (first {} shown) have a duration outside {}; "
+                                + "correct them and restart to validate it",
+                        DURATION_CONSTRAINT, invalid, REPORTED_ROWS, DURATION_CHECK);
+                return;
+            }
+            statement.execute("ALTER TABLE appointments VALIDATE CONSTRAINT " + DURATION_CONSTRAINT);
+            log.info("Validated {}", DURATION_CONSTRAINT);
+        }
+    }
+
+    private void addOverlapConstraint(Connection connection) throws SQLException {
+        if (constraintValidated(connection, OVERLAP_CONSTRAINT) != null) {
+            return;
+        }
+
+        // An appointment conflicts when it starts before the latest end among the doctor's earlier active ones
+        List<Long> overlapping = ids(connection, "SELECT id FROM ("
+                + "SELECT id, appointment_date, MAX(" + APPOINTMENT_END + ") OVER ("
+                + "PARTITION BY doctor_id ORDER BY appointment_date, id "
+                + "ROWS BETWEEN UNBOUNDED PRECEDING AND 1 PRECEDING) AS previous_end "
+                + "FROM appointments WHERE status <> 'CANCELLED') ordered "
+                + "WHERE appointment_date < previous_end ORDER BY id LIMIT " + REPORTED_ROWS);
+        if (!overlapping.isEmpty()) {
+            log.warn("{} is not added: appointments {} (first {} shown) overlap an earlier active appointment of "
+                            + "the same doctor; cancel or move them and restart to add it",
+                    OVERLAP_CONSTRAINT, overlapping, REPORTED_ROWS);
+            return;
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            // A doctor cannot have two active appointments whose [start, start + duration) ranges overlap
+            statement.execute("CREATE EXTENSION IF NOT EXISTS btree_gist");
+            statement.execute("ALTER TABLE appointments ADD CONSTRAINT " + OVERLAP_CONSTRAINT + " EXCLUDE USING gist ("
+                    + "doctor_id WITH =, "
+                    + "tsrange(appointment_date, " + APPOINTMENT_END + ", '[)') WITH &&"
+                    + ") WHERE (status <> 'CANCELLED')");
+            log.info("Added {}", OVERLAP_CONSTRAINT);
+        }
+    }
+
+    private void inTransaction(Connection connection, String constraint, ConstraintStep step) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SELECT pg_advisory_xact_lock(" + OVERLAP_CONSTRAINT.hashCode() + ")");
+            step.apply(connection);
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            log.warn("Cannot add {}: {}", constraint, e.getMessage());
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    // null when the constraint does not exist
+    private static Boolean constraintValidated(Connection connection, String constraint) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT convalidated FROM pg_constraint WHERE conrelid = 'appointments'::regclass AND conname = ?")) {
+            statement.setString(1, constraint);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() ? result.getBoolean(1) : null;
+            }
+        }
+    }
+
+    private static List<Long> ids(Connection connection, String query) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(query)) {
+            while (result.next()) {
+                ids.add(result.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    @FunctionalInterface
+    private interface ConstraintStep {
+        void apply(Connection connection) throws SQLException;
+    }
+}
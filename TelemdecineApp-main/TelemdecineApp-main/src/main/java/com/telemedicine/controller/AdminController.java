@@ -2,18 +2,33 @@ package com.telemedicine.controller;
 
 import com.telemedicine.dto.ApiResponse;
 import com.telemedicine.dto.AuthResponse;
+import com.telemedicine.dto.CursorPage;
+import com.telemedicine.dto.OutboxEmailResponse;
 import com.telemedicine.dto.RegisterRequest;
+import com.telemedicine.dto.StatisticsGranularity;
 import com.telemedicine.dto.StatisticsResponse;
+import com.telemedicine.dto.StatisticsSeriesResponse;
+import com.telemedicine.dto.UserExportFormat;
+import com.telemedicine.dto.UserSummary;
+import com.telemedicine.entity.OutboxEmailStatus;
 import com.telemedicine.entity.UserRole;
 import com.telemedicine.service.AdminService;
+import com.telemedicine.service.DrugInteractionChecker;
+import com.telemedicine.service.EmailOutboxService;
+import com.telemedicine.service.StatisticsRollupService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -24,6 +39,9 @@ import java.util.List;
 public class AdminController {
 
     private final AdminService adminService;
+    private final StatisticsRollupService statisticsRollupService;
+    private final EmailOutboxService emailOutboxService;
+    private final DrugInteractionChecker drugInteractionChecker;
 
     @GetMapping("/statistics")
     @PreAuthorize("hasRole('ADMIN')")
@@ -40,18 +58,106 @@ public class AdminController {
         }
     }
 
+    @GetMapping("/statistics/series")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getStatisticsSeries(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "DAY") StatisticsGranularity granularity) {
+        log.info("GET /admin/statistics/series - Fetching statistics series");
+        
+        try {
+            StatisticsSeriesResponse series = statisticsRollupService.getSeries(from, to, granularity);
+            return ResponseEntity.ok(series);
+        } catch (Exception e) {
+            log.error("Failed to fetch statistics series: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
     @GetMapping("/users")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<?> getAllUsers() {
-        log.info("GET /admin/users - Fetching all users by admin");
+    public ResponseEntity<?> getUsers(
+            @RequestParam(required = false) UserRole role,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        log.info("GET /admin/users - Fetching users by admin");
         
         try {
-            List<AuthResponse> users = adminService.getAllUsers();
+            CursorPage<UserSummary> users = adminService.getUsers(role, active, search, cursor, limit);
             return ResponseEntity.ok(users);
         } catch (Exception e) {
             log.error("Failed to fetch users: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ApiResponse(false, "Failed to fetch users"));
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    @GetMapping("/users/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportUsers(
+            @RequestParam(required = false) UserRole role,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "JSONL") UserExportFormat format,
+            HttpServletResponse response) throws IOException {
+        log.info("GET /admin/users/export - Exporting users as {}", format);
+
+        String extension = format == UserExportFormat.CSV ? "csv" : "jsonl";
+        response.setContentType(format == UserExportFormat.CSV ? "text/csv" : "application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users." + extension + "\"");
+
+        adminService.exportUsers(role, active, search, format, response.getOutputStream());
+    }
+
+    @GetMapping("/emails")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getEmails(
+            @RequestParam(defaultValue = "DEAD") OutboxEmailStatus status,
+            @RequestParam(required = false) Integer limit) {
+        log.info("GET /admin/emails - Fetching {} emails", status);
+        
+        try {
+            List<OutboxEmailResponse> emails = emailOutboxService.getEmails(status, limit);
+            return ResponseEntity.ok(emails);
+        } catch (Exception e) {
+            log.error("Failed to fetch emails: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    @PostMapping("/emails/{emailId}/retry")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> retryEmail(@PathVariable Long emailId) {
+        log.info("POST /admin/emails/{}/retry - Re-queuing dead-lettered email", emailId);
+        
+        try {
+            OutboxEmailResponse email = emailOutboxService.retry(emailId);
+            return ResponseEntity.ok(email);
+        } catch (Exception e) {
+            log.error("Failed to retry email: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    @PostMapping("/drug-interactions/reload")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> reloadDrugInteractions() {
+        log.info("POST /admin/drug-interactions/reload - Reloading drug interaction dataset");
+        
+        try {
+            int pairs = drugInteractionChecker.reload();
+            return ResponseEntity.ok(new ApiResponse(true, "Loaded " + pairs + " drug interaction pairs"));
+        } catch (Exception e) {
+            log.error("Failed to reload drug interactions: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
         }
     }
 
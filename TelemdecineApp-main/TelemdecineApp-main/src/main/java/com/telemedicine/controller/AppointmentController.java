@@ -4,18 +4,21 @@ import com.telemedicine.dto.ApiResponse;
 import com.telemedicine.dto.AppointmentRequest;
 import com.telemedicine.dto.AppointmentResponse;
 import com.telemedicine.dto.AppointmentUpdateRequest;
+import com.telemedicine.dto.CursorPage;
 import com.telemedicine.entity.AppointmentStatus;
+import com.telemedicine.exception.ConflictException;
 import com.telemedicine.security.UserPrincipal;
 import com.telemedicine.service.AppointmentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/appointments")
@@ -37,6 +40,8 @@ public class AppointmentController {
             UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
             AppointmentResponse response = appointmentService.createAppointment(userPrincipal.getId(), request);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (ConflictException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Failed to create appointment: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -45,12 +50,19 @@ public class AppointmentController {
     }
 
     @GetMapping("/my-appointments")
-    public ResponseEntity<?> getMyAppointments(Authentication authentication) {
+    public ResponseEntity<?> getMyAppointments(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            Authentication authentication) {
+
         log.info("GET /appointments/my-appointments - Fetching user appointments");
         
         try {
             UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-            List<AppointmentResponse> appointments = appointmentService.getPatientAppointments(userPrincipal.getId());
+            CursorPage<AppointmentResponse> appointments = appointmentService.getPatientAppointments(
+                    userPrincipal.getId(), cursor, limit, from, to);
             return ResponseEntity.ok(appointments);
         } catch (Exception e) {
             log.error("Failed to fetch appointments: {}", e.getMessage());
@@ -60,12 +72,19 @@ public class AppointmentController {
     }
 
     @GetMapping("/doctor/appointments")
-    public ResponseEntity<?> getDoctorAppointments(Authentication authentication) {
+    public ResponseEntity<?> getDoctorAppointments(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            Authentication authentication) {
+
         log.info("GET /appointments/doctor/appointments - Fetching doctor appointments");
         
         try {
             UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-            List<AppointmentResponse> appointments = appointmentService.getDoctorAppointments(userPrincipal.getId());
+            CursorPage<AppointmentResponse> appointments = appointmentService.getDoctorAppointments(
+                    userPrincipal.getId(), cursor, limit, from, to);
             return ResponseEntity.ok(appointments);
         } catch (Exception e) {
             log.error("Failed to fetch doctor appointments: {}", e.getMessage());
@@ -104,6 +123,8 @@ public class AppointmentController {
             UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
             AppointmentResponse response = appointmentService.updateAppointment(userPrincipal.getId(), appointmentId, request);
             return ResponseEntity.ok(response);
+        } catch (ConflictException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Failed to update appointment: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -132,13 +153,18 @@ public class AppointmentController {
     @GetMapping("/status/{status}")
     public ResponseEntity<?> getAppointmentsByStatus(
             @PathVariable AppointmentStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
             Authentication authentication) {
         
         log.info("GET /appointments/status/{} - Fetching appointments by status", status);
         
         try {
             UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-            List<AppointmentResponse> appointments = appointmentService.getAppointmentsByStatus(userPrincipal.getId(), status);
+            CursorPage<AppointmentResponse> appointments = appointmentService.getAppointmentsByStatus(
+                    userPrincipal.getId(), userPrincipal.getRole(), status, cursor, limit, from, to);
             return ResponseEntity.ok(appointments);
         } catch (Exception e) {
             log.error("Failed to fetch appointments by status: {}", e.getMessage());
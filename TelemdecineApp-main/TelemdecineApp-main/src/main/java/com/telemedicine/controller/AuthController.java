@@ -4,12 +4,14 @@ import com.telemedicine.dto.ApiResponse;
 import com.telemedicine.dto.AuthResponse;
 import com.telemedicine.dto.LoginRequest;
 import com.telemedicine.dto.RegisterRequest;
+import com.telemedicine.exception.ServiceUnavailableException;
 import com.telemedicine.service.AuthService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -29,6 +31,7 @@ public class AuthController {
             AuthResponse response = authService.register(request);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (Exception e) {
+            rethrowIfUnavailable(e);
             log.error("Registration failed: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new ApiResponse(false, e.getMessage()));
@@ -43,12 +46,22 @@ public class AuthController {
             AuthResponse response = authService.login(request);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
+            rethrowIfUnavailable(e);
             log.error("Login failed: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(new ApiResponse(false, "Invalid email or password"));
         }
     }
 
+    // A saturated password hash pool is a 503 with Retry-After, not a failed login. DaoAuthenticationProvider wraps
+    // it in InternalAuthenticationServiceException when it comes from the hash run for unknown emails.
+    private static void rethrowIfUnavailable(Exception e) {
+        Throwable cause = e instanceof InternalAuthenticationServiceException ? e.getCause() : e;
+        if (cause instanceof ServiceUnavailableException unavailable) {
+            throw unavailable;
+        }
+    }
+
     @GetMapping("/health")
     public ResponseEntity<ApiResponse> healthCheck() {
         return ResponseEntity.ok(new ApiResponse(true, "Authentication service is running"));
@@ -1,17 +1,32 @@
 package com.telemedicine.controller;
 
 import com.telemedicine.dto.ApiResponse;
+import com.telemedicine.dto.AvailableSlotResponse;
 import com.telemedicine.dto.DoctorProfileRequest;
 import com.telemedicine.dto.DoctorResponse;
+import com.telemedicine.dto.DoctorScheduleResponse;
+import com.telemedicine.dto.FreeSlotResponse;
+import com.telemedicine.dto.NearbyDoctorResponse;
+import com.telemedicine.dto.PublicDoctorResponse;
+import com.telemedicine.dto.TimeOffRequest;
+import com.telemedicine.dto.TimeOffResponse;
+import com.telemedicine.dto.WeeklyScheduleRequest;
 import com.telemedicine.security.UserPrincipal;
+import com.telemedicine.service.DoctorDirectory;
+import com.telemedicine.service.DoctorScheduleService;
 import com.telemedicine.service.DoctorService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -23,27 +38,41 @@ import java.util.Map;
 public class DoctorController {
 
     private final DoctorService doctorService;
+    private final DoctorScheduleService doctorScheduleService;
+    private final DoctorDirectory doctorDirectory;
 
+    // Directory listings are served as pre-serialized JSON; a matching If-None-Match gets a 304
     @GetMapping
-    public ResponseEntity<List<DoctorResponse>> getAllDoctors() {
+    public ResponseEntity<byte[]> getAllDoctors() {
         log.info("GET /doctors - Fetching all doctors");
-        List<DoctorResponse> doctors = doctorService.getAllDoctors();
-        return ResponseEntity.ok(doctors);
+        return directoryResponse(doctorDirectory.allDoctors());
     }
 
     @GetMapping("/available")
-    public ResponseEntity<List<DoctorResponse>> getAvailableDoctors() {
+    public ResponseEntity<byte[]> getAvailableDoctors() {
         log.info("GET /doctors/available - Fetching available doctors");
-        List<DoctorResponse> doctors = doctorService.getAvailableDoctors();
-        return ResponseEntity.ok(doctors);
+        return directoryResponse(doctorDirectory.availableDoctors());
     }
 
     @GetMapping("/specialization/{specialization}")
-    public ResponseEntity<List<DoctorResponse>> getDoctorsBySpecialization(
+    public ResponseEntity<byte[]> getDoctorsBySpecialization(
             @PathVariable String specialization) {
         log.info("GET /doctors/specialization/{} - Fetching doctors by specialization", specialization);
-        List<DoctorResponse> doctors = doctorService.getDoctorsBySpecialization(specialization);
-        return ResponseEntity.ok(doctors);
+        return directoryResponse(doctorDirectory.doctorsBySpecialization(specialization));
+    }
+
+    // Anonymous listings leave out contact details and licence numbers
+    @GetMapping("/public")
+    public ResponseEntity<byte[]> getPublicDoctors() {
+        log.info("GET /doctors/public - Fetching public doctor listing");
+        return directoryResponse(doctorDirectory.publicAvailableDoctors());
+    }
+
+    @GetMapping("/public/specialization/{specialization}")
+    public ResponseEntity<byte[]> getPublicDoctorsBySpecialization(
+            @PathVariable String specialization) {
+        log.info("GET /doctors/public/specialization/{} - Fetching public doctor listing", specialization);
+        return directoryResponse(doctorDirectory.publicDoctorsBySpecialization(specialization));
     }
 
     @GetMapping("/{doctorId}")
@@ -111,4 +140,160 @@ public class DoctorController {
                     .body(new ApiResponse(false, e.getMessage()));
         }
     }
+
+    @GetMapping("/public/search")
+    public ResponseEntity<?> searchDoctors(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        
+        log.info("GET /doctors/public/search - Searching doctors");
+        
+        try {
+            List<PublicDoctorResponse> doctors = doctorService.searchDoctors(q, limit);
+            return ResponseEntity.ok(doctors);
+        } catch (Exception e) {
+            log.error("Failed to search doctors: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    @GetMapping("/public/nearby")
+    public ResponseEntity<?> findNearbyDoctors(
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lon,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) String specialization,
+            @RequestParam(required = false) Integer limit,
+            Authentication authentication) {
+        
+        log.info("GET /doctors/public/nearby - Searching nearby doctors");
+        
+        try {
+            Long userId = authentication != null && authentication.getPrincipal() instanceof UserPrincipal userPrincipal
+                    ? userPrincipal.getId() : null;
+            List<NearbyDoctorResponse> doctors = doctorService.findNearbyDoctors(
+                    userId, lat, lon, radiusKm, specialization, limit);
+            return ResponseEntity.ok(doctors);
+        } catch (Exception e) {
+            log.error("Failed to search nearby doctors: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    @GetMapping("/public/earliest-available")
+    public ResponseEntity<?> findEarliestAvailable(
+            @RequestParam String specialization,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) Integer duration,
+            @RequestParam(required = false) Integer limit) {
+        
+        log.info("GET /doctors/public/earliest-available - Searching earliest {} slots", specialization);
+        
+        try {
+            List<AvailableSlotResponse> slots = doctorScheduleService.findEarliestAvailable(
+                    specialization, from, duration, limit);
+            return ResponseEntity.ok(slots);
+        } catch (Exception e) {
+            log.error("Failed to search earliest available slots: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{doctorId}/schedule")
+    public ResponseEntity<?> getSchedule(@PathVariable Long doctorId) {
+        log.info("GET /doctors/{}/schedule - Fetching doctor schedule", doctorId);
+        
+        try {
+            DoctorScheduleResponse response = doctorScheduleService.getSchedule(doctorId);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Failed to fetch doctor schedule: {}", e.getMessage());
+            return ResponseEntity.status(404)
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    @PutMapping("/schedule/me")
+    public ResponseEntity<?> updateWeeklyHours(
+            @Valid @RequestBody WeeklyScheduleRequest request,
+            Authentication authentication) {
+        
+        log.info("PUT /doctors/schedule/me - Updating weekly hours");
+        
+        try {
+            UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+            DoctorScheduleResponse response = doctorScheduleService.updateWeeklyHours(userPrincipal.getId(), request);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Failed to update weekly hours: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    @PostMapping("/schedule/me/time-off")
+    public ResponseEntity<?> addTimeOff(
+            @Valid @RequestBody TimeOffRequest request,
+            Authentication authentication) {
+        
+        log.info("POST /doctors/schedule/me/time-off - Adding time off");
+        
+        try {
+            UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+            TimeOffResponse response = doctorScheduleService.addTimeOff(userPrincipal.getId(), request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (Exception e) {
+            log.error("Failed to add time off: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/schedule/me/time-off/{timeOffId}")
+    public ResponseEntity<?> deleteTimeOff(
+            @PathVariable Long timeOffId,
+            Authentication authentication) {
+        
+        log.info("DELETE /doctors/schedule/me/time-off/{} - Deleting time off", timeOffId);
+        
+        try {
+            UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+            doctorScheduleService.deleteTimeOff(userPrincipal.getId(), timeOffId);
+            return ResponseEntity.ok(new ApiResponse(true, "Time off deleted successfully"));
+        } catch (Exception e) {
+            log.error("Failed to delete time off: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{doctorId}/free-slots")
+    public ResponseEntity<?> getFreeSlots(
+            @PathVariable Long doctorId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer duration) {
+        
+        log.info("GET /doctors/{}/free-slots - Fetching free slots", doctorId);
+        
+        try {
+            List<FreeSlotResponse> slots = doctorScheduleService.getFreeSlots(doctorId, from, to, duration);
+            return ResponseEntity.ok(slots);
+        } catch (Exception e) {
+            log.error("Failed to fetch free slots: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    private ResponseEntity<byte[]> directoryResponse(DoctorDirectory.Entry entry) {
+        return ResponseEntity.ok()
+                .eTag(entry.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(entry.json());
+    }
 }
@@ -3,16 +3,30 @@ package com.telemedicine.controller;
 import com.telemedicine.dto.ApiResponse;
 import com.telemedicine.dto.MedicalRecordRequest;
 import com.telemedicine.dto.MedicalRecordResponse;
+import com.telemedicine.exception.ConflictException;
+import com.telemedicine.exception.PayloadTooLargeException;
 import com.telemedicine.security.UserPrincipal;
+import com.telemedicine.service.ByteRange;
 import com.telemedicine.service.MedicalRecordService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 
 @RestController
@@ -114,4 +128,88 @@ public class MedicalRecordController {
                     .body(new ApiResponse(false, e.getMessage()));
         }
     }
+
+    // The request body is the file itself (not multipart) and is streamed to disk as it arrives
+    @PutMapping("/{recordId}/file")
+    public ResponseEntity<?> uploadFile(
+            @PathVariable Long recordId,
+            @RequestParam String fileName,
+            HttpServletRequest request,
+            Authentication authentication) {
+
+        log.info("PUT /medical-records/{}/file - Uploading file", recordId);
+
+        try {
+            UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+            MedicalRecordResponse response = medicalRecordService.uploadFile(userPrincipal.getId(), recordId,
+                    fileName, request.getContentType(), request.getContentLengthLong(), request.getInputStream());
+            return ResponseEntity.ok(response);
+        } catch (ConflictException | PayloadTooLargeException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Failed to upload file: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{recordId}/file")
+    public void downloadFile(
+            @PathVariable Long recordId,
+            Authentication authentication,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        log.info("GET /medical-records/{}/file - Downloading file", recordId);
+
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        MedicalRecordService.FileDownload file = medicalRecordService.getFile(userPrincipal.getId(), recordId);
+
+        // Stored files never change, so the content hash is a strong ETag
+        String etag = "\"" + file.sha256() + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        ByteRange range = ByteRange.resolve(request.getHeader(HttpHeaders.RANGE),
+                request.getHeader(HttpHeaders.IF_RANGE), etag, file.size());
+        if (range.partial()) {
+            if (!range.satisfiable()) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + file.size());
+                return;
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE,
+                    "bytes " + range.start() + "-" + range.end() + "/" + file.size());
+        }
+
+        response.setContentType(file.contentType() != null ? file.contentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setContentLengthLong(range.length());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(file.fileName(), StandardCharsets.UTF_8).build().toString());
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        // Tomcat's NIO connector sends the region with sendfile (FileChannel.transferTo) after this returns;
+        // elsewhere (TLS, other containers) transfer it from the file channel ourselves
+        if (Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+            request.setAttribute("org.apache.tomcat.sendfile.filename", file.path().toString());
+            request.setAttribute("org.apache.tomcat.sendfile.start", range.start());
+            request.setAttribute("org.apache.tomcat.sendfile.end", range.end() + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file.path(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            for (long position = range.start(); position <= range.end(); ) {
+                position += channel.transferTo(position, range.end() + 1 - position, out);
+            }
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package com.telemedicine.controller;
 
 import com.telemedicine.dto.ApiResponse;
+import com.telemedicine.dto.MedicationSuggestion;
 import com.telemedicine.dto.PrescriptionRequest;
 import com.telemedicine.dto.PrescriptionResponse;
 import com.telemedicine.security.UserPrincipal;
@@ -10,6 +11,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
@@ -42,6 +44,24 @@ public class PrescriptionController {
         }
     }
 
+    @GetMapping("/medications/suggest")
+    @PreAuthorize("hasAnyRole('DOCTOR', 'ADMIN')")
+    public ResponseEntity<?> suggestMedications(
+            @RequestParam String prefix,
+            @RequestParam(required = false) Integer limit) {
+
+        log.debug("GET /prescriptions/medications/suggest - prefix={}", prefix);
+
+        try {
+            List<MedicationSuggestion> suggestions = prescriptionService.suggestMedications(prefix, limit);
+            return ResponseEntity.ok(suggestions);
+        } catch (Exception e) {
+            log.error("Failed to suggest medications: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
     @GetMapping("/patient/{patientId}")
     public ResponseEntity<?> getPatientPrescriptions(
             @PathVariable Long patientId,
@@ -2,6 +2,8 @@ package com.telemedicine.dto;
 
 import com.telemedicine.entity.AppointmentStatus;
 import com.telemedicine.entity.AppointmentType;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -25,5 +27,7 @@ public class AppointmentRequest {
 
     private String symptoms;
 
+    @Min(value = 5, message = "Duration must be at least 5 minutes")
+    @Max(value = 240, message = "Duration must be at most 240 minutes")
     private Integer durationMinutes = 30;
 }
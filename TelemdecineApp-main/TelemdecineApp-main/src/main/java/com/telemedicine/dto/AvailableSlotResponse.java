@@ -0,0 +1,19 @@
+package com.telemedicine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailableSlotResponse {
+    private Long doctorId;
+    private String doctorName;
+    private String specialization;
+    private Double consultationFee;
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
@@ -21,4 +21,6 @@ public class DoctorResponse {
     private Boolean availableForConsultation;
     private String clinicAddress;
     private String clinicPhone;
+    private Double clinicLatitude;
+    private Double clinicLongitude;
 }
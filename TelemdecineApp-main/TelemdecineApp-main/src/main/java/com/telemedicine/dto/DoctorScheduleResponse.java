@@ -0,0 +1,16 @@
+package com.telemedicine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DoctorScheduleResponse {
+    private Long doctorId;
+    private List<WorkingHoursResponse> hours;
+    private List<TimeOffResponse> timeOff;
+}
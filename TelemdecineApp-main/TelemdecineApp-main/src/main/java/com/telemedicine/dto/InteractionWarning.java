@@ -0,0 +1,15 @@
+package com.telemedicine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InteractionWarning {
+    private String type; // INTERACTION or ALLERGY
+    private String conflictsWith; // active medication or allergy term
+    private String severity; // MINOR, MODERATE, MAJOR or CONTRAINDICATED
+    private String description;
+}
@@ -20,6 +20,9 @@ public class MedicalRecordResponse {
     private String recordType;
     private String fileUrl;
     private String fileName;
+    private String fileSha256; // set when the file is stored here; download from /medical-records/{id}/file
+    private Long fileSize;
+    private String contentType;
     private String uploadedBy;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -0,0 +1,13 @@
+package com.telemedicine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MedicationSuggestion {
+    private String name;
+    private long usageCount; // prescriptions written for this name
+}
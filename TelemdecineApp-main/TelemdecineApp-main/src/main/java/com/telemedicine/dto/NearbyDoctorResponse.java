@@ -0,0 +1,19 @@
+package com.telemedicine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyDoctorResponse {
+    private Long doctorId;
+    private String doctorName;
+    private String specialization;
+    private Double consultationFee;
+    private String clinicAddress;
+    private Double clinicLatitude;
+    private Double clinicLongitude;
+    private Double distanceKm;
+}
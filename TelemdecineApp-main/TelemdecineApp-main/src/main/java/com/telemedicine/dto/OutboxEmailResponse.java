@@ -0,0 +1,25 @@
+package com.telemedicine.dto;
+
+import com.telemedicine.entity.OutboxEmailStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEmailResponse {
+    private Long id;
+    private String idempotencyKey;
+    private String recipient;
+    private String subject;
+    private String template;
+    private OutboxEmailStatus status;
+    private Integer attempts;
+    private LocalDateTime nextAttemptAt;
+    private String lastError;
+    private LocalDateTime sentAt;
+    private LocalDateTime createdAt;
+}
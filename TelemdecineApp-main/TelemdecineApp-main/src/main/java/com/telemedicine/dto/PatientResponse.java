@@ -29,6 +29,8 @@ public class PatientResponse {
     private String city;
     private String country;
     private String postalCode;
+    private Double latitude;
+    private Double longitude;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
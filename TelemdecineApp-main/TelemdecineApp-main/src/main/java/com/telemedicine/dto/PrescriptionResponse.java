@@ -6,6 +6,7 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -26,4 +27,5 @@ public class PrescriptionResponse {
     private Boolean isActive;
     private String notes;
     private LocalDateTime createdAt;
+    private List<InteractionWarning> warnings; // only set when the prescription is created
 }
@@ -0,0 +1,41 @@
+package com.telemedicine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// What anonymous callers may see of a doctor: no personal contact details or licence number
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PublicDoctorResponse {
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String specialization;
+    private Integer yearsOfExperience;
+    private String biography;
+    private Double consultationFee;
+    private Boolean availableForConsultation;
+    private String clinicAddress;
+    private String clinicPhone;
+    private Double clinicLatitude;
+    private Double clinicLongitude;
+
+    public static PublicDoctorResponse from(DoctorResponse doctor) {
+        return new PublicDoctorResponse(
+                doctor.getId(),
+                doctor.getFirstName(),
+                doctor.getLastName(),
+                doctor.getSpecialization(),
+                doctor.getYearsOfExperience(),
+                doctor.getBiography(),
+                doctor.getConsultationFee(),
+                doctor.getAvailableForConsultation(),
+                doctor.getClinicAddress(),
+                doctor.getClinicPhone(),
+                doctor.getClinicLatitude(),
+                doctor.getClinicLongitude()
+        );
+    }
+}
@@ -0,0 +1,18 @@
+package com.telemedicine.dto;
+
+import com.telemedicine.entity.StatisticsMetric;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatisticsSeriesPoint {
+    private StatisticsMetric metric;
+    private String dimension;
+    private LocalDateTime bucketStart;
+    private Long total;
+}
@@ -0,0 +1,18 @@
+package com.telemedicine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatisticsSeriesResponse {
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private StatisticsGranularity granularity;
+    private List<StatisticsSeriesPoint> points;
+}
@@ -0,0 +1,24 @@
+package com.telemedicine.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeOffRequest {
+    @NotNull(message = "Date is required")
+    private LocalDate date;
+
+    // Leave both times empty to take the whole day off
+    private LocalTime startTime;
+
+    private LocalTime endTime;
+
+    private String reason;
+}
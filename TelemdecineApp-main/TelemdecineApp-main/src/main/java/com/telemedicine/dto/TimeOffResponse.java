@@ -0,0 +1,19 @@
+package com.telemedicine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeOffResponse {
+    private Long id;
+    private LocalDate date;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private String reason;
+}
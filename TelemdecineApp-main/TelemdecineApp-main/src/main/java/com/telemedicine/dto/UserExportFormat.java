@@ -0,0 +1,6 @@
+package com.telemedicine.dto;
+
+public enum UserExportFormat {
+    JSONL,
+    CSV
+}
@@ -0,0 +1,21 @@
+package com.telemedicine.dto;
+
+import com.telemedicine.entity.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummary {
+    private Long id;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private UserRole role;
+    private Boolean active;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,17 @@
+package com.telemedicine.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WeeklyScheduleRequest {
+    @NotNull(message = "Working hours are required")
+    private List<@Valid WorkingHoursRequest> hours;
+}
@@ -10,7 +10,13 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+        @Index(name = "idx_appointments_patient_date", columnList = "patient_id, appointment_date, id"),
+        @Index(name = "idx_appointments_doctor_date", columnList = "doctor_id, appointment_date, id"),
+        @Index(name = "idx_appointments_status_date", columnList = "status, appointment_date, id"),
+        @Index(name = "idx_appointments_created_at", columnList = "created_at"),
+        @Index(name = "idx_appointments_updated_at", columnList = "updated_at")
+})
 @Data
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
@@ -54,6 +60,13 @@ public class Appointment extends BaseEntity {
     @Column(name = "duration_minutes")
     private Integer durationMinutes = 30;
 
+    // When the reminders went out; cleared when the appointment is rescheduled
+    @Column(name = "day_reminder_sent_at")
+    private LocalDateTime dayReminderSentAt;
+
+    @Column(name = "hour_reminder_sent_at")
+    private LocalDateTime hourReminderSentAt;
+
     @OneToOne(mappedBy = "appointment", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Consultation consultation;
 }
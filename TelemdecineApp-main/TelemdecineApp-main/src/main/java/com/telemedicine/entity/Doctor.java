@@ -45,6 +45,12 @@ public class Doctor extends BaseEntity {
     @Column
     private String clinicPhone;
 
+    @Column(name = "clinic_latitude")
+    private Double clinicLatitude;
+
+    @Column(name = "clinic_longitude")
+    private Double clinicLongitude;
+
     @OneToMany(mappedBy = "doctor", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Appointment> appointments = new ArrayList<>();
 
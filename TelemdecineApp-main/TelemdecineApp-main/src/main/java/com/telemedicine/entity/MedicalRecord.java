@@ -9,7 +9,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "medical_records")
+@Table(name = "medical_records", indexes = {
+        @Index(name = "idx_medical_records_file_hash", columnList = "file_hash")
+})
 @Data
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
@@ -38,6 +40,16 @@ public class MedicalRecord extends BaseEntity {
     @Column(name = "file_name")
     private String fileName;
 
+    // Set for files uploaded to the attachment store, which keeps them under their SHA-256
+    @Column(name = "file_hash", length = 64)
+    private String fileHash;
+
+    @Column(name = "file_size")
+    private Long fileSize;
+
+    @Column(name = "content_type")
+    private String contentType;
+
     @Column(name = "uploaded_by")
     private String uploadedBy;
 }
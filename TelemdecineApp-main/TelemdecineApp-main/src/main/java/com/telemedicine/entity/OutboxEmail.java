@@ -0,0 +1,56 @@
+package com.telemedicine.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "email_outbox")
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEmail extends BaseEntity {
+
+    // One row per logical email; enqueueing the same key again is a no-op
+    @Column(name = "idempotency_key", unique = true, nullable = false)
+    private String idempotencyKey;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false)
+    private String template;
+
+    // Template variables as a JSON object
+    @Column(length = 4000)
+    private String variables;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxEmailStatus status = OutboxEmailStatus.PENDING;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    // When a pending email is next due; pushed forward while a worker holds it and after failures
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // Set on each claim; a worker only updates the row while it still holds the claim it leased
+    @Column(name = "lease_token", length = 36)
+    private String leaseToken;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+}
@@ -0,0 +1,7 @@
+package com.telemedicine.entity;
+
+public enum OutboxEmailStatus {
+    PENDING,
+    SENT,
+    DEAD
+}
@@ -55,6 +55,12 @@ public class Patient extends BaseEntity {
     @Column(name = "postal_code")
     private String postalCode;
 
+    @Column
+    private Double latitude;
+
+    @Column
+    private Double longitude;
+
     @OneToMany(mappedBy = "patient", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Appointment> appointments = new ArrayList<>();
 
@@ -9,7 +9,10 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "prescriptions")
+@Table(name = "prescriptions", indexes = {
+        @Index(name = "idx_prescriptions_created_at", columnList = "created_at"),
+        @Index(name = "idx_prescriptions_updated_at", columnList = "updated_at")
+})
 @Data
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
@@ -0,0 +1,26 @@
+package com.telemedicine.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "rollup_watermarks")
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupWatermark extends BaseEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(unique = true, nullable = false)
+    private StatisticsMetric metric;
+
+    // Source rows modified at or after this time have not been rolled up yet
+    @Column(name = "processed_until", nullable = false)
+    private LocalDateTime processedUntil;
+}
@@ -0,0 +1,25 @@
+package com.telemedicine.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Idempotency key of a sent email whose outbox row was purged, so enqueueing it again stays a no-op
+@Entity
+@Table(name = "email_outbox_sent_keys")
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class SentEmailKey extends BaseEntity {
+
+    @Column(name = "idempotency_key", unique = true, nullable = false)
+    private String idempotencyKey;
+
+    @Column(name = "sent_at", nullable = false)
+    private LocalDateTime sentAt;
+}
@@ -0,0 +1,35 @@
+package com.telemedicine.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "statistics_buckets", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_statistics_buckets", columnNames = {"metric", "bucket_start", "dimension"})
+})
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatisticsBucket extends BaseEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private StatisticsMetric metric;
+
+    // Appointment status or user role; "ALL" for metrics without a breakdown
+    @Column(nullable = false)
+    private String dimension;
+
+    // Start of the hour this bucket counts (by the source row's created_at)
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false)
+    private Long total;
+}
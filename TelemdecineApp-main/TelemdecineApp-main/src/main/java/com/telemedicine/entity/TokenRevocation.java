@@ -0,0 +1,25 @@
+package com.telemedicine.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "token_revocations")
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevocation extends BaseEntity {
+
+    @Column(name = "user_id", unique = true, nullable = false)
+    private Long userId;
+
+    // Tokens of this user issued before this instant are rejected
+    @Column(name = "revoked_before", nullable = false)
+    private Instant revokedBefore;
+}
@@ -10,7 +10,10 @@ import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_created_at", columnList = "created_at"),
+        @Index(name = "idx_users_updated_at", columnList = "updated_at")
+})
 @Data
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
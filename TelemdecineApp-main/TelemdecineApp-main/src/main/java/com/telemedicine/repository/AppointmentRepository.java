@@ -1,17 +1,31 @@
 package com.telemedicine.repository;
 
+import com.telemedicine.dto.AppointmentResponse;
 import com.telemedicine.entity.Appointment;
 import com.telemedicine.entity.AppointmentStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
+
+    // Builds AppointmentResponse rows in one joined SELECT instead of walking the lazy associations
+    String RESPONSE_PROJECTION = "SELECT new com.telemedicine.dto.AppointmentResponse(" +
+            "a.id, p.id, CONCAT(pu.firstName, ' ', pu.lastName), " +
+            "d.id, CONCAT(du.firstName, ' ', du.lastName), d.specialization, " +
+            "a.appointmentDate, a.type, a.status, a.reason, a.symptoms, a.notes, " +
+            "a.meetingLink, a.durationMinutes, a.createdAt) " +
+            "FROM Appointment a JOIN a.patient p JOIN p.user pu JOIN a.doctor d JOIN d.user du ";
+
     List<Appointment> findByPatientId(Long patientId);
     List<Appointment> findByPatientIdOrderByAppointmentDateDesc(Long patientId);
     List<Appointment> findByDoctorId(Long doctorId);
@@ -34,4 +48,142 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
         @Param("startDate") LocalDateTime startDate,
         @Param("endDate") LocalDateTime endDate
     );
+
+    // Keyset pages ordered by (appointment_date, id): rows strictly after (afterDate, afterId), up to 'until'.
+    // The redundant appointmentDate >= :afterDate is what the planner can use as the start of an index range
+    // scan on (x_id, appointment_date, id); the OR alone is only a filter, which makes deep pages cost O(offset).
+    String KEYSET_PREDICATE = "AND a.appointmentDate >= :afterDate AND a.appointmentDate <= :until " +
+            "AND (a.appointmentDate > :afterDate OR (a.appointmentDate = :afterDate AND a.id > :afterId)) " +
+            "ORDER BY a.appointmentDate, a.id";
+
+    // The list endpoints filter on the caller's user ID directly, so no profile lookup precedes the page query
+    @Query(RESPONSE_PROJECTION + "WHERE pu.id = :userId " + KEYSET_PREDICATE)
+    List<AppointmentResponse> findResponsePageByPatientUserId(
+        @Param("userId") Long userId,
+        @Param("afterDate") LocalDateTime afterDate,
+        @Param("afterId") Long afterId,
+        @Param("until") LocalDateTime until,
+        Pageable pageable
+    );
+
+    @Query(RESPONSE_PROJECTION + "WHERE du.id = :userId " + KEYSET_PREDICATE)
+    List<AppointmentResponse> findResponsePageByDoctorUserId(
+        @Param("userId") Long userId,
+        @Param("afterDate") LocalDateTime afterDate,
+        @Param("afterId") Long afterId,
+        @Param("until") LocalDateTime until,
+        Pageable pageable
+    );
+
+    @Query(RESPONSE_PROJECTION + "WHERE a.status = :status " + KEYSET_PREDICATE)
+    List<AppointmentResponse> findResponsePageByStatus(
+        @Param("status") AppointmentStatus status,
+        @Param("afterDate") LocalDateTime afterDate,
+        @Param("afterId") Long afterId,
+        @Param("until") LocalDateTime until,
+        Pageable pageable
+    );
+
+    @Query(RESPONSE_PROJECTION + "WHERE pu.id = :userId AND a.status = :status " + KEYSET_PREDICATE)
+    List<AppointmentResponse> findResponsePageByPatientUserIdAndStatus(
+        @Param("userId") Long userId,
+        @Param("status") AppointmentStatus status,
+        @Param("afterDate") LocalDateTime afterDate,
+        @Param("afterId") Long afterId,
+        @Param("until") LocalDateTime until,
+        Pageable pageable
+    );
+
+    @Query(RESPONSE_PROJECTION + "WHERE du.id = :userId AND a.status = :status " + KEYSET_PREDICATE)
+    List<AppointmentResponse> findResponsePageByDoctorUserIdAndStatus(
+        @Param("userId") Long userId,
+        @Param("status") AppointmentStatus status,
+        @Param("afterDate") LocalDateTime afterDate,
+        @Param("afterId") Long afterId,
+        @Param("until") LocalDateTime until,
+        Pageable pageable
+    );
+
+    @Query("SELECT a.status AS status, COUNT(a) AS total FROM Appointment a GROUP BY a.status")
+    List<StatusCount> countByStatus();
+
+    @Query("SELECT DISTINCT year(a.createdAt) AS year, month(a.createdAt) AS month, day(a.createdAt) AS day, hour(a.createdAt) AS hour " +
+           "FROM Appointment a WHERE a.updatedAt >= :since")
+    List<HourKey> findCreatedHoursModifiedSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT year(a.createdAt) AS year, month(a.createdAt) AS month, day(a.createdAt) AS day, hour(a.createdAt) AS hour, " +
+           "a.status AS dimension, COUNT(a) AS total FROM Appointment a " +
+           "WHERE a.createdAt >= :from AND a.createdAt < :to " +
+           "GROUP BY year(a.createdAt), month(a.createdAt), day(a.createdAt), hour(a.createdAt), a.status")
+    List<HourlyCount> countHourlyByStatus(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT a.id AS id, a.appointmentDate AS appointmentDate, a.durationMinutes AS durationMinutes " +
+           "FROM Appointment a WHERE a.doctor.id = :doctorId AND a.status <> :freeStatus " +
+           "AND a.appointmentDate >= :from AND a.appointmentDate < :to ORDER BY a.appointmentDate")
+    List<BookedSlot> findBookedSlots(
+        @Param("doctorId") Long doctorId,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to,
+        @Param("freeStatus") AppointmentStatus freeStatus
+    );
+
+    // Both reminder queries walk the partial reminder indexes in init-database.sql
+    String REMINDER_CANDIDATES = "SELECT a FROM Appointment a " +
+            "JOIN FETCH a.patient p JOIN FETCH p.user JOIN FETCH a.doctor d JOIN FETCH d.user " +
+            "WHERE a.appointmentDate > :from AND a.appointmentDate <= :until AND a.status IN :statuses ";
+
+    @Query(REMINDER_CANDIDATES + "AND a.dayReminderSentAt IS NULL ORDER BY a.appointmentDate")
+    List<Appointment> findDueForDayReminder(
+        @Param("from") LocalDateTime from,
+        @Param("until") LocalDateTime until,
+        @Param("statuses") Collection<AppointmentStatus> statuses,
+        Pageable pageable
+    );
+
+    @Query(REMINDER_CANDIDATES + "AND a.hourReminderSentAt IS NULL ORDER BY a.appointmentDate")
+    List<Appointment> findDueForHourReminder(
+        @Param("from") LocalDateTime from,
+        @Param("until") LocalDateTime until,
+        @Param("statuses") Collection<AppointmentStatus> statuses,
+        Pageable pageable
+    );
+
+    @Modifying
+    @Query("UPDATE Appointment a SET a.dayReminderSentAt = :now WHERE a.id IN :ids")
+    int markDayReminderSent(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Appointment a SET a.hourReminderSentAt = :now WHERE a.id IN :ids")
+    int markHourReminderSent(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    // One bounded chunk of overdue appointments; rows another node is sweeping are skipped, not waited on
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE appointments SET status = :toStatus, updated_at = :now WHERE id IN (" +
+                   "SELECT id FROM appointments WHERE status = :fromStatus AND appointment_date < :cutoff " +
+                   "ORDER BY appointment_date LIMIT :limit FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int sweepOverdue(
+        @Param("fromStatus") String fromStatus,
+        @Param("toStatus") String toStatus,
+        @Param("cutoff") LocalDateTime cutoff,
+        @Param("now") LocalDateTime now,
+        @Param("limit") int limit
+    );
+
+    @Query("SELECT MIN(a.appointmentDate) FROM Appointment a WHERE a.status IN :statuses AND a.appointmentDate < :cutoff")
+    LocalDateTime findOldestOverdue(
+        @Param("statuses") Collection<AppointmentStatus> statuses,
+        @Param("cutoff") LocalDateTime cutoff
+    );
+
+    interface StatusCount {
+        AppointmentStatus getStatus();
+        long getTotal();
+    }
+
+    interface BookedSlot {
+        Long getId();
+        LocalDateTime getAppointmentDate();
+        Integer getDurationMinutes();
+    }
 }
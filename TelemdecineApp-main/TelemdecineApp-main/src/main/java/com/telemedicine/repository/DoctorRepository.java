@@ -1,18 +1,76 @@
 package com.telemedicine.repository;
 
+import com.telemedicine.dto.DoctorResponse;
 import com.telemedicine.entity.Doctor;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
+
+    // Bookable doctors that have placed their clinic on the map
+    String LOCATED_BOOKABLE = "SELECT d.id AS id, CONCAT(u.firstName, ' ', u.lastName) AS name, " +
+            "d.specialization AS specialization, d.consultationFee AS consultationFee, " +
+            "d.clinicAddress AS clinicAddress, d.clinicLatitude AS latitude, d.clinicLongitude AS longitude " +
+            "FROM Doctor d JOIN d.user u WHERE d.clinicLatitude IS NOT NULL AND d.clinicLongitude IS NOT NULL " +
+            "AND d.availableForConsultation = true AND u.active = true ";
+
     Optional<Doctor> findByUserId(Long userId);
+    boolean existsByUserId(Long userId);
     Optional<Doctor> findByLicenseNumber(String licenseNumber);
     List<Doctor> findBySpecialization(String specialization);
     List<Doctor> findByAvailableForConsultationTrue();
+
+    @Query("SELECT new com.telemedicine.dto.DoctorResponse(d.id, u.firstName, u.lastName, u.email, u.phoneNumber, " +
+           "d.specialization, d.licenseNumber, d.yearsOfExperience, d.biography, d.consultationFee, " +
+           "d.availableForConsultation, d.clinicAddress, d.clinicPhone, d.clinicLatitude, d.clinicLongitude) FROM Doctor d JOIN d.user u ORDER BY d.id")
+    List<DoctorResponse> findAllResponses();
+
+    @Query("SELECT new com.telemedicine.dto.DoctorResponse(d.id, u.firstName, u.lastName, u.email, u.phoneNumber, " +
+           "d.specialization, d.licenseNumber, d.yearsOfExperience, d.biography, d.consultationFee, " +
+           "d.availableForConsultation, d.clinicAddress, d.clinicPhone, d.clinicLatitude, d.clinicLongitude) FROM Doctor d JOIN d.user u WHERE d.id IN :ids")
+    List<DoctorResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM Doctor d WHERE d.id = :id")
+    Optional<Doctor> findByIdForUpdate(@Param("id") Long id);
     
     void deleteByUserId(Long userId);
+
+    @Query("SELECT d.id AS id, CONCAT(u.firstName, ' ', u.lastName) AS name, d.specialization AS specialization, " +
+           "d.consultationFee AS consultationFee FROM Doctor d JOIN d.user u " +
+           "WHERE LOWER(d.specialization) = LOWER(:specialization) " +
+           "AND d.availableForConsultation = true AND u.active = true")
+    List<BookableDoctor> findBookableBySpecialization(@Param("specialization") String specialization);
+
+    @Query(LOCATED_BOOKABLE)
+    List<LocatedDoctor> findLocatedBookable();
+
+    @Query(LOCATED_BOOKABLE + "AND d.id IN :ids")
+    List<LocatedDoctor> findLocatedBookableByIdIn(@Param("ids") Collection<Long> ids);
+
+    interface BookableDoctor {
+        Long getId();
+        String getName();
+        String getSpecialization();
+        Double getConsultationFee();
+    }
+
+    interface LocatedDoctor {
+        Long getId();
+        String getName();
+        String getSpecialization();
+        Double getConsultationFee();
+        String getClinicAddress();
+        Double getLatitude();
+        Double getLongitude();
+    }
 }
@@ -0,0 +1,15 @@
+package com.telemedicine.repository;
+
+import com.telemedicine.entity.DoctorTimeOff;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DoctorTimeOffRepository extends JpaRepository<DoctorTimeOff, Long> {
+    List<DoctorTimeOff> findByDoctorIdAndDateGreaterThanEqualOrderByDateAscStartTimeAsc(Long doctorId, LocalDate from);
+    Optional<DoctorTimeOff> findByIdAndDoctorId(Long id, Long doctorId);
+}
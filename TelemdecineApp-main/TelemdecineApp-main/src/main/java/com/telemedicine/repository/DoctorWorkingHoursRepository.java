@@ -0,0 +1,19 @@
+package com.telemedicine.repository;
+
+import com.telemedicine.entity.DoctorWorkingHours;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DoctorWorkingHoursRepository extends JpaRepository<DoctorWorkingHours, Long> {
+    List<DoctorWorkingHours> findByDoctorIdOrderByDayOfWeekAscStartTimeAsc(Long doctorId);
+
+    @Modifying
+    @Query("DELETE FROM DoctorWorkingHours h WHERE h.doctor.id = :doctorId")
+    void deleteByDoctorId(@Param("doctorId") Long doctorId);
+}
@@ -0,0 +1,8 @@
+package com.telemedicine.repository;
+
+public interface HourKey {
+    Integer getYear();
+    Integer getMonth();
+    Integer getDay();
+    Integer getHour();
+}
@@ -0,0 +1,11 @@
+package com.telemedicine.repository;
+
+// Row of an hourly GROUP BY over created_at; the hour key is split because JPQL has no date truncation
+public interface HourlyCount {
+    Integer getYear();
+    Integer getMonth();
+    Integer getDay();
+    Integer getHour();
+    Object getDimension();
+    Long getTotal();
+}
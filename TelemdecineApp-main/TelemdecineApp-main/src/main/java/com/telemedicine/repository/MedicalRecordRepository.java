@@ -2,12 +2,34 @@ package com.telemedicine.repository;
 
 import com.telemedicine.entity.MedicalRecord;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MedicalRecordRepository extends JpaRepository<MedicalRecord, Long> {
     List<MedicalRecord> findByPatientId(Long patientId);
     List<MedicalRecord> findByPatientIdOrderByRecordDateDesc(Long patientId);
+
+    @Query("SELECT r FROM MedicalRecord r JOIN FETCH r.patient p JOIN FETCH p.user WHERE r.id = :id")
+    Optional<MedicalRecord> findWithPatientById(@Param("id") Long id);
+
+    boolean existsByFileHash(String fileHash);
+
+    // Only applies if the record still has the file the caller saw ('' for none), so concurrent uploads
+    // cannot lose track of a replaced file. Clears the persistence context so the record is re-read afterwards.
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE MedicalRecord r SET r.fileHash = :hash, r.fileSize = :size, r.fileName = :fileName, " +
+           "r.contentType = :contentType, r.fileUrl = null, r.updatedAt = :now " +
+           "WHERE r.id = :id AND COALESCE(r.fileHash, '') = :previousHash")
+    int attachFile(@Param("id") Long id, @Param("previousHash") String previousHash, @Param("hash") String hash,
+                   @Param("size") long size, @Param("fileName") String fileName,
+                   @Param("contentType") String contentType, @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,99 @@
+package com.telemedicine.repository;
+
+import com.telemedicine.entity.OutboxEmail;
+import com.telemedicine.entity.OutboxEmailStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEmailRepository extends JpaRepository<OutboxEmail, Long> {
+
+    long countByStatus(OutboxEmailStatus status);
+
+    List<OutboxEmail> findByStatusOrderByIdDesc(OutboxEmailStatus status, Pageable pageable);
+
+    // Duplicate idempotency keys are silently dropped instead of failing the caller's transaction, including
+    // keys of sent emails already purged (email_outbox_sent_keys). The key is the only unique column besides the
+    // generated ID, so no conflict target is named (which H2 also accepts)
+    @Modifying
+    @Query(value = "INSERT INTO email_outbox (idempotency_key, recipient, subject, template, variables, status, " +
+                   "attempts, next_attempt_at, created_at, updated_at) " +
+                   "SELECT :key, :recipient, :subject, :template, :variables, 'PENDING', 0, :now, :now, :now " +
+                   "WHERE NOT EXISTS (SELECT 1 FROM email_outbox_sent_keys k WHERE k.idempotency_key = :key) " +
+                   "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(
+        @Param("key") String idempotencyKey,
+        @Param("recipient") String recipient,
+        @Param("subject") String subject,
+        @Param("template") String template,
+        @Param("variables") String variables,
+        @Param("now") LocalDateTime now
+    );
+
+    // Rows already claimed by another worker are skipped (lock timeout -2 is SKIP LOCKED)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT e FROM OutboxEmail e WHERE e.status = :status AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt")
+    List<OutboxEmail> findDueForUpdate(
+        @Param("status") OutboxEmailStatus status,
+        @Param("now") LocalDateTime now,
+        Pageable pageable
+    );
+
+    // Every update below only touches rows still leased under the caller's token: once a lease runs out and
+    // another worker claims the row, the first worker's late updates match nothing
+    @Modifying
+    @Query("UPDATE OutboxEmail e SET e.nextAttemptAt = :until, e.updatedAt = :now " +
+           "WHERE e.id IN :ids AND e.leaseToken = :token AND e.status = com.telemedicine.entity.OutboxEmailStatus.PENDING")
+    int renewLease(
+        @Param("ids") Collection<Long> ids,
+        @Param("token") String leaseToken,
+        @Param("until") LocalDateTime until,
+        @Param("now") LocalDateTime now
+    );
+
+    @Query("SELECT e.id FROM OutboxEmail e WHERE e.id IN :ids AND e.leaseToken = :token " +
+           "AND e.status = com.telemedicine.entity.OutboxEmailStatus.PENDING")
+    List<Long> findLeased(@Param("ids") Collection<Long> ids, @Param("token") String leaseToken);
+
+    @Modifying
+    @Query("UPDATE OutboxEmail e SET e.status = com.telemedicine.entity.OutboxEmailStatus.SENT, e.sentAt = :now, " +
+           "e.lastError = NULL, e.leaseToken = NULL, e.updatedAt = :now " +
+           "WHERE e.id IN :ids AND e.leaseToken = :token AND e.status = com.telemedicine.entity.OutboxEmailStatus.PENDING")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("token") String leaseToken, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE OutboxEmail e SET e.status = :status, e.nextAttemptAt = :nextAttemptAt, e.lastError = :error, " +
+           "e.leaseToken = NULL, e.updatedAt = :now " +
+           "WHERE e.id = :id AND e.leaseToken = :token AND e.status = com.telemedicine.entity.OutboxEmailStatus.PENDING")
+    int markFailed(
+        @Param("id") Long id,
+        @Param("token") String leaseToken,
+        @Param("status") OutboxEmailStatus status,
+        @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+        @Param("error") String error,
+        @Param("now") LocalDateTime now
+    );
+
+    // One bounded chunk of sent emails past retention; rows another node is purging are skipped
+    @Query(value = "SELECT id FROM email_outbox WHERE status = 'SENT' AND sent_at < :cutoff " +
+                   "ORDER BY sent_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockSentBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEmail e WHERE e.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
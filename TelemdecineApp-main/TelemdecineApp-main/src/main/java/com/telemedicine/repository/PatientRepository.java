@@ -9,6 +9,7 @@ import java.util.Optional;
 @Repository
 public interface PatientRepository extends JpaRepository<Patient, Long> {
     Optional<Patient> findByUserId(Long userId);
+    boolean existsByUserId(Long userId);
     
     void deleteByUserId(Long userId);
 }
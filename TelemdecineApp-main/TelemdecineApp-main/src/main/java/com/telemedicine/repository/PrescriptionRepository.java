@@ -2,8 +2,14 @@ package com.telemedicine.repository;
 
 import com.telemedicine.entity.Prescription;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -13,4 +19,41 @@ public interface PrescriptionRepository extends JpaRepository<Prescription, Long
     List<Prescription> findByDoctorId(Long doctorId);
     List<Prescription> findByPatientIdAndIsActiveTrue(Long patientId);
     List<Prescription> findByDoctorIdAndIsActiveTrue(Long doctorId);
+
+    // Active-prescription lookups and counts are served by the partial is_active indexes in init-database.sql
+    long countByIsActiveTrue();
+
+    @Query("SELECT p.medicationName FROM Prescription p WHERE p.patient.id = :patientId AND p.isActive = true")
+    List<String> findActiveMedicationNames(@Param("patientId") Long patientId);
+
+    // Most used spelling first for names that differ only in case; feeds MedicationSuggestIndex
+    @Query("SELECT p.medicationName AS name, COUNT(p) AS total FROM Prescription p " +
+           "GROUP BY p.medicationName ORDER BY COUNT(p) DESC")
+    List<MedicationCount> countByMedicationName();
+
+    // One bounded chunk of prescriptions past their end date; rows another node is expiring are skipped
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE prescriptions SET is_active = false, updated_at = :now WHERE id IN (" +
+                   "SELECT id FROM prescriptions WHERE is_active = true AND end_date < :today " +
+                   "ORDER BY end_date LIMIT :limit FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int expireEnded(@Param("today") LocalDate today, @Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Query("SELECT MIN(p.endDate) FROM Prescription p WHERE p.isActive = true AND p.endDate < :today")
+    LocalDate findOldestEnded(@Param("today") LocalDate today);
+
+    @Query("SELECT DISTINCT year(p.createdAt) AS year, month(p.createdAt) AS month, day(p.createdAt) AS day, hour(p.createdAt) AS hour " +
+           "FROM Prescription p WHERE p.updatedAt >= :since")
+    List<HourKey> findCreatedHoursModifiedSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT year(p.createdAt) AS year, month(p.createdAt) AS month, day(p.createdAt) AS day, hour(p.createdAt) AS hour, " +
+           "'ALL' AS dimension, COUNT(p) AS total FROM Prescription p " +
+           "WHERE p.createdAt >= :from AND p.createdAt < :to " +
+           "GROUP BY year(p.createdAt), month(p.createdAt), day(p.createdAt), hour(p.createdAt)")
+    List<HourlyCount> countHourly(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    interface MedicationCount {
+        String getName();
+        long getTotal();
+    }
 }
@@ -0,0 +1,13 @@
+package com.telemedicine.repository;
+
+import com.telemedicine.entity.RollupWatermark;
+import com.telemedicine.entity.StatisticsMetric;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface RollupWatermarkRepository extends JpaRepository<RollupWatermark, Long> {
+    Optional<RollupWatermark> findByMetric(StatisticsMetric metric);
+}
@@ -0,0 +1,31 @@
+package com.telemedicine.repository;
+
+import com.telemedicine.entity.SentEmailKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface SentEmailKeyRepository extends JpaRepository<SentEmailKey, Long> {
+
+    // Keeps the keys of sent outbox rows that are about to be purged
+    @Modifying
+    @Query(value = "INSERT INTO email_outbox_sent_keys (idempotency_key, sent_at, created_at, updated_at) " +
+                   "SELECT idempotency_key, sent_at, :now, :now FROM email_outbox WHERE id IN (:ids) " +
+                   "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int copyFromOutbox(@Param("ids") Collection<Long> outboxIds, @Param("now") LocalDateTime now);
+
+    // One bounded chunk of keys past retention; rows another node is purging are skipped
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM email_outbox_sent_keys WHERE id IN (" +
+                   "SELECT id FROM email_outbox_sent_keys WHERE sent_at < :cutoff " +
+                   "ORDER BY sent_at LIMIT :limit FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
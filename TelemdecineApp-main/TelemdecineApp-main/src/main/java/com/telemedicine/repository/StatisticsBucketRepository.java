@@ -0,0 +1,29 @@
+package com.telemedicine.repository;
+
+import com.telemedicine.entity.StatisticsBucket;
+import com.telemedicine.entity.StatisticsMetric;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StatisticsBucketRepository extends JpaRepository<StatisticsBucket, Long> {
+
+    @Query("SELECT b FROM StatisticsBucket b WHERE b.bucketStart >= :from AND b.bucketStart < :to " +
+           "ORDER BY b.metric, b.bucketStart, b.dimension")
+    List<StatisticsBucket> findBuckets(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM StatisticsBucket b WHERE b.metric = :metric " +
+           "AND b.bucketStart >= :from AND b.bucketStart < :to")
+    int deleteBuckets(
+        @Param("metric") StatisticsMetric metric,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to
+    );
+}
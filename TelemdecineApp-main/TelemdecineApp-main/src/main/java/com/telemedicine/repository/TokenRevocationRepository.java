@@ -0,0 +1,24 @@
+package com.telemedicine.repository;
+
+import com.telemedicine.entity.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+    Optional<TokenRevocation> findByUserId(Long userId);
+    List<TokenRevocation> findByRevokedBeforeAfter(Instant instant);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TokenRevocation t WHERE t.revokedBefore <= :instant")
+    int deleteExpired(@Param("instant") Instant instant);
+}
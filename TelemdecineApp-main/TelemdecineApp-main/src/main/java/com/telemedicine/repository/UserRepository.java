@@ -1,17 +1,76 @@
 package com.telemedicine.repository;
 
+import com.telemedicine.dto.UserSummary;
 import com.telemedicine.entity.User;
 import com.telemedicine.entity.UserRole;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    String SUMMARY_PROJECTION = "SELECT new com.telemedicine.dto.UserSummary(" +
+            "u.id, u.email, u.firstName, u.lastName, u.role, u.active, u.createdAt) FROM User u ";
+
+    // :prefix is a lower-cased LIKE pattern ('%' when no search term) using '!' as escape character
+    String SUMMARY_FILTER = "WHERE u.role IN :roles AND u.active IN :actives " +
+            "AND (LOWER(u.email) LIKE :prefix ESCAPE '!' OR LOWER(u.firstName) LIKE :prefix ESCAPE '!' " +
+            "OR LOWER(u.lastName) LIKE :prefix ESCAPE '!') ";
+
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
     List<User> findByRole(UserRole role);
     List<User> findByActiveTrue();
+
+    @Query("SELECT u.role AS role, u.active AS active, COUNT(u) AS total FROM User u GROUP BY u.role, u.active")
+    List<RoleStatusCount> countByRoleAndActive();
+
+    @Query("SELECT DISTINCT year(u.createdAt) AS year, month(u.createdAt) AS month, day(u.createdAt) AS day, hour(u.createdAt) AS hour " +
+           "FROM User u WHERE u.updatedAt >= :since")
+    List<HourKey> findCreatedHoursModifiedSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT year(u.createdAt) AS year, month(u.createdAt) AS month, day(u.createdAt) AS day, hour(u.createdAt) AS hour, " +
+           "u.role AS dimension, COUNT(u) AS total FROM User u " +
+           "WHERE u.createdAt >= :from AND u.createdAt < :to " +
+           "GROUP BY year(u.createdAt), month(u.createdAt), day(u.createdAt), hour(u.createdAt), u.role")
+    List<HourlyCount> countHourlyByRole(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query(SUMMARY_PROJECTION + SUMMARY_FILTER + "AND u.id > :afterId ORDER BY u.id")
+    List<UserSummary> findSummaryPage(
+        @Param("roles") Collection<UserRole> roles,
+        @Param("actives") Collection<Boolean> actives,
+        @Param("prefix") String prefix,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+
+    // Rows are read through a server-side cursor; callers must consume the stream inside a transaction
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SUMMARY_PROJECTION + SUMMARY_FILTER + "ORDER BY u.id")
+    Stream<UserSummary> streamSummaries(
+        @Param("roles") Collection<UserRole> roles,
+        @Param("actives") Collection<Boolean> actives,
+        @Param("prefix") String prefix
+    );
+
+    interface RoleStatusCount {
+        UserRole getRole();
+        Boolean getActive();
+        long getTotal();
+    }
 }
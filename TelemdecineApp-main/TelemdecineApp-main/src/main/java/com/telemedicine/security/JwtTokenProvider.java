@@ -3,6 +3,8 @@ package com.telemedicine.security;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
@@ -10,10 +12,18 @@ import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.Optional;
 
 @Component
+@RequiredArgsConstructor
+@Slf4j
 public class JwtTokenProvider {
 
+    static final String EMAIL_CLAIM = "email";
+    static final String ROLE_CLAIM = "role";
+
+    private final TokenRevocationService tokenRevocationService;
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -22,9 +32,15 @@ public class JwtTokenProvider {
 
     private SecretKey key;
 
+    private JwtParser parser;
+
     @PostConstruct
     public void init() {
         this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        // JwtParser is immutable and thread-safe, so one instance serves every request
+        this.parser = Jwts.parser()
+                .verifyWith(key)
+                .build();
     }
 
     public String generateToken(Authentication authentication) {
@@ -32,41 +48,41 @@ public class JwtTokenProvider {
 
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
+        // A token issued in the same second as a revocation (re-login after reactivation or a role change) would
+        // otherwise share the revoked second; its iat is moved up to the cutoff so it is not rejected
+        Date issuedAt = new Date(Math.max(now.getTime(), tokenRevocationService.revokedBefore(userPrincipal.getId())));
 
         return Jwts.builder()
                 .subject(Long.toString(userPrincipal.getId()))
-                .issuedAt(new Date())
+                .claim(EMAIL_CLAIM, userPrincipal.getEmail())
+                .claim(ROLE_CLAIM, userPrincipal.getRole().name())
+                .issuedAt(issuedAt)
                 .expiration(expiryDate)
                 .signWith(key)
                 .compact();
     }
 
-    public Long getUserIdFromJWT(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return Long.parseLong(claims.getSubject());
-    }
-
-    public boolean validateToken(String authToken) {
+    public Optional<TokenClaims> parseToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(authToken);
-            return true;
-        } catch (MalformedJwtException ex) {
-            System.err.println("Invalid JWT token");
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            return Optional.of(new TokenClaims(
+                    Long.parseLong(claims.getSubject()),
+                    claims.get(EMAIL_CLAIM, String.class),
+                    claims.get(ROLE_CLAIM, String.class),
+                    claims.getIssuedAt(),
+                    claims.getExpiration()
+            ));
         } catch (ExpiredJwtException ex) {
-            System.err.println("Expired JWT token");
+            log.debug("Expired JWT token");
+        } catch (MalformedJwtException ex) {
+            log.debug("Invalid JWT token");
         } catch (UnsupportedJwtException ex) {
-            System.err.println("Unsupported JWT token");
+            log.debug("Unsupported JWT token");
+        } catch (JwtException ex) {
+            log.debug("JWT token rejected: {}", ex.getMessage());
         } catch (IllegalArgumentException ex) {
-            System.err.println("JWT claims string is empty");
+            log.debug("JWT claims string is empty or subject is not a user ID");
         }
-        return false;
+        return Optional.empty();
     }
 }
@@ -0,0 +1,46 @@
+package com.telemedicine.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.telemedicine.service.TransactionHooks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Slf4j
+public class PrincipalCache {
+
+    private final CustomUserDetailsService customUserDetailsService;
+    private final Cache<Long, UserDetails> cache;
+
+    public PrincipalCache(CustomUserDetailsService customUserDetailsService,
+                          MeterRegistry meterRegistry,
+                          @Value("${security.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${security.principal-cache.ttl:PT5M}") Duration ttl) {
+        this.customUserDetailsService = customUserDetailsService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "principals");
+    }
+
+    public UserDetails get(Long userId) {
+        return cache.get(userId, customUserDetailsService::loadUserById);
+    }
+
+    public void evict(Long userId) {
+        cache.invalidate(userId);
+
+        // Evict again once the change is visible, so a concurrent request cannot re-cache the old row
+        TransactionHooks.afterCommit(() -> cache.invalidate(userId));
+        log.debug("Evicted cached principal for user ID: {}", userId);
+    }
+}
@@ -0,0 +1,16 @@
+package com.telemedicine.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Date;
+
+@Data
+@AllArgsConstructor
+public class TokenClaims {
+    private Long userId;
+    private String email;
+    private String role;
+    private Date issuedAt;
+    private Date expiration;
+}
@@ -0,0 +1,120 @@
+package com.telemedicine.security;
+
+import com.telemedicine.entity.TokenRevocation;
+import com.telemedicine.repository.TokenRevocationRepository;
+import com.telemedicine.service.TransactionHooks;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationService {
+
+    // Revocations committed by another instance are picked up on the next refresh; rows are read again for this
+    // long so that a cutoff committed slightly after it was computed (or on a node with a skewed clock) is not missed
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+    private final PrincipalCache principalCache;
+
+    @Value("${jwt.expiration}")
+    private long jwtExpirationMs;
+
+    // user ID -> epoch millis before which that user's tokens are revoked
+    private final Map<Long, Long> revokedBefore = new ConcurrentHashMap<>();
+
+    private volatile Instant refreshedAt;
+
+    @PostConstruct
+    public void init() {
+        Instant startedAt = Instant.now();
+        Instant horizon = startedAt.minusMillis(jwtExpirationMs);
+        int purged = tokenRevocationRepository.deleteExpired(horizon);
+
+        for (TokenRevocation revocation : tokenRevocationRepository.findByRevokedBeforeAfter(horizon)) {
+            revokedBefore.put(revocation.getUserId(), revocation.getRevokedBefore().toEpochMilli());
+        }
+        refreshedAt = startedAt;
+        log.info("Loaded {} token revocations ({} expired entries purged)", revokedBefore.size(), purged);
+    }
+
+    @Scheduled(fixedDelayString = "${security.token-revocation.refresh-interval:PT5S}",
+               initialDelayString = "${security.token-revocation.refresh-interval:PT5S}")
+    public void refresh() {
+        Instant startedAt = Instant.now();
+        int picked = 0;
+        for (TokenRevocation revocation : tokenRevocationRepository.findByRevokedBeforeAfter(
+                refreshedAt.minus(REFRESH_OVERLAP))) {
+            if (apply(revocation.getUserId(), revocation.getRevokedBefore().toEpochMilli())) {
+                picked++;
+            }
+        }
+        refreshedAt = startedAt;
+        purgeExpired();
+        if (picked > 0) {
+            log.debug("Picked up {} token revocations from other instances", picked);
+        }
+    }
+
+    public void revokeUserTokens(Long userId) {
+        // JWT iat has second precision, so round up to cover tokens issued earlier in the same second. Tokens
+        // issued from now on get an iat of at least the cutoff (see JwtTokenProvider), so they stay valid.
+        Instant cutoff = Instant.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+
+        TokenRevocation revocation = tokenRevocationRepository.findByUserId(userId)
+                .orElseGet(TokenRevocation::new);
+        revocation.setUserId(userId);
+        revocation.setRevokedBefore(cutoff);
+        tokenRevocationRepository.save(revocation);
+
+        // A rolled-back change must not revoke anything, even locally
+        TransactionHooks.afterCommit(() -> {
+            apply(userId, cutoff.toEpochMilli());
+            purgeExpired();
+        });
+        log.info("Revoked tokens issued before {} for user ID: {}", cutoff, userId);
+    }
+
+    // Epoch millis before which the user's tokens are revoked, or 0 when they are not
+    public long revokedBefore(Long userId) {
+        return revokedBefore.getOrDefault(userId, 0L);
+    }
+
+    public boolean isRevoked(TokenClaims claims) {
+        Long cutoff = revokedBefore.get(claims.getUserId());
+        if (cutoff == null) {
+            return false;
+        }
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt == null || issuedAt.getTime() < cutoff;
+    }
+
+    // Returns whether the cutoff is newer than the one already known for the user
+    private boolean apply(Long userId, long cutoff) {
+        Long previous = revokedBefore.get(userId);
+        if (previous != null && previous >= cutoff) {
+            return false;
+        }
+        revokedBefore.merge(userId, cutoff, Math::max);
+        // Role and status changes made on another instance also invalidate the principal cached here
+        principalCache.evict(userId);
+        return true;
+    }
+
+    private void purgeExpired() {
+        long horizon = System.currentTimeMillis() - jwtExpirationMs;
+        revokedBefore.values().removeIf(cutoff -> cutoff <= horizon);
+    }
+}
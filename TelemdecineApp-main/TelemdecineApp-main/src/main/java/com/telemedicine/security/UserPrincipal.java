@@ -1,6 +1,7 @@
 package com.telemedicine.security;
 
 import com.telemedicine.entity.User;
+import com.telemedicine.entity.UserRole;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -15,24 +16,39 @@ import java.util.Collections;
 @NoArgsConstructor
 @AllArgsConstructor
 public class UserPrincipal implements UserDetails {
+
+    static final String ROLE_PREFIX = "ROLE_";
+
     private Long id;
     private String email;
     private String password;
     private Collection<? extends GrantedAuthority> authorities;
+    private boolean active;
 
     public static UserPrincipal create(User user) {
         Collection<GrantedAuthority> authorities = Collections.singletonList(
-                new SimpleGrantedAuthority("ROLE_" + user.getRole().name())
+                new SimpleGrantedAuthority(ROLE_PREFIX + user.getRole().name())
         );
 
         return new UserPrincipal(
                 user.getId(),
                 user.getEmail(),
                 user.getPassword(),
-                authorities
+                authorities,
+                Boolean.TRUE.equals(user.getActive())
         );
     }
 
+    public UserRole getRole() {
+        for (GrantedAuthority authority : authorities) {
+            String name = authority.getAuthority();
+            if (name.startsWith(ROLE_PREFIX)) {
+                return UserRole.valueOf(name.substring(ROLE_PREFIX.length()));
+            }
+        }
+        return null;
+    }
+
     @Override
     public String getUsername() {
         return email;
@@ -55,6 +71,6 @@ public class UserPrincipal implements UserDetails {
 
     @Override
     public boolean isEnabled() {
-        return true;
+        return active;
     }
 }
@@ -1,53 +1,111 @@
 package com.telemedicine.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.telemedicine.dto.AuthResponse;
+import com.telemedicine.dto.CursorPage;
 import com.telemedicine.dto.RegisterRequest;
 import com.telemedicine.dto.StatisticsResponse;
-import com.telemedicine.entity.AppointmentStatus;
+import com.telemedicine.dto.UserExportFormat;
+import com.telemedicine.dto.UserSummary;
 import com.telemedicine.entity.Doctor;
 import com.telemedicine.entity.Patient;
 import com.telemedicine.entity.User;
 import com.telemedicine.entity.UserRole;
 import com.telemedicine.exception.BadRequestException;
 import com.telemedicine.exception.ResourceNotFoundException;
-import com.telemedicine.repository.AppointmentRepository;
-import com.telemedicine.repository.ConsultationRepository;
 import com.telemedicine.repository.DoctorRepository;
-import com.telemedicine.repository.MedicalRecordRepository;
 import com.telemedicine.repository.PatientRepository;
-import com.telemedicine.repository.PrescriptionRepository;
 import com.telemedicine.repository.UserRepository;
+import com.telemedicine.security.PrincipalCache;
+import com.telemedicine.security.TokenRevocationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AdminService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final String CSV_HEADER = "id,email,firstName,lastName,role,active,createdAt";
+
     private final UserRepository userRepository;
     private final PatientRepository patientRepository;
     private final DoctorRepository doctorRepository;
-    private final AppointmentRepository appointmentRepository;
-    private final PrescriptionRepository prescriptionRepository;
-    private final MedicalRecordRepository medicalRecordRepository;
-    private final ConsultationRepository consultationRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserAccountService userAccountService;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final StatisticsCounters statisticsCounters;
+    private final DoctorCalendarCache doctorCalendarCache;
+    private final DoctorDirectory doctorDirectory;
+    private final DoctorSearchIndex doctorSearchIndex;
+    private final DoctorGeoIndex doctorGeoIndex;
+    private final ObjectMapper objectMapper;
 
     @Transactional(readOnly = true)
-    public List<AuthResponse> getAllUsers() {
-        log.info("Fetching all users");
-        
-        List<User> users = userRepository.findAll();
-        return users.stream()
-                .map(this::mapToAuthResponse)
-                .collect(Collectors.toList());
+    public CursorPage<UserSummary> getUsers(UserRole role, Boolean active, String search, String cursor, Integer limit) {
+        log.info("Fetching users (role: {}, active: {}, search: {})", role, active, search);
+
+        int pageSize = resolvePageSize(limit);
+        List<UserSummary> rows = userRepository.findSummaryPage(
+                roleFilter(role), activeFilter(active), prefixPattern(search), decodeCursor(cursor),
+                PageRequest.ofSize(pageSize + 1));
+
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null, false);
+        }
+        List<UserSummary> items = rows.subList(0, pageSize);
+        return new CursorPage<>(items, encodeCursor(items.get(pageSize - 1).getId()), true);
+    }
+
+    // Writes matching users row by row from a database cursor, so memory stays flat regardless of table size
+    @Transactional(readOnly = true)
+    public long exportUsers(UserRole role, Boolean active, String search, UserExportFormat format,
+                            OutputStream outputStream) throws IOException {
+        log.info("Exporting users as {} (role: {}, active: {}, search: {})", format, role, active, search);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        long exported = 0;
+        try (Stream<UserSummary> rows = userRepository.streamSummaries(
+                roleFilter(role), activeFilter(active), prefixPattern(search))) {
+            if (format == UserExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+            for (Iterator<UserSummary> it = rows.iterator(); it.hasNext(); exported++) {
+                UserSummary user = it.next();
+                if (format == UserExportFormat.CSV) {
+                    writeCsvRow(writer, user);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(user));
+                    writer.write('\n');
+                }
+            }
+        }
+        writer.flush();
+
+        log.info("Exported {} users", exported);
+        return exported;
     }
 
     @Transactional(readOnly = true)
@@ -60,46 +118,13 @@ public class AdminService {
         return mapToAuthResponse(user);
     }
 
-    @Transactional
+    // Not transactional, so the password is hashed before a connection is taken
     public AuthResponse createUser(RegisterRequest request) {
         log.info("Admin creating user with email: {}", request.getEmail());
 
-        // Check if email already exists
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new BadRequestException("Email address already in use");
-        }
-
-        // Create and save user
-        User user = new User();
-        user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
-        user.setFirstName(request.getFirstName());
-        user.setLastName(request.getLastName());
-        user.setPhoneNumber(request.getPhoneNumber());
-        user.setRole(request.getRole());
-        user.setActive(true);
-
-        user = userRepository.save(user);
-        log.info("User created successfully with ID: {}", user.getId());
-
-        // Create Patient or Doctor profile based on role
-        if (request.getRole() == UserRole.PATIENT) {
-            Patient patient = new Patient();
-            patient.setUser(user);
-            patientRepository.save(patient);
-            log.info("Patient profile created for user ID: {}", user.getId());
-        } else if (request.getRole() == UserRole.DOCTOR) {
-            Doctor doctor = new Doctor();
-            doctor.setUser(user);
-            // Default values for required fields
-            doctor.setSpecialization("General Medicine");
-            doctor.setLicenseNumber("LICENSE-" + System.currentTimeMillis());
-            doctor.setAvailableForConsultation(true);
-            doctorRepository.save(doctor);
-            log.info("Doctor profile created for user ID: {}", user.getId());
-        }
-
-        return mapToAuthResponse(user);
+        userAccountService.checkEmailAvailable(request.getEmail());
+        String passwordHash = passwordEncoder.encode(request.getPassword());
+        return mapToAuthResponse(userAccountService.createUser(request, passwordHash));
     }
 
     @Transactional
@@ -113,6 +138,18 @@ public class AdminService {
         UserRole oldRole = user.getRole();
         user.setRole(newRole);
         user = userRepository.save(user);
+        principalCache.evict(userId);
+        tokenRevocationService.revokeUserTokens(userId);
+        statisticsCounters.userRoleChanged(oldRole, newRole);
+        if (oldRole != newRole && oldRole != UserRole.ADMIN) {
+            // Dropping a patient or doctor profile cascades to its appointments
+            doctorCalendarCache.invalidateAll();
+        }
+        if (oldRole != newRole && (oldRole == UserRole.DOCTOR || newRole == UserRole.DOCTOR)) {
+            doctorDirectory.invalidate();
+            doctorSearchIndex.requestRebuild();
+            doctorGeoIndex.requestRebuild();
+        }
 
         log.info("User {} role updated from {} to {}", userId, oldRole, newRole);
 
@@ -169,8 +206,18 @@ public class AdminService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
 
+        boolean wasActive = Boolean.TRUE.equals(user.getActive());
         user.setActive(active);
         user = userRepository.save(user);
+        principalCache.evict(userId);
+        statisticsCounters.userStatusChanged(wasActive, Boolean.TRUE.equals(active));
+        if (!Boolean.TRUE.equals(active)) {
+            tokenRevocationService.revokeUserTokens(userId);
+        }
+        if (user.getRole() == UserRole.DOCTOR && user.getDoctor() != null) {
+            // Only active doctors can be found by location
+            doctorGeoIndex.doctorChanged(user.getDoctor().getId());
+        }
 
         log.info("User {} status updated to: {}", userId, active);
 
@@ -192,47 +239,98 @@ public class AdminService {
         }
 
         userRepository.delete(user);
+        principalCache.evict(userId);
+        tokenRevocationService.revokeUserTokens(userId);
+        statisticsCounters.userDeleted();
+        doctorCalendarCache.invalidateAll();
+        if (user.getRole() == UserRole.DOCTOR) {
+            doctorDirectory.invalidate();
+            if (user.getDoctor() != null) {
+                doctorSearchIndex.doctorChanged(user.getDoctor().getId());
+                doctorGeoIndex.doctorChanged(user.getDoctor().getId());
+            }
+        }
         log.info("User {} deleted successfully", userId);
     }
 
-    @Transactional(readOnly = true)
     public StatisticsResponse getStatistics() {
-        log.info("Fetching application statistics");
-        
-        Long totalUsers = userRepository.count();
-        Long totalPatients = (long) userRepository.findByRole(UserRole.PATIENT).size();
-        Long totalDoctors = (long) userRepository.findByRole(UserRole.DOCTOR).size();
-        Long totalAdmins = (long) userRepository.findByRole(UserRole.ADMIN).size();
-        Long activeUsers = (long) userRepository.findByActiveTrue().size();
-        
-        Long totalAppointments = appointmentRepository.count();
-        Long scheduledAppointments = (long) appointmentRepository.findByStatus(AppointmentStatus.SCHEDULED).size();
-        Long completedAppointments = (long) appointmentRepository.findByStatus(AppointmentStatus.COMPLETED).size();
-        Long cancelledAppointments = (long) appointmentRepository.findByStatus(AppointmentStatus.CANCELLED).size();
-        
-        Long totalPrescriptions = prescriptionRepository.count();
-        Long activePrescriptions = prescriptionRepository.findAll().stream()
-                .filter(p -> p.getIsActive() != null && p.getIsActive())
-                .count();
-        
-        Long totalMedicalRecords = medicalRecordRepository.count();
-        Long totalConsultations = consultationRepository.count();
-        
-        return new StatisticsResponse(
-                totalUsers,
-                totalPatients,
-                totalDoctors,
-                totalAdmins,
-                activeUsers,
-                totalAppointments,
-                scheduledAppointments,
-                completedAppointments,
-                cancelledAppointments,
-                totalPrescriptions,
-                activePrescriptions,
-                totalMedicalRecords,
-                totalConsultations
-        );
+        log.debug("Fetching application statistics");
+        return statisticsCounters.snapshot();
+    }
+
+    private Set<UserRole> roleFilter(UserRole role) {
+        return role != null ? EnumSet.of(role) : EnumSet.allOf(UserRole.class);
+    }
+
+    private List<Boolean> activeFilter(Boolean active) {
+        return active != null ? List.of(active) : List.of(true, false);
+    }
+
+    private String prefixPattern(String search) {
+        if (search == null || search.isBlank()) {
+            return "%";
+        }
+        String escaped = search.trim().toLowerCase(Locale.ROOT)
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return escaped + "%";
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1) {
+            throw new BadRequestException("Page size must be at least 1");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    private String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid pagination cursor");
+        }
+    }
+
+    private void writeCsvRow(Writer writer, UserSummary user) throws IOException {
+        writer.write(user.getId().toString());
+        writer.write(',');
+        writer.write(csvField(user.getEmail()));
+        writer.write(',');
+        writer.write(csvField(user.getFirstName()));
+        writer.write(',');
+        writer.write(csvField(user.getLastName()));
+        writer.write(',');
+        writer.write(user.getRole().name());
+        writer.write(',');
+        writer.write(String.valueOf(user.getActive()));
+        writer.write(',');
+        writer.write(user.getCreatedAt() != null ? user.getCreatedAt().toString() : "");
+        writer.write('\n');
+    }
+
+    private String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        // Keep spreadsheet applications from evaluating user-supplied names as formulas
+        if (!value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
     }
 
     private AuthResponse mapToAuthResponse(User user) {
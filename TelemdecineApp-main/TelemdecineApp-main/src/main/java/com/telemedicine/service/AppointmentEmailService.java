@@ -0,0 +1,95 @@
+package com.telemedicine.service;
+
+import com.telemedicine.entity.Appointment;
+import com.telemedicine.entity.AppointmentStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Queues the patient emails for appointment status changes and reminders. Must be called inside the
+// transaction that makes the change; keyed by appointment, status and date so a retried request does
+// not queue the same email twice while a rescheduled appointment does get a new one.
+@Service
+@RequiredArgsConstructor
+public class AppointmentEmailService {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd MMMM yyyy 'à' HH:mm", Locale.FRENCH);
+
+    private static final Map<AppointmentStatus, EmailTemplate> STATUS_EMAILS = new EnumMap<>(Map.of(
+            AppointmentStatus.SCHEDULED, new EmailTemplate("appointment-scheduled",
+                    "Demande de Rendez-vous Enregistrée - TeleMed"),
+            AppointmentStatus.CONFIRMED, new EmailTemplate("appointment-confirmation",
+                    "Rendez-vous Médical Confirmé - TeleMed"),
+            AppointmentStatus.IN_PROGRESS, new EmailTemplate("appointment-in-progress",
+                    "Votre Consultation a Commencé - TeleMed"),
+            AppointmentStatus.COMPLETED, new EmailTemplate("appointment-completed",
+                    "Consultation Terminée - TeleMed"),
+            AppointmentStatus.CANCELLED, new EmailTemplate("appointment-cancelled",
+                    "Rendez-vous Annulé - TeleMed"),
+            AppointmentStatus.NO_SHOW, new EmailTemplate("appointment-no-show",
+                    "Rendez-vous Manqué - TeleMed")));
+
+    // Only the confirmation is sent unless email.appointments.status-updates is enabled
+    private static final AppointmentStatus DEFAULT_STATUS_EMAIL = AppointmentStatus.CONFIRMED;
+
+    private static final EmailTemplate REMINDER = new EmailTemplate("appointment-reminder",
+            "Rappel de Rendez-vous - TeleMed");
+
+    private final EmailOutboxService emailOutboxService;
+
+    @Value("${email.appointments.status-updates:false}")
+    private boolean statusUpdates;
+
+    // Every template an appointment email can use, for pre-loading at startup
+    public static List<String> templates() {
+        return Stream.concat(STATUS_EMAILS.values().stream(), Stream.of(REMINDER))
+                .map(EmailTemplate::name)
+                .toList();
+    }
+
+    public void statusChanged(Appointment appointment) {
+        EmailTemplate template = STATUS_EMAILS.get(appointment.getStatus());
+        if (template == null || (!statusUpdates && appointment.getStatus() != DEFAULT_STATUS_EMAIL)) {
+            return;
+        }
+        queue("appointment-" + appointment.getStatus().name().toLowerCase(Locale.ROOT).replace('_', '-'),
+                appointment, template);
+    }
+
+    // One reminder per window (24h, 1h) and appointment date
+    public void reminder(Appointment appointment, String window) {
+        queue("appointment-reminder-" + window, appointment, REMINDER);
+    }
+
+    private void queue(String kind, Appointment appointment, EmailTemplate template) {
+        String patientName = appointment.getPatient().getUser().getFirstName() + " " +
+                             appointment.getPatient().getUser().getLastName();
+        String doctorName = appointment.getDoctor().getUser().getFirstName() + " " +
+                            appointment.getDoctor().getUser().getLastName();
+
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("patientName", patientName);
+        variables.put("doctorName", doctorName);
+        variables.put("specialty", appointment.getDoctor().getSpecialization());
+        variables.put("appointmentDate", appointment.getAppointmentDate().format(DATE_FORMAT));
+        variables.put("meetingLink", appointment.getMeetingLink());
+        emailOutboxService.enqueue(
+            kind + ":" + appointment.getId() + ":" + appointment.getAppointmentDate(),
+            appointment.getPatient().getUser().getEmail(),
+            template.subject(),
+            template.name(),
+            variables
+        );
+    }
+
+    private record EmailTemplate(String name, String subject) {
+    }
+}
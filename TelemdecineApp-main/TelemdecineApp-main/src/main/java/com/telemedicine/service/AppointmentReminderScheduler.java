@@ -0,0 +1,58 @@
+package com.telemedicine.service;
+
+import com.telemedicine.service.AppointmentReminderService.ReminderWindow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Periodically queues the 24h and 1h appointment reminders, in batches, on whichever instance holds
+// the reminder lock. The outbox worker then sends them in batches like any other email.
+@Component
+@Slf4j
+public class AppointmentReminderScheduler {
+
+    private final AppointmentReminderService appointmentReminderService;
+    private final LeaderLock leaderLock;
+    private final int batchSize;
+    private final Map<ReminderWindow, Counter> queuedCounters = new EnumMap<>(ReminderWindow.class);
+
+    public AppointmentReminderScheduler(AppointmentReminderService appointmentReminderService,
+                                        LeaderLock leaderLock,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${appointments.reminders.batch-size:500}") int batchSize) {
+        this.appointmentReminderService = appointmentReminderService;
+        this.leaderLock = leaderLock;
+        this.batchSize = batchSize;
+        for (ReminderWindow window : ReminderWindow.values()) {
+            queuedCounters.put(window, Counter.builder("appointments.reminders.queued")
+                    .tag("window", window.getLabel()).register(meterRegistry));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${appointments.reminders.poll-interval:PT1M}")
+    public void queueReminders() {
+        leaderLock.runIfLeader("appointment-reminders", () -> {
+            LocalDateTime now = LocalDateTime.now();
+            for (ReminderWindow window : ReminderWindow.values()) {
+                int total = 0;
+                int queued;
+                do {
+                    queued = appointmentReminderService.queueReminders(window, now, batchSize);
+                    total += queued;
+                } while (queued == batchSize);
+
+                if (total > 0) {
+                    queuedCounters.get(window).increment(total);
+                    log.info("Queued {} {} appointment reminders", total, window.getLabel());
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,73 @@
+package com.telemedicine.service;
+
+import com.telemedicine.entity.Appointment;
+import com.telemedicine.entity.AppointmentStatus;
+import com.telemedicine.repository.AppointmentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Queues reminder emails for upcoming appointments. Each call handles one batch in one transaction:
+// the emails are queued through the outbox and the appointments marked as reminded together, so a
+// reminder is never queued twice and never lost.
+@Service
+@RequiredArgsConstructor
+public class AppointmentReminderService {
+
+    private static final List<AppointmentStatus> REMINDED_STATUSES =
+            List.of(AppointmentStatus.SCHEDULED, AppointmentStatus.CONFIRMED);
+
+    // Appointments starting in (now + after, now + before]; an appointment booked less than a day
+    // ahead only gets the reminders whose window it still falls in
+    public enum ReminderWindow {
+        DAY_BEFORE("24h", Duration.ofHours(1), Duration.ofHours(24)),
+        HOUR_BEFORE("1h", Duration.ZERO, Duration.ofHours(1));
+
+        private final String label;
+        private final Duration after;
+        private final Duration before;
+
+        ReminderWindow(String label, Duration after, Duration before) {
+            this.label = label;
+            this.after = after;
+            this.before = before;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentEmailService appointmentEmailService;
+
+    // Returns how many reminders were queued; fewer than the limit means the window is drained
+    @Transactional
+    public int queueReminders(ReminderWindow window, LocalDateTime now, int limit) {
+        LocalDateTime from = now.plus(window.after);
+        LocalDateTime until = now.plus(window.before);
+        PageRequest page = PageRequest.ofSize(limit);
+        List<Appointment> due = window == ReminderWindow.DAY_BEFORE
+                ? appointmentRepository.findDueForDayReminder(from, until, REMINDED_STATUSES, page)
+                : appointmentRepository.findDueForHourReminder(from, until, REMINDED_STATUSES, page);
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        for (Appointment appointment : due) {
+            appointmentEmailService.reminder(appointment, window.label);
+        }
+        List<Long> ids = due.stream().map(Appointment::getId).toList();
+        if (window == ReminderWindow.DAY_BEFORE) {
+            appointmentRepository.markDayReminderSent(ids, now);
+        } else {
+            appointmentRepository.markHourReminderSent(ids, now);
+        }
+        return due.size();
+    }
+}
@@ -1,37 +1,52 @@
 package com.telemedicine.service;
 
+import com.telemedicine.config.AppointmentConstraintsInitializer;
 import com.telemedicine.dto.AppointmentRequest;
 import com.telemedicine.dto.AppointmentResponse;
 import com.telemedicine.dto.AppointmentUpdateRequest;
+import com.telemedicine.dto.CursorPage;
 import com.telemedicine.entity.*;
 import com.telemedicine.exception.BadRequestException;
+import com.telemedicine.exception.ConflictException;
 import com.telemedicine.exception.ResourceNotFoundException;
 import com.telemedicine.exception.UnauthorizedException;
 import com.telemedicine.repository.AppointmentRepository;
 import com.telemedicine.repository.DoctorRepository;
 import com.telemedicine.repository.PatientRepository;
 import com.telemedicine.repository.UserRepository;
-import com.telemedicine.service.EmailService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.Base64;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.BooleanSupplier;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AppointmentService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final LocalDateTime MIN_DATE = LocalDateTime.of(1900, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
     private final AppointmentRepository appointmentRepository;
     private final PatientRepository patientRepository;
     private final DoctorRepository doctorRepository;
     private final UserRepository userRepository;
-    private final EmailService emailService;
+    private final AppointmentEmailService appointmentEmailService;
+    private final StatisticsCounters statisticsCounters;
+    private final SlotReservationService slotReservationService;
+    private final DoctorCalendarCache doctorCalendarCache;
 
     @Transactional
     public AppointmentResponse createAppointment(Long userId, AppointmentRequest request) {
@@ -41,15 +56,17 @@ public class AppointmentService {
         Patient patient = patientRepository.findByUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Patient profile not found for user ID: " + userId));
 
-        // Get doctor
-        Doctor doctor = doctorRepository.findById(request.getDoctorId())
-                .orElseThrow(() -> new ResourceNotFoundException("Doctor not found with ID: " + request.getDoctorId()));
-
         // Validate appointment date is in the future
         if (request.getAppointmentDate().isBefore(LocalDateTime.now())) {
             throw new BadRequestException("Appointment date must be in the future");
         }
 
+        // Lock the doctor's schedule and make sure the slot is free
+        int durationMinutes = request.getDurationMinutes() != null
+                ? request.getDurationMinutes() : SlotReservationService.DEFAULT_DURATION_MINUTES;
+        Doctor doctor = slotReservationService.reserve(
+                request.getDoctorId(), request.getAppointmentDate(), durationMinutes, null);
+
         // Check if doctor is available
         if (!doctor.getAvailableForConsultation()) {
             throw new BadRequestException("Doctor is not available for consultation");
@@ -63,39 +80,42 @@ public class AppointmentService {
         appointment.setType(request.getType());
         appointment.setReason(request.getReason());
         appointment.setSymptoms(request.getSymptoms());
-        appointment.setDurationMinutes(request.getDurationMinutes());
+        appointment.setDurationMinutes(durationMinutes);
         appointment.setStatus(AppointmentStatus.SCHEDULED);
 
-        appointment = appointmentRepository.save(appointment);
+        appointment = saveReservation(appointment);
+        appointmentEmailService.statusChanged(appointment);
+        statisticsCounters.appointmentCreated(appointment.getStatus());
+        doctorCalendarCache.appointmentBooked(doctor.getId(), appointment.getId(), appointment.getAppointmentDate(), durationMinutes);
         log.info("Appointment created successfully with ID: {}", appointment.getId());
 
         return mapToResponse(appointment);
     }
 
     @Transactional(readOnly = true)
-    public List<AppointmentResponse> getPatientAppointments(Long userId) {
+    public CursorPage<AppointmentResponse> getPatientAppointments(Long userId, String cursor, Integer limit,
+                                                                 LocalDateTime from, LocalDateTime to) {
         log.info("Fetching appointments for patient user ID: {}", userId);
         
-        Patient patient = patientRepository.findByUserId(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Patient profile not found for user ID: " + userId));
-
-        List<Appointment> appointments = appointmentRepository.findByPatientId(patient.getId());
-        return appointments.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        int pageSize = resolvePageSize(limit);
+        Keyset after = resolveKeyset(cursor, from);
+        List<AppointmentResponse> rows = appointmentRepository.findResponsePageByPatientUserId(
+                userId, after.date(), after.id(), resolveUntil(to), PageRequest.ofSize(pageSize + 1));
+        requireProfile(rows, () -> patientRepository.existsByUserId(userId), "Patient profile not found for user ID: " + userId);
+        return toPage(rows, pageSize);
     }
 
     @Transactional(readOnly = true)
-    public List<AppointmentResponse> getDoctorAppointments(Long userId) {
+    public CursorPage<AppointmentResponse> getDoctorAppointments(Long userId, String cursor, Integer limit,
+                                                                LocalDateTime from, LocalDateTime to) {
         log.info("Fetching appointments for doctor user ID: {}", userId);
         
-        Doctor doctor = doctorRepository.findByUserId(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Doctor profile not found for user ID: " + userId));
-
-        List<Appointment> appointments = appointmentRepository.findByDoctorId(doctor.getId());
-        return appointments.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        int pageSize = resolvePageSize(limit);
+        Keyset after = resolveKeyset(cursor, from);
+        List<AppointmentResponse> rows = appointmentRepository.findResponsePageByDoctorUserId(
+                userId, after.date(), after.id(), resolveUntil(to), PageRequest.ofSize(pageSize + 1));
+        requireProfile(rows, () -> doctorRepository.existsByUserId(userId), "Doctor profile not found for user ID: " + userId);
+        return toPage(rows, pageSize);
     }
 
     @Transactional(readOnly = true)
@@ -146,23 +166,43 @@ public class AppointmentService {
             throw new UnauthorizedException("You don't have permission to update this appointment");
         }
 
+        if (request.getAppointmentDate() != null && request.getAppointmentDate().isBefore(LocalDateTime.now())) {
+            throw new BadRequestException("Appointment date must be in the future");
+        }
+
+        // Moving the appointment or reviving a cancelled one needs the new slot to be free, unless it ends up
+        // cancelled: cancelled appointments hold no slot (neither here nor in appointments_no_overlap)
+        boolean rescheduled = request.getAppointmentDate() != null
+                && !request.getAppointmentDate().equals(appointment.getAppointmentDate());
+        boolean reactivated = appointment.getStatus() == AppointmentStatus.CANCELLED
+                && request.getStatus() != null && request.getStatus() != AppointmentStatus.CANCELLED;
+        AppointmentStatus resultingStatus = request.getStatus() != null ? request.getStatus() : appointment.getStatus();
+        if ((rescheduled || reactivated) && resultingStatus != AppointmentStatus.CANCELLED) {
+            LocalDateTime start = request.getAppointmentDate() != null
+                    ? request.getAppointmentDate() : appointment.getAppointmentDate();
+            int durationMinutes = appointment.getDurationMinutes() != null
+                    ? appointment.getDurationMinutes() : SlotReservationService.DEFAULT_DURATION_MINUTES;
+            slotReservationService.reserve(appointment.getDoctor().getId(), start, durationMinutes, appointment.getId());
+        }
+
         // Update fields if provided
         if (request.getAppointmentDate() != null) {
-            if (request.getAppointmentDate().isBefore(LocalDateTime.now())) {
-                throw new BadRequestException("Appointment date must be in the future");
-            }
             appointment.setAppointmentDate(request.getAppointmentDate());
         }
+        if (rescheduled) {
+            // Remind again for the new date
+            appointment.setDayReminderSentAt(null);
+            appointment.setHourReminderSentAt(null);
+        }
 
+        boolean statusChanged = false;
         if (request.getStatus() != null) {
             AppointmentStatus previousStatus = appointment.getStatus();
             appointment.setStatus(request.getStatus());
+            statisticsCounters.appointmentStatusChanged(previousStatus, request.getStatus());
             
-            // Send confirmation email if appointment is confirmed by doctor
-            if (request.getStatus() == AppointmentStatus.CONFIRMED && 
-                previousStatus != AppointmentStatus.CONFIRMED) {
-                sendAppointmentConfirmationEmail(appointment);
-            }
+            // Let the patient know about every status change
+            statusChanged = request.getStatus() != previousStatus;
         }
 
         if (request.getNotes() != null) {
@@ -173,7 +213,17 @@ public class AppointmentService {
             appointment.setMeetingLink(request.getMeetingLink());
         }
 
-        appointment = appointmentRepository.save(appointment);
+        appointment = saveReservation(appointment);
+        if (statusChanged) {
+            appointmentEmailService.statusChanged(appointment);
+        }
+        if (appointment.getStatus() == AppointmentStatus.CANCELLED) {
+            doctorCalendarCache.appointmentReleased(appointment.getDoctor().getId(), appointment.getId());
+        } else if (rescheduled || reactivated) {
+            doctorCalendarCache.appointmentBooked(appointment.getDoctor().getId(), appointment.getId(),
+                    appointment.getAppointmentDate(), appointment.getDurationMinutes() != null
+                            ? appointment.getDurationMinutes() : SlotReservationService.DEFAULT_DURATION_MINUTES);
+        }
         log.info("Appointment updated successfully: {}", appointmentId);
 
         return mapToResponse(appointment);
@@ -203,34 +253,128 @@ public class AppointmentService {
             throw new UnauthorizedException("You don't have permission to cancel this appointment");
         }
 
+        statisticsCounters.appointmentStatusChanged(appointment.getStatus(), AppointmentStatus.CANCELLED);
         appointment.setStatus(AppointmentStatus.CANCELLED);
         appointmentRepository.save(appointment);
+        appointmentEmailService.statusChanged(appointment);
+        doctorCalendarCache.appointmentReleased(appointment.getDoctor().getId(), appointment.getId());
         log.info("Appointment cancelled successfully: {}", appointmentId);
     }
 
     @Transactional(readOnly = true)
-    public List<AppointmentResponse> getAppointmentsByStatus(Long userId, AppointmentStatus status) {
+    public CursorPage<AppointmentResponse> getAppointmentsByStatus(Long userId, UserRole role, AppointmentStatus status,
+                                                                  String cursor, Integer limit,
+                                                                  LocalDateTime from, LocalDateTime to) {
         log.info("Fetching appointments by status: {} for user ID: {}", status, userId);
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
-
-        List<Appointment> appointments;
-        if (user.getRole() == UserRole.PATIENT) {
-            Patient patient = patientRepository.findByUserId(userId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Patient profile not found"));
-            appointments = appointmentRepository.findByPatientIdAndStatus(patient.getId(), status);
-        } else if (user.getRole() == UserRole.DOCTOR) {
-            Doctor doctor = doctorRepository.findByUserId(userId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Doctor profile not found"));
-            appointments = appointmentRepository.findByDoctorIdAndStatus(doctor.getId(), status);
+        int pageSize = resolvePageSize(limit);
+        Keyset after = resolveKeyset(cursor, from);
+        LocalDateTime until = resolveUntil(to);
+        PageRequest page = PageRequest.ofSize(pageSize + 1);
+
+        List<AppointmentResponse> rows;
+        if (role == UserRole.PATIENT) {
+            rows = appointmentRepository.findResponsePageByPatientUserIdAndStatus(
+                    userId, status, after.date(), after.id(), until, page);
+            requireProfile(rows, () -> patientRepository.existsByUserId(userId), "Patient profile not found");
+        } else if (role == UserRole.DOCTOR) {
+            rows = appointmentRepository.findResponsePageByDoctorUserIdAndStatus(
+                    userId, status, after.date(), after.id(), until, page);
+            requireProfile(rows, () -> doctorRepository.existsByUserId(userId), "Doctor profile not found");
         } else {
-            appointments = appointmentRepository.findByStatus(status);
+            rows = appointmentRepository.findResponsePageByStatus(status, after.date(), after.id(), until, page);
         }
 
-        return appointments.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return toPage(rows, pageSize);
+    }
+
+    // The appointments_no_overlap exclusion constraint backs up the row lock for writers outside this service;
+    // any other integrity violation is a genuine error and is not reported as a conflict
+    private Appointment saveReservation(Appointment appointment) {
+        try {
+            return appointmentRepository.saveAndFlush(appointment);
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                throw new ConflictException("Doctor already has an appointment at that time");
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isOverlapViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && AppointmentConstraintsInitializer.OVERLAP_CONSTRAINT.equalsIgnoreCase(violation.getConstraintName())) {
+                return true;
+            }
+            // Hibernate does not extract names of exclusion constraints; Postgres puts it in the message
+            if (cause instanceof SQLException sql && sql.getMessage() != null
+                    && sql.getMessage().contains("\"" + AppointmentConstraintsInitializer.OVERLAP_CONSTRAINT + "\"")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1) {
+            throw new BadRequestException("Page size must be at least 1");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    private Keyset resolveKeyset(String cursor, LocalDateTime from) {
+        LocalDateTime lowerBound = from != null ? from : MIN_DATE;
+        // Appointment IDs start at 1, so (lowerBound, 0) includes rows dated exactly lowerBound
+        Keyset start = new Keyset(lowerBound, 0L);
+        if (cursor == null || cursor.isBlank()) {
+            return start;
+        }
+
+        Keyset decoded = decodeCursor(cursor);
+        return decoded.date().isBefore(lowerBound) ? start : decoded;
+    }
+
+    private LocalDateTime resolveUntil(LocalDateTime to) {
+        return to != null ? to : MAX_DATE;
+    }
+
+    // Only an empty page costs the extra lookup that tells "no appointments" apart from "no profile"
+    private void requireProfile(List<AppointmentResponse> rows, BooleanSupplier profileExists, String message) {
+        if (rows.isEmpty() && !profileExists.getAsBoolean()) {
+            throw new ResourceNotFoundException(message);
+        }
+    }
+
+    private CursorPage<AppointmentResponse> toPage(List<AppointmentResponse> rows, int pageSize) {
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null, false);
+        }
+
+        List<AppointmentResponse> items = rows.subList(0, pageSize);
+        AppointmentResponse last = items.get(pageSize - 1);
+        return new CursorPage<>(items, encodeCursor(last.getAppointmentDate(), last.getId()), true);
+    }
+
+    private String encodeCursor(LocalDateTime date, Long id) {
+        String raw = date + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Keyset decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new Keyset(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid pagination cursor");
+        }
+    }
+
+    private record Keyset(LocalDateTime date, Long id) {
     }
 
     private AppointmentResponse mapToResponse(Appointment appointment) {
@@ -254,27 +398,4 @@ public class AppointmentService {
         response.setCreatedAt(appointment.getCreatedAt());
         return response;
     }
-    
-    private void sendAppointmentConfirmationEmail(Appointment appointment) {
-        try {
-            String patientEmail = appointment.getPatient().getUser().getEmail();
-            String patientName = appointment.getPatient().getUser().getFirstName() + " " + 
-                                 appointment.getPatient().getUser().getLastName();
-            String doctorName = appointment.getDoctor().getUser().getFirstName() + " " + 
-                               appointment.getDoctor().getUser().getLastName();
-            String specialty = appointment.getDoctor().getSpecialization();
-            String appointmentDate = appointment.getAppointmentDate()
-                .format(DateTimeFormatter.ofPattern("dd MMMM yyyy 'à' HH:mm"));
-            
-            emailService.sendAppointmentConfirmationEmail(
-                patientEmail,
-                patientName,
-                doctorName,
-                specialty,
-                appointmentDate
-            );
-        } catch (Exception e) {
-            log.error("Failed to send confirmation email for appointment ID: {}", appointment.getId(), e);
-        }
-    }
 }
@@ -0,0 +1,102 @@
+package com.telemedicine.service;
+
+import com.telemedicine.entity.AppointmentStatus;
+import com.telemedicine.repository.AppointmentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Moves appointments still scheduled or confirmed once their time has passed (plus a grace period) to
+// NO_SHOW, or appointments.no-show.target-status. Works through set-based UPDATEs of bounded chunks,
+// each in its own short transaction, without loading the appointments. Chunks skip rows locked by
+// another node, so every node can run the sweeper at the same time.
+@Component
+@Slf4j
+public class AppointmentSweeper {
+
+    private static final List<AppointmentStatus> OVERDUE_STATUSES =
+            List.of(AppointmentStatus.SCHEDULED, AppointmentStatus.CONFIRMED);
+
+    private final AppointmentRepository appointmentRepository;
+    private final StatisticsCounters statisticsCounters;
+    private final AppointmentStatus targetStatus;
+    private final Duration gracePeriod;
+    private final int chunkSize;
+
+    private final Timer runTimer;
+    private final Map<AppointmentStatus, Counter> sweptCounters = new EnumMap<>(AppointmentStatus.class);
+    // Last run's throughput, and how long the oldest overdue appointment had been waiting when it started
+    private final AtomicLong rowsPerSecond = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public AppointmentSweeper(AppointmentRepository appointmentRepository,
+                              StatisticsCounters statisticsCounters,
+                              MeterRegistry meterRegistry,
+                              @Value("${appointments.no-show.target-status:NO_SHOW}") AppointmentStatus targetStatus,
+                              @Value("${appointments.no-show.grace-period:PT1H}") Duration gracePeriod,
+                              @Value("${appointments.no-show.chunk-size:1000}") int chunkSize) {
+        if (OVERDUE_STATUSES.contains(targetStatus)) {
+            throw new IllegalArgumentException("appointments.no-show.target-status cannot be " + targetStatus);
+        }
+        this.appointmentRepository = appointmentRepository;
+        this.statisticsCounters = statisticsCounters;
+        this.targetStatus = targetStatus;
+        this.gracePeriod = gracePeriod;
+        this.chunkSize = chunkSize;
+
+        this.runTimer = Timer.builder("appointments.sweeper.run.duration").register(meterRegistry);
+        for (AppointmentStatus status : OVERDUE_STATUSES) {
+            sweptCounters.put(status, Counter.builder("appointments.sweeper.swept")
+                    .tag("from", status.name()).tag("to", targetStatus.name()).register(meterRegistry));
+        }
+        Gauge.builder("appointments.sweeper.rows.per.second", rowsPerSecond, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("appointments.sweeper.lag", lagSeconds, AtomicLong::get)
+                .baseUnit("seconds").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${appointments.no-show.sweep-interval:PT5M}")
+    public void sweep() {
+        long startedAt = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minus(gracePeriod);
+
+        LocalDateTime oldest = appointmentRepository.findOldestOverdue(OVERDUE_STATUSES, cutoff);
+        lagSeconds.set(oldest != null ? Duration.between(oldest, cutoff).toSeconds() : 0);
+        if (oldest == null) {
+            rowsPerSecond.set(0);
+            return;
+        }
+
+        int total = 0;
+        for (AppointmentStatus status : OVERDUE_STATUSES) {
+            int swept;
+            do {
+                swept = appointmentRepository.sweepOverdue(status.name(), targetStatus.name(), cutoff, now, chunkSize);
+                statisticsCounters.appointmentsStatusChanged(status, targetStatus, swept);
+                sweptCounters.get(status).increment(swept);
+                total += swept;
+            } while (swept == chunkSize);
+        }
+
+        long elapsedNanos = System.nanoTime() - startedAt;
+        runTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        rowsPerSecond.set(total * TimeUnit.SECONDS.toNanos(1) / Math.max(1, elapsedNanos));
+        if (total > 0) {
+            log.info("Moved {} overdue appointments to {} in {} ms", total, targetStatus,
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.telemedicine.service;
+
+import com.telemedicine.exception.BadRequestException;
+import com.telemedicine.exception.PayloadTooLargeException;
+import com.telemedicine.repository.MedicalRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// Content-addressed store for medical record files under medical-records.files.directory. An upload is
+// streamed to a temporary file while it is hashed, then moved to <directory>/ab/cd/<sha-256>, so the same
+// content is kept once however many records use it. A file is deleted when the last record referencing it
+// lets go; hashes of uploads not yet attached to a record are pinned so that cannot race with a release.
+@Component
+@Slf4j
+public class AttachmentStore {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Pattern SHA_256 = Pattern.compile("[0-9a-f]{64}");
+
+    private final MedicalRecordRepository medicalRecordRepository;
+    private final Path root;
+    private final Path incoming;
+    private final long maxSize;
+
+    // Hash -> uploads holding it that are not attached yet; guarded by this
+    private final Map<String, Integer> pinned = new HashMap<>();
+
+    public AttachmentStore(MedicalRecordRepository medicalRecordRepository,
+                           @Value("${medical-records.files.directory:data/medical-record-files}") String directory,
+                           @Value("${medical-records.files.max-size:200MB}") DataSize maxSize) throws IOException {
+        this.medicalRecordRepository = medicalRecordRepository;
+        this.root = Paths.get(directory).toAbsolutePath();
+        this.incoming = Files.createDirectories(root.resolve("incoming"));
+        this.maxSize = maxSize.toBytes();
+    }
+
+    // The returned hash is pinned; the caller must unpin it once a record references it (or will not)
+    public StoredFile store(InputStream body, long contentLength) throws IOException {
+        if (contentLength > maxSize) {
+            throw tooLarge();
+        }
+
+        Path temp = Files.createTempFile(incoming, "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            long size = 0;
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                int read;
+                while ((read = body.read(buffer)) != -1) {
+                    size += read;
+                    // The declared length may be missing (chunked) or wrong, so count what actually arrives
+                    if (size > maxSize) {
+                        throw tooLarge();
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+            if (size == 0) {
+                throw new BadRequestException("File is empty");
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = path(hash);
+            synchronized (this) {
+                pinned.merge(hash, 1, Integer::sum);
+                if (Files.exists(target)) {
+                    log.debug("File {} is already stored; reusing it", hash);
+                } else {
+                    Files.createDirectories(target.getParent());
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+            return new StoredFile(hash, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public synchronized void unpin(String hash) {
+        pinned.computeIfPresent(hash, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    // Deletes the file unless a record or an upload in progress still uses it; inside a transaction this
+    // waits for the commit that dropped the reference
+    public void release(String hash) {
+        if (hash == null) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> deleteIfUnused(hash));
+    }
+
+    public Path path(String hash) {
+        if (!SHA_256.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Not a SHA-256 hash: " + hash);
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private synchronized void deleteIfUnused(String hash) {
+        if (pinned.containsKey(hash) || medicalRecordRepository.existsByFileHash(hash)) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path(hash));
+            log.info("Deleted unreferenced file {}", hash);
+        } catch (IOException e) {
+            log.warn("Cannot delete unreferenced file {}: {}", hash, e.getMessage());
+        }
+    }
+
+    private PayloadTooLargeException tooLarge() {
+        return new PayloadTooLargeException("File exceeds the maximum size of " + DataSize.ofBytes(maxSize).toMegabytes() + "MB");
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record StoredFile(String hash, long size) {
+    }
+}
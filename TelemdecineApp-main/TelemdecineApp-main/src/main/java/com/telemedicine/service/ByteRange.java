@@ -0,0 +1,46 @@
+package com.telemedicine.service;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// The bytes of a file to send: the whole file, or the part a Range header asked for (partial). A partial
+// range with start > end (starting at or past the end of the file, or bytes=-0) cannot be satisfied.
+public record ByteRange(long start, long end, boolean partial) {
+
+    // A single range; multi-range requests get the whole file, which the Range spec allows
+    private static final Pattern BYTE_RANGE = Pattern.compile("bytes=(\\d{0,18})-(\\d{0,18})");
+
+    public static ByteRange resolve(String range, String ifRange, String etag, long size) {
+        ByteRange whole = new ByteRange(0, size - 1, false);
+        Matcher matcher = range != null ? BYTE_RANGE.matcher(range) : null;
+        if (matcher == null || !matcher.matches() || (ifRange != null && !ifRange.equals(etag))
+                || (matcher.group(1).isEmpty() && matcher.group(2).isEmpty())) {
+            return whole;
+        }
+        long start;
+        long end = size - 1;
+        if (matcher.group(1).isEmpty()) {
+            // bytes=-n: the last n bytes
+            start = Math.max(0, size - Long.parseLong(matcher.group(2)));
+        } else {
+            start = Long.parseLong(matcher.group(1));
+            if (!matcher.group(2).isEmpty()) {
+                long last = Long.parseLong(matcher.group(2));
+                if (start > last) {
+                    // Not a valid range-spec (RFC 9110 14.1.1), so the Range header is ignored
+                    return whole;
+                }
+                end = Math.min(end, last);
+            }
+        }
+        return new ByteRange(start, end, true);
+    }
+
+    public boolean satisfiable() {
+        return start <= end;
+    }
+
+    public long length() {
+        return end - start + 1;
+    }
+}
@@ -24,6 +24,8 @@ public class ConsultationService {
     private final AppointmentRepository appointmentRepository;
     private final DoctorRepository doctorRepository;
     private final UserRepository userRepository;
+    private final StatisticsCounters statisticsCounters;
+    private final AppointmentEmailService appointmentEmailService;
 
     @Transactional
     public ConsultationResponse createConsultation(Long userId, Long appointmentId, ConsultationRequest request) {
@@ -69,10 +71,13 @@ public class ConsultationService {
         consultation.setVitalSigns(request.getVitalSigns());
 
         consultation = consultationRepository.save(consultation);
+        statisticsCounters.consultationCreated();
 
         // Update appointment status to completed
+        statisticsCounters.appointmentStatusChanged(appointment.getStatus(), AppointmentStatus.COMPLETED);
         appointment.setStatus(AppointmentStatus.COMPLETED);
         appointmentRepository.save(appointment);
+        appointmentEmailService.statusChanged(appointment);
 
         log.info("Consultation created successfully with ID: {}", consultation.getId());
         return mapToResponse(consultation);
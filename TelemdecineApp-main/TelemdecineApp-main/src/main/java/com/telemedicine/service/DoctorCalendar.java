@@ -0,0 +1,135 @@
+package com.telemedicine.service;
+
+import com.telemedicine.dto.FreeSlotResponse;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+// In-memory availability of one doctor: weekly working windows, time off and booked intervals.
+// Times are kept as epoch minutes so free-slot search is interval arithmetic with no database access.
+public class DoctorCalendar {
+
+    private static final int SLOT_ALIGNMENT_MINUTES = 5;
+
+    private final Map<DayOfWeek, List<LocalTime[]>> weeklyHours;
+    // A null start time marks a whole day off
+    private final Map<LocalDate, List<LocalTime[]>> timeOff;
+    private final NavigableSet<Booking> bookings =
+            new TreeSet<>(Comparator.comparingLong(Booking::start).thenComparingLong(Booking::id));
+    private final Map<Long, Booking> bookingsById = new HashMap<>();
+
+    public DoctorCalendar(Map<DayOfWeek, List<LocalTime[]>> weeklyHours, Map<LocalDate, List<LocalTime[]>> timeOff) {
+        this.weeklyHours = weeklyHours;
+        this.timeOff = timeOff;
+    }
+
+    public synchronized void book(Long appointmentId, LocalDateTime start, int durationMinutes) {
+        release(appointmentId);
+        long startMinute = minuteOf(start);
+        Booking booking = new Booking(startMinute, startMinute + durationMinutes, appointmentId);
+        bookings.add(booking);
+        bookingsById.put(appointmentId, booking);
+    }
+
+    public synchronized void release(Long appointmentId) {
+        Booking booking = bookingsById.remove(appointmentId);
+        if (booking != null) {
+            bookings.remove(booking);
+        }
+    }
+
+    public List<FreeSlotResponse> freeSlots(LocalDateTime from, LocalDateTime to, int durationMinutes) {
+        return freeSlots(from, to, durationMinutes, Integer.MAX_VALUE);
+    }
+
+    // Stops after maxSlots, so "first few slots" only walks as many days as needed
+    public synchronized List<FreeSlotResponse> freeSlots(LocalDateTime from, LocalDateTime to, int durationMinutes,
+                                                         int maxSlots) {
+        long fromMinute = Math.floorDiv(from.toEpochSecond(ZoneOffset.UTC) + 59, 60);
+        long toMinute = minuteOf(to);
+        List<FreeSlotResponse> slots = new ArrayList<>();
+
+        for (LocalDate day = from.toLocalDate(); !day.isAfter(to.toLocalDate()); day = day.plusDays(1)) {
+            for (long[] free : freeIntervals(day)) {
+                long start = alignUp(Math.max(free[0], fromMinute));
+                long end = Math.min(free[1], toMinute);
+                for (; start + durationMinutes <= end; start += durationMinutes) {
+                    slots.add(new FreeSlotResponse(dateTimeOf(start), dateTimeOf(start + durationMinutes)));
+                    if (slots.size() >= maxSlots) {
+                        return slots;
+                    }
+                }
+            }
+        }
+        return slots;
+    }
+
+    // Working windows of the day minus time off and bookings, in ascending order
+    private List<long[]> freeIntervals(LocalDate day) {
+        List<long[]> free = new ArrayList<>();
+        for (LocalTime[] window : weeklyHours.getOrDefault(day.getDayOfWeek(), List.of())) {
+            free.add(new long[]{minuteOf(day.atTime(window[0])), minuteOf(day.atTime(window[1]))});
+        }
+
+        for (LocalTime[] off : timeOff.getOrDefault(day, List.of())) {
+            if (off[0] == null) {
+                return List.of();
+            }
+            free = subtract(free, minuteOf(day.atTime(off[0])), minuteOf(day.atTime(off[1])));
+        }
+        if (free.isEmpty()) {
+            return free;
+        }
+
+        long dayStart = minuteOf(day.atStartOfDay());
+        long dayEnd = dayStart + 24 * 60;
+        Booking lower = new Booking(dayStart - SlotReservationService.MAX_DURATION_MINUTES, 0, Long.MIN_VALUE);
+        Booking upper = new Booking(dayEnd, 0, Long.MIN_VALUE);
+        for (Booking booking : bookings.subSet(lower, true, upper, false)) {
+            free = subtract(free, booking.start(), booking.end());
+        }
+        return free;
+    }
+
+    private static List<long[]> subtract(List<long[]> intervals, long blockStart, long blockEnd) {
+        List<long[]> result = new ArrayList<>(intervals.size() + 1);
+        for (long[] interval : intervals) {
+            if (blockEnd <= interval[0] || blockStart >= interval[1]) {
+                result.add(interval);
+                continue;
+            }
+            if (interval[0] < blockStart) {
+                result.add(new long[]{interval[0], blockStart});
+            }
+            if (blockEnd < interval[1]) {
+                result.add(new long[]{blockEnd, interval[1]});
+            }
+        }
+        return result;
+    }
+
+    private static long alignUp(long minute) {
+        return Math.floorDiv(minute + SLOT_ALIGNMENT_MINUTES - 1, SLOT_ALIGNMENT_MINUTES) * SLOT_ALIGNMENT_MINUTES;
+    }
+
+    private static long minuteOf(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static LocalDateTime dateTimeOf(long minute) {
+        return LocalDateTime.ofEpochSecond(minute * 60, 0, ZoneOffset.UTC);
+    }
+
+    private record Booking(long start, long end, long id) {
+    }
+}
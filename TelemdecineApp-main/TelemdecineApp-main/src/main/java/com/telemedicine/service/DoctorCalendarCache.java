@@ -0,0 +1,108 @@
+package com.telemedicine.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.telemedicine.entity.DoctorTimeOff;
+import com.telemedicine.entity.DoctorWorkingHours;
+import com.telemedicine.repository.AppointmentRepository;
+import com.telemedicine.repository.DoctorTimeOffRepository;
+import com.telemedicine.repository.DoctorWorkingHoursRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Keeps a DoctorCalendar per doctor. Appointment changes are applied to cached calendars after commit,
+// so free-slot searches never go back to the appointments table; the TTL bounds drift from other instances.
+@Component
+@Slf4j
+public class DoctorCalendarCache {
+
+    private static final LocalDateTime FAR_FUTURE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private final DoctorWorkingHoursRepository workingHoursRepository;
+    private final DoctorTimeOffRepository timeOffRepository;
+    private final SlotReservationService slotReservationService;
+    private final Cache<Long, DoctorCalendar> cache;
+
+    public DoctorCalendarCache(DoctorWorkingHoursRepository workingHoursRepository,
+                               DoctorTimeOffRepository timeOffRepository,
+                               SlotReservationService slotReservationService,
+                               MeterRegistry meterRegistry,
+                               @Value("${appointments.calendar-cache.max-size:5000}") long maxSize,
+                               @Value("${appointments.calendar-cache.ttl:PT10M}") Duration ttl) {
+        this.workingHoursRepository = workingHoursRepository;
+        this.timeOffRepository = timeOffRepository;
+        this.slotReservationService = slotReservationService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "doctorCalendars");
+    }
+
+    public DoctorCalendar get(Long doctorId) {
+        return cache.get(doctorId, this::load);
+    }
+
+    public void appointmentBooked(Long doctorId, Long appointmentId, LocalDateTime start, int durationMinutes) {
+        TransactionHooks.afterCommit(() -> cache.asMap().computeIfPresent(doctorId, (id, calendar) -> {
+            calendar.book(appointmentId, start, durationMinutes);
+            return calendar;
+        }));
+    }
+
+    public void appointmentReleased(Long doctorId, Long appointmentId) {
+        TransactionHooks.afterCommit(() -> cache.asMap().computeIfPresent(doctorId, (id, calendar) -> {
+            calendar.release(appointmentId);
+            return calendar;
+        }));
+    }
+
+    public void scheduleChanged(Long doctorId) {
+        TransactionHooks.afterCommit(() -> cache.invalidate(doctorId));
+    }
+
+    // Bulk deletes cascade to appointments of many doctors at once
+    public void invalidateAll() {
+        TransactionHooks.afterCommit(cache::invalidateAll);
+    }
+
+    private DoctorCalendar load(Long doctorId) {
+        Map<DayOfWeek, List<LocalTime[]>> weeklyHours = new EnumMap<>(DayOfWeek.class);
+        for (DoctorWorkingHours hours : workingHoursRepository.findByDoctorIdOrderByDayOfWeekAscStartTimeAsc(doctorId)) {
+            weeklyHours.computeIfAbsent(hours.getDayOfWeek(), day -> new ArrayList<>())
+                    .add(new LocalTime[]{hours.getStartTime(), hours.getEndTime()});
+        }
+
+        Map<LocalDate, List<LocalTime[]>> timeOff = new HashMap<>();
+        LocalDate today = LocalDate.now();
+        for (DoctorTimeOff off : timeOffRepository.findByDoctorIdAndDateGreaterThanEqualOrderByDateAscStartTimeAsc(doctorId, today)) {
+            timeOff.computeIfAbsent(off.getDate(), date -> new ArrayList<>())
+                    .add(new LocalTime[]{off.getStartTime(), off.getEndTime()});
+        }
+
+        DoctorCalendar calendar = new DoctorCalendar(weeklyHours, timeOff);
+        List<AppointmentRepository.BookedSlot> booked =
+                slotReservationService.findBookedSlots(doctorId, LocalDateTime.now(), FAR_FUTURE);
+        for (AppointmentRepository.BookedSlot slot : booked) {
+            calendar.book(slot.getId(), slot.getAppointmentDate(), SlotReservationService.durationOf(slot));
+        }
+
+        log.debug("Loaded calendar for doctor {} with {} bookings", doctorId, booked.size());
+        return calendar;
+    }
+}
@@ -0,0 +1,136 @@
+package com.telemedicine.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.telemedicine.dto.DoctorResponse;
+import com.telemedicine.dto.PublicDoctorResponse;
+import com.telemedicine.repository.DoctorRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// Read-mostly snapshot of the doctor listings, kept as ready-to-send JSON bytes with a strong ETag.
+// Doctor changes bump the generation after commit and the next read rebuilds; max-age bounds drift
+// from changes made by other instances.
+@Component
+@Slf4j
+public class DoctorDirectory {
+
+    private final DoctorRepository doctorRepository;
+    private final ObjectMapper objectMapper;
+    private final long maxAgeMillis;
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile Snapshot snapshot;
+
+    public DoctorDirectory(DoctorRepository doctorRepository,
+                           ObjectMapper objectMapper,
+                           @Value("${doctors.directory.max-age:PT1M}") Duration maxAge) {
+        this.doctorRepository = doctorRepository;
+        this.objectMapper = objectMapper;
+        this.maxAgeMillis = maxAge.toMillis();
+    }
+
+    public Entry allDoctors() {
+        return current().all();
+    }
+
+    public Entry availableDoctors() {
+        return current().available();
+    }
+
+    public Entry doctorsBySpecialization(String specialization) {
+        Snapshot current = current();
+        return current.bySpecialization().getOrDefault(specialization, current.empty());
+    }
+
+    // Anonymous listings, without contact details or licence numbers
+    public Entry publicAvailableDoctors() {
+        return current().publicAvailable();
+    }
+
+    public Entry publicDoctorsBySpecialization(String specialization) {
+        Snapshot current = current();
+        return current.publicBySpecialization().getOrDefault(specialization, current.empty());
+    }
+
+    public void invalidate() {
+        TransactionHooks.afterCommit(generation::incrementAndGet);
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (isFresh(current)) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (!isFresh(current)) {
+                current = build();
+                snapshot = current;
+            }
+            return current;
+        }
+    }
+
+    private boolean isFresh(Snapshot current) {
+        return current != null
+                && current.generation() == generation.get()
+                && System.currentTimeMillis() - current.builtAt() < maxAgeMillis;
+    }
+
+    private Snapshot build() {
+        long buildGeneration = generation.get();
+        List<DoctorResponse> doctors = doctorRepository.findAllResponses();
+
+        List<DoctorResponse> available = doctors.stream()
+                .filter(doctor -> Boolean.TRUE.equals(doctor.getAvailableForConsultation()))
+                .collect(Collectors.toList());
+        Map<String, Entry> bySpecialization = new HashMap<>();
+        Map<String, Entry> publicBySpecialization = new HashMap<>();
+        doctors.stream()
+                .collect(Collectors.groupingBy(DoctorResponse::getSpecialization))
+                .forEach((specialization, group) -> {
+                    bySpecialization.put(specialization, toEntry(group));
+                    publicBySpecialization.put(specialization, toEntry(toPublic(group)));
+                });
+
+        log.debug("Rebuilt doctor directory with {} doctors", doctors.size());
+        return new Snapshot(toEntry(doctors), toEntry(available), bySpecialization,
+                toEntry(toPublic(available)), publicBySpecialization, toEntry(List.of()),
+                buildGeneration, System.currentTimeMillis());
+    }
+
+    private static List<PublicDoctorResponse> toPublic(List<DoctorResponse> doctors) {
+        return doctors.stream().map(PublicDoctorResponse::from).collect(Collectors.toList());
+    }
+
+    private Entry toEntry(List<?> doctors) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(doctors);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            String etag = "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+            return new Entry(json, etag);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to serialize doctor directory", e);
+        }
+    }
+
+    public record Entry(byte[] json, String etag) {
+    }
+
+    private record Snapshot(Entry all, Entry available, Map<String, Entry> bySpecialization,
+                            Entry publicAvailable, Map<String, Entry> publicBySpecialization, Entry empty,
+                            long generation, long builtAt) {
+    }
+}
@@ -0,0 +1,224 @@
+package com.telemedicine.service;
+
+import com.telemedicine.dto.NearbyDoctorResponse;
+import com.telemedicine.repository.DoctorRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+// In-process spatial index of bookable doctors whose clinic has coordinates. Doctors are bucketed into
+// 0.1-degree grid cells (one grid overall and one per specialization); nearest-N queries scan rings of
+// cells outward from the origin and stop once no unvisited cell can hold a closer doctor. A doctor who
+// stops being bookable or loses their coordinates drops out when re-read.
+@Component
+public class DoctorGeoIndex extends DoctorIndex<DoctorGeoIndex.Index, DoctorRepository.LocatedDoctor> {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+    private static final double CELL_DEGREES = 0.1;
+    private static final int LAT_CELLS = 1800;
+    private static final int LON_CELLS = 3600;
+
+    private static final Comparator<Candidate> NEAREST_FIRST = Comparator.comparingDouble(Candidate::distanceKm)
+            .thenComparing(candidate -> candidate.doctor().id());
+
+    private final DoctorRepository doctorRepository;
+
+    public DoctorGeoIndex(DoctorRepository doctorRepository) {
+        this.doctorRepository = doctorRepository;
+    }
+
+    public List<NearbyDoctorResponse> nearest(double latitude, double longitude, double radiusKm,
+                                              String specialization, int limit) {
+        refresh();
+
+        lock.readLock().lock();
+        try {
+            Grid grid = specialization == null ? index.all : index.bySpecialization.get(key(specialization));
+            if (grid == null) {
+                return List.of();
+            }
+            return grid.nearest(latitude, longitude, radiusKm, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${doctors.geo.rebuild-interval:PT10M}",
+               initialDelayString = "${doctors.geo.rebuild-interval:PT10M}")
+    @Override
+    public void rebuild() {
+        super.rebuild();
+    }
+
+    @Override
+    protected Index newIndex() {
+        return new Index();
+    }
+
+    @Override
+    protected List<DoctorRepository.LocatedDoctor> loadAll() {
+        return doctorRepository.findLocatedBookable();
+    }
+
+    @Override
+    protected List<DoctorRepository.LocatedDoctor> loadChanged(Set<Long> doctorIds) {
+        return doctorRepository.findLocatedBookableByIdIn(doctorIds);
+    }
+
+    // Great-circle (haversine) distance
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double sinLat = Math.sin(Math.toRadians(lat2 - lat1) / 2);
+        double sinLon = Math.sin(Math.toRadians(lon2 - lon1) / 2);
+        double a = sinLat * sinLat + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * sinLon * sinLon;
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static String key(String specialization) {
+        return specialization.toLowerCase(Locale.ROOT);
+    }
+
+    private static int latCell(double latitude) {
+        return Math.min(LAT_CELLS - 1, (int) Math.floor((latitude + 90) / CELL_DEGREES));
+    }
+
+    private static int lonCell(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / CELL_DEGREES), LON_CELLS);
+    }
+
+    private static int cellKey(int latCell, int lonCell) {
+        return latCell * LON_CELLS + lonCell;
+    }
+
+    private record Located(Long id, String name, String specialization, Double consultationFee,
+                           String clinicAddress, double latitude, double longitude) {
+    }
+
+    private record Candidate(Located doctor, double distanceKm) {
+    }
+
+    static final class Index implements DoctorIndex.State<DoctorRepository.LocatedDoctor> {
+
+        private final Map<Long, Located> doctors = new HashMap<>();
+        private final Grid all = new Grid();
+        private final Map<String, Grid> bySpecialization = new HashMap<>();
+
+        @Override
+        public void add(DoctorRepository.LocatedDoctor doctor) {
+            Located located = new Located(doctor.getId(), doctor.getName(), doctor.getSpecialization(),
+                    doctor.getConsultationFee(), doctor.getClinicAddress(), doctor.getLatitude(), doctor.getLongitude());
+            doctors.put(located.id(), located);
+            all.add(located);
+            bySpecialization.computeIfAbsent(key(located.specialization()), k -> new Grid()).add(located);
+        }
+
+        @Override
+        public void remove(Long doctorId) {
+            Located located = doctors.remove(doctorId);
+            if (located == null) {
+                return;
+            }
+            all.remove(located);
+            String specialization = key(located.specialization());
+            Grid grid = bySpecialization.get(specialization);
+            grid.remove(located);
+            if (grid.size == 0) {
+                bySpecialization.remove(specialization);
+            }
+        }
+    }
+
+    private static final class Grid {
+
+        private final Map<Integer, List<Located>> cells = new HashMap<>();
+        private int size;
+
+        void add(Located doctor) {
+            cells.computeIfAbsent(cellOf(doctor), k -> new ArrayList<>()).add(doctor);
+            size++;
+        }
+
+        void remove(Located doctor) {
+            int cell = cellOf(doctor);
+            List<Located> doctors = cells.get(cell);
+            if (doctors != null && doctors.remove(doctor)) {
+                size--;
+                if (doctors.isEmpty()) {
+                    cells.remove(cell);
+                }
+            }
+        }
+
+        List<NearbyDoctorResponse> nearest(double latitude, double longitude, double radiusKm, int limit) {
+            // Farthest of the current best candidates on top, so it is the one evicted
+            PriorityQueue<Candidate> best = new PriorityQueue<>(limit + 1, NEAREST_FIRST.reversed());
+            int originLat = latCell(latitude);
+            int originLon = lonCell(longitude);
+            int maxLatRing = (int) Math.ceil(radiusKm / KM_PER_DEGREE / CELL_DEGREES) + 1;
+            // Longitude cells narrow towards the poles; use the widest latitude a match could sit at
+            double lonScale = Math.cos(Math.toRadians(Math.min(90, Math.abs(latitude) + radiusKm / KM_PER_DEGREE)));
+
+            int visited = 0;
+            for (int ring = 0; ring < LON_CELLS / 2 && visited < size; ring++) {
+                if (ring > 0) {
+                    // Doctors outside the rings scanned so far are at least this far away
+                    double gapDegrees = (ring - 1) * CELL_DEGREES;
+                    double latGapKm = gapDegrees * KM_PER_DEGREE;
+                    double lonGapKm = 2 * EARTH_RADIUS_KM * Math.asin(lonScale * Math.sin(Math.toRadians(gapDegrees) / 2));
+                    double bound = Math.min(latGapKm, lonGapKm);
+                    if (bound > radiusKm || (best.size() == limit && bound >= best.peek().distanceKm())) {
+                        break;
+                    }
+                }
+
+                for (int dy = Math.max(-ring, -maxLatRing); dy <= Math.min(ring, maxLatRing); dy++) {
+                    int row = originLat + dy;
+                    if (row < 0 || row >= LAT_CELLS) {
+                        continue;
+                    }
+                    // Whole top and bottom rows of the ring, only the two side cells in between
+                    int step = Math.abs(dy) == ring ? 1 : 2 * ring;
+                    for (int dx = -ring; dx <= ring; dx += step) {
+                        List<Located> doctors = cells.get(cellKey(row, Math.floorMod(originLon + dx, LON_CELLS)));
+                        if (doctors == null) {
+                            continue;
+                        }
+                        visited += doctors.size();
+                        for (Located doctor : doctors) {
+                            double distance = distanceKm(latitude, longitude, doctor.latitude(), doctor.longitude());
+                            if (distance > radiusKm) {
+                                continue;
+                            }
+                            Candidate candidate = new Candidate(doctor, distance);
+                            if (best.size() < limit) {
+                                best.add(candidate);
+                            } else if (NEAREST_FIRST.compare(candidate, best.peek()) < 0) {
+                                best.poll();
+                                best.add(candidate);
+                            }
+                        }
+                    }
+                }
+            }
+
+            return best.stream()
+                    .sorted(NEAREST_FIRST)
+                    .map(c -> new NearbyDoctorResponse(c.doctor().id(), c.doctor().name(), c.doctor().specialization(),
+                            c.doctor().consultationFee(), c.doctor().clinicAddress(), c.doctor().latitude(),
+                            c.doctor().longitude(), Math.round(c.distanceKm() * 100) / 100.0))
+                    .toList();
+        }
+
+        private static int cellOf(Located doctor) {
+            return cellKey(latCell(doctor.latitude()), lonCell(doctor.longitude()));
+        }
+    }
+}
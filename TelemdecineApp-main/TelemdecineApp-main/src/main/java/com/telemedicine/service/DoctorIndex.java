@@ -0,0 +1,87 @@
+package com.telemedicine.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Upkeep shared by the in-process doctor indexes. The index is built on first use and swapped in whole by
+// rebuild(); doctors reported through doctorChanged() are re-read and patched in before the next query.
+// Subclasses read the index under lock.readLock() after calling refresh().
+@Slf4j
+abstract class DoctorIndex<I extends DoctorIndex.State<D>, D> {
+
+    protected final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Set<Long> dirtyDoctorIds = ConcurrentHashMap.newKeySet();
+
+    protected volatile I index;
+    private volatile boolean rebuildRequested = true;
+
+    public void doctorChanged(Long doctorId) {
+        TransactionHooks.afterCommit(() -> dirtyDoctorIds.add(doctorId));
+    }
+
+    // When too many doctors changed to list them, e.g. after a bulk status update
+    public void requestRebuild() {
+        TransactionHooks.afterCommit(() -> rebuildRequested = true);
+    }
+
+    public synchronized void rebuild() {
+        I rebuilt = newIndex();
+        List<D> doctors = loadAll();
+        doctors.forEach(rebuilt::add);
+
+        lock.writeLock().lock();
+        try {
+            index = rebuilt;
+            rebuildRequested = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Rebuilt {} with {} doctors", getClass().getSimpleName(), doctors.size());
+    }
+
+    protected void refresh() {
+        if (index != null && !rebuildRequested && dirtyDoctorIds.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            if (index == null || rebuildRequested) {
+                rebuild();
+            }
+            if (dirtyDoctorIds.isEmpty()) {
+                return;
+            }
+
+            Set<Long> ids = new HashSet<>(dirtyDoctorIds);
+            dirtyDoctorIds.removeAll(ids);
+            // A doctor that no longer qualifies is missing from the reload, so removing it is enough
+            List<D> changed = loadChanged(ids);
+
+            lock.writeLock().lock();
+            try {
+                ids.forEach(index::remove);
+                changed.forEach(index::add);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    protected abstract I newIndex();
+
+    protected abstract List<D> loadAll();
+
+    protected abstract List<D> loadChanged(Set<Long> doctorIds);
+
+    interface State<D> {
+
+        void add(D doctor);
+
+        void remove(Long doctorId);
+    }
+}
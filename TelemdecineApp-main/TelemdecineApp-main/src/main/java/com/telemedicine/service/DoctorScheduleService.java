@@ -0,0 +1,241 @@
+package com.telemedicine.service;
+
+import com.telemedicine.dto.AvailableSlotResponse;
+import com.telemedicine.dto.DoctorScheduleResponse;
+import com.telemedicine.dto.FreeSlotResponse;
+import com.telemedicine.dto.TimeOffRequest;
+import com.telemedicine.dto.TimeOffResponse;
+import com.telemedicine.dto.WeeklyScheduleRequest;
+import com.telemedicine.dto.WorkingHoursRequest;
+import com.telemedicine.dto.WorkingHoursResponse;
+import com.telemedicine.entity.Doctor;
+import com.telemedicine.entity.DoctorTimeOff;
+import com.telemedicine.entity.DoctorWorkingHours;
+import com.telemedicine.exception.BadRequestException;
+import com.telemedicine.exception.ResourceNotFoundException;
+import com.telemedicine.repository.DoctorRepository;
+import com.telemedicine.repository.DoctorTimeOffRepository;
+import com.telemedicine.repository.DoctorWorkingHoursRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DoctorScheduleService {
+
+    private static final long MAX_SEARCH_DAYS = 31;
+    private static final int DEFAULT_EARLIEST_LIMIT = 5;
+    private static final int MAX_EARLIEST_LIMIT = 20;
+
+    private final DoctorRepository doctorRepository;
+    private final DoctorWorkingHoursRepository workingHoursRepository;
+    private final DoctorTimeOffRepository timeOffRepository;
+    private final DoctorCalendarCache doctorCalendarCache;
+
+    @Transactional(readOnly = true)
+    public DoctorScheduleResponse getSchedule(Long doctorId) {
+        log.info("Fetching schedule for doctor ID: {}", doctorId);
+
+        if (!doctorRepository.existsById(doctorId)) {
+            throw new ResourceNotFoundException("Doctor not found with ID: " + doctorId);
+        }
+        return mapToScheduleResponse(doctorId);
+    }
+
+    @Transactional
+    public DoctorScheduleResponse updateWeeklyHours(Long userId, WeeklyScheduleRequest request) {
+        log.info("Updating weekly hours for doctor user ID: {}", userId);
+
+        Doctor doctor = doctorRepository.findByUserId(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Doctor profile not found"));
+
+        List<WorkingHoursRequest> hours = new ArrayList<>(request.getHours());
+        hours.sort(Comparator.comparing(WorkingHoursRequest::getDayOfWeek)
+                .thenComparing(WorkingHoursRequest::getStartTime));
+        for (int i = 0; i < hours.size(); i++) {
+            WorkingHoursRequest current = hours.get(i);
+            if (!current.getEndTime().isAfter(current.getStartTime())) {
+                throw new BadRequestException("Working hours must end after they start");
+            }
+            if (i > 0) {
+                WorkingHoursRequest previous = hours.get(i - 1);
+                if (previous.getDayOfWeek() == current.getDayOfWeek()
+                        && current.getStartTime().isBefore(previous.getEndTime())) {
+                    throw new BadRequestException("Working hours overlap on " + current.getDayOfWeek());
+                }
+            }
+        }
+
+        // The weekly schedule is replaced as a whole
+        workingHoursRepository.deleteByDoctorId(doctor.getId());
+        List<DoctorWorkingHours> entities = new ArrayList<>();
+        for (WorkingHoursRequest window : hours) {
+            DoctorWorkingHours entity = new DoctorWorkingHours();
+            entity.setDoctor(doctor);
+            entity.setDayOfWeek(window.getDayOfWeek());
+            entity.setStartTime(window.getStartTime());
+            entity.setEndTime(window.getEndTime());
+            entities.add(entity);
+        }
+        workingHoursRepository.saveAll(entities);
+        doctorCalendarCache.scheduleChanged(doctor.getId());
+
+        log.info("Weekly hours updated for doctor ID: {}", doctor.getId());
+        return mapToScheduleResponse(doctor.getId());
+    }
+
+    @Transactional
+    public TimeOffResponse addTimeOff(Long userId, TimeOffRequest request) {
+        log.info("Adding time off on {} for doctor user ID: {}", request.getDate(), userId);
+
+        Doctor doctor = doctorRepository.findByUserId(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Doctor profile not found"));
+
+        if ((request.getStartTime() == null) != (request.getEndTime() == null)) {
+            throw new BadRequestException("Provide both start and end time, or neither for a full day off");
+        }
+        if (request.getStartTime() != null && !request.getEndTime().isAfter(request.getStartTime())) {
+            throw new BadRequestException("Time off must end after it starts");
+        }
+        if (request.getDate().isBefore(LocalDate.now())) {
+            throw new BadRequestException("Time off cannot be in the past");
+        }
+
+        DoctorTimeOff timeOff = new DoctorTimeOff();
+        timeOff.setDoctor(doctor);
+        timeOff.setDate(request.getDate());
+        timeOff.setStartTime(request.getStartTime());
+        timeOff.setEndTime(request.getEndTime());
+        timeOff.setReason(request.getReason());
+        timeOff = timeOffRepository.save(timeOff);
+        doctorCalendarCache.scheduleChanged(doctor.getId());
+
+        return mapToTimeOffResponse(timeOff);
+    }
+
+    @Transactional
+    public void deleteTimeOff(Long userId, Long timeOffId) {
+        log.info("Deleting time off {} for doctor user ID: {}", timeOffId, userId);
+
+        Doctor doctor = doctorRepository.findByUserId(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Doctor profile not found"));
+        DoctorTimeOff timeOff = timeOffRepository.findByIdAndDoctorId(timeOffId, doctor.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Time off not found with ID: " + timeOffId));
+
+        timeOffRepository.delete(timeOff);
+        doctorCalendarCache.scheduleChanged(doctor.getId());
+    }
+
+    @Transactional(readOnly = true)
+    public List<FreeSlotResponse> getFreeSlots(Long doctorId, LocalDateTime from, LocalDateTime to, Integer duration) {
+        log.info("Fetching free slots for doctor ID: {} from {} to {}", doctorId, from, to);
+
+        int durationMinutes = resolveDuration(duration);
+        if (from == null || to == null || !to.isAfter(from)) {
+            throw new BadRequestException("'to' must be after 'from'");
+        }
+        if (Duration.between(from, to).toDays() > MAX_SEARCH_DAYS) {
+            throw new BadRequestException("Free slots can be searched at most " + MAX_SEARCH_DAYS + " days at a time");
+        }
+
+        Doctor doctor = doctorRepository.findById(doctorId)
+                .orElseThrow(() -> new ResourceNotFoundException("Doctor not found with ID: " + doctorId));
+        if (!Boolean.TRUE.equals(doctor.getAvailableForConsultation())) {
+            return List.of();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = from.isBefore(now) ? now : from;
+        if (!to.isAfter(start)) {
+            return List.of();
+        }
+        return doctorCalendarCache.get(doctorId).freeSlots(start, to, durationMinutes);
+    }
+
+    // Top K earliest slots across all bookable doctors of a specialization within the next MAX_SEARCH_DAYS.
+    // Each doctor contributes at most K slots from its cached calendar; a priority queue merges the sorted lists.
+    @Transactional(readOnly = true)
+    public List<AvailableSlotResponse> findEarliestAvailable(String specialization, LocalDateTime from,
+                                                             Integer duration, Integer limit) {
+        log.info("Searching earliest available {} slots from {}", specialization, from);
+
+        int durationMinutes = resolveDuration(duration);
+        int k = limit != null ? limit : DEFAULT_EARLIEST_LIMIT;
+        if (k < 1) {
+            throw new BadRequestException("Limit must be at least 1");
+        }
+        k = Math.min(k, MAX_EARLIEST_LIMIT);
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = from != null && from.isAfter(now) ? from : now;
+        LocalDateTime end = start.plusDays(MAX_SEARCH_DAYS);
+
+        List<DoctorRepository.BookableDoctor> doctors = doctorRepository.findBookableBySpecialization(specialization);
+        List<List<FreeSlotResponse>> slotsByDoctor = new ArrayList<>(doctors.size());
+        PriorityQueue<int[]> heads = new PriorityQueue<>((a, b) -> {
+            int byStart = slotsByDoctor.get(a[0]).get(a[1]).getStart()
+                    .compareTo(slotsByDoctor.get(b[0]).get(b[1]).getStart());
+            return byStart != 0 ? byStart : Long.compare(doctors.get(a[0]).getId(), doctors.get(b[0]).getId());
+        });
+        for (DoctorRepository.BookableDoctor doctor : doctors) {
+            List<FreeSlotResponse> slots = doctorCalendarCache.get(doctor.getId()).freeSlots(start, end, durationMinutes, k);
+            slotsByDoctor.add(slots);
+            if (!slots.isEmpty()) {
+                heads.add(new int[]{slotsByDoctor.size() - 1, 0});
+            }
+        }
+
+        List<AvailableSlotResponse> result = new ArrayList<>(k);
+        while (result.size() < k && !heads.isEmpty()) {
+            int[] head = heads.poll();
+            DoctorRepository.BookableDoctor doctor = doctors.get(head[0]);
+            FreeSlotResponse slot = slotsByDoctor.get(head[0]).get(head[1]);
+            result.add(new AvailableSlotResponse(doctor.getId(), doctor.getName(), doctor.getSpecialization(),
+                    doctor.getConsultationFee(), slot.getStart(), slot.getEnd()));
+            if (head[1] + 1 < slotsByDoctor.get(head[0]).size()) {
+                heads.add(new int[]{head[0], head[1] + 1});
+            }
+        }
+        return result;
+    }
+
+    private int resolveDuration(Integer duration) {
+        int durationMinutes = duration != null ? duration : SlotReservationService.DEFAULT_DURATION_MINUTES;
+        if (durationMinutes < SlotReservationService.MIN_DURATION_MINUTES
+                || durationMinutes > SlotReservationService.MAX_DURATION_MINUTES) {
+            throw new BadRequestException("Duration must be between " + SlotReservationService.MIN_DURATION_MINUTES +
+                    " and " + SlotReservationService.MAX_DURATION_MINUTES + " minutes");
+        }
+        return durationMinutes;
+    }
+
+    private DoctorScheduleResponse mapToScheduleResponse(Long doctorId) {
+        List<WorkingHoursResponse> hours = workingHoursRepository.findByDoctorIdOrderByDayOfWeekAscStartTimeAsc(doctorId)
+                .stream()
+                .map(h -> new WorkingHoursResponse(h.getId(), h.getDayOfWeek(), h.getStartTime(), h.getEndTime()))
+                .collect(Collectors.toList());
+        List<TimeOffResponse> timeOff = timeOffRepository
+                .findByDoctorIdAndDateGreaterThanEqualOrderByDateAscStartTimeAsc(doctorId, LocalDate.now())
+                .stream()
+                .map(this::mapToTimeOffResponse)
+                .collect(Collectors.toList());
+        return new DoctorScheduleResponse(doctorId, hours, timeOff);
+    }
+
+    private TimeOffResponse mapToTimeOffResponse(DoctorTimeOff timeOff) {
+        return new TimeOffResponse(timeOff.getId(), timeOff.getDate(), timeOff.getStartTime(),
+                timeOff.getEndTime(), timeOff.getReason());
+    }
+}
@@ -0,0 +1,275 @@
+package com.telemedicine.service;
+
+import com.telemedicine.dto.DoctorResponse;
+import com.telemedicine.repository.DoctorRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+// In-process inverted index over doctor name, specialization, clinic address and biography.
+// Query terms match exactly, by prefix, or within a small edit distance (candidates found through a
+// trigram index over the vocabulary). Changed doctors are re-read on the next search; a periodic full
+// rebuild picks up changes made by other instances.
+@Component
+public class DoctorSearchIndex extends DoctorIndex<DoctorSearchIndex.Index, DoctorResponse> {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float SPECIALIZATION_WEIGHT = 3.0f;
+    private static final float CLINIC_WEIGHT = 1.5f;
+    private static final float BIOGRAPHY_WEIGHT = 1.0f;
+
+    private static final double PREFIX_SIMILARITY = 0.8;
+    private static final int MAX_QUERY_TERMS = 8;
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    private final DoctorRepository doctorRepository;
+
+    public DoctorSearchIndex(DoctorRepository doctorRepository) {
+        this.doctorRepository = doctorRepository;
+    }
+
+    public List<DoctorResponse> search(String query, int limit) {
+        refresh();
+
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (terms.size() > MAX_QUERY_TERMS) {
+            terms = terms.subList(0, MAX_QUERY_TERMS);
+        }
+
+        lock.readLock().lock();
+        try {
+            return index.search(terms, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${doctors.search.rebuild-interval:PT10M}",
+               initialDelayString = "${doctors.search.rebuild-interval:PT10M}")
+    @Override
+    public void rebuild() {
+        super.rebuild();
+    }
+
+    @Override
+    protected Index newIndex() {
+        return new Index();
+    }
+
+    @Override
+    protected List<DoctorResponse> loadAll() {
+        return doctorRepository.findAllResponses();
+    }
+
+    @Override
+    protected List<DoctorResponse> loadChanged(Set<Long> doctorIds) {
+        return doctorRepository.findResponsesByIdIn(doctorIds);
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        for (String token : SEPARATORS.split(normalized.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static Set<String> trigrams(String term) {
+        String padded = "$" + term + "$";
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private static int maxEdits(String term) {
+        return term.length() < MIN_FUZZY_LENGTH ? 0 : term.length() <= 6 ? 1 : 2;
+    }
+
+    // Levenshtein distance, or maxDistance + 1 as soon as it is known to exceed maxDistance
+    private static int editDistance(String a, String b, int maxDistance) {
+        if (Math.abs(a.length() - b.length()) > maxDistance) {
+            return maxDistance + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxDistance) {
+                return maxDistance + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    static final class Index implements DoctorIndex.State<DoctorResponse> {
+
+        private final Map<Long, DoctorResponse> doctors = new HashMap<>();
+        private final Map<Long, Map<String, Float>> termsByDoctor = new HashMap<>();
+        private final TreeMap<String, Map<Long, Float>> postings = new TreeMap<>();
+        private final Map<String, Set<String>> termsByTrigram = new HashMap<>();
+
+        @Override
+        public void add(DoctorResponse doctor) {
+            Map<String, Float> terms = new HashMap<>();
+            addField(terms, doctor.getFirstName() + " " + doctor.getLastName(), NAME_WEIGHT);
+            addField(terms, doctor.getSpecialization(), SPECIALIZATION_WEIGHT);
+            addField(terms, doctor.getClinicAddress(), CLINIC_WEIGHT);
+            addField(terms, doctor.getBiography(), BIOGRAPHY_WEIGHT);
+
+            doctors.put(doctor.getId(), doctor);
+            termsByDoctor.put(doctor.getId(), terms);
+            terms.forEach((term, weight) -> {
+                Map<Long, Float> posting = postings.computeIfAbsent(term, t -> {
+                    trigrams(t).forEach(trigram -> termsByTrigram.computeIfAbsent(trigram, g -> new HashSet<>()).add(t));
+                    return new HashMap<>();
+                });
+                posting.put(doctor.getId(), weight);
+            });
+        }
+
+        @Override
+        public void remove(Long doctorId) {
+            doctors.remove(doctorId);
+            Map<String, Float> terms = termsByDoctor.remove(doctorId);
+            if (terms == null) {
+                return;
+            }
+            for (String term : terms.keySet()) {
+                Map<Long, Float> posting = postings.get(term);
+                posting.remove(doctorId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                    for (String trigram : trigrams(term)) {
+                        Set<String> vocabulary = termsByTrigram.get(trigram);
+                        vocabulary.remove(term);
+                        if (vocabulary.isEmpty()) {
+                            termsByTrigram.remove(trigram);
+                        }
+                    }
+                }
+            }
+        }
+
+        List<DoctorResponse> search(List<String> queryTerms, int limit) {
+            Map<Long, double[]> hits = new HashMap<>();
+            for (String queryTerm : queryTerms) {
+                Map<Long, Double> best = new HashMap<>();
+                matchTerms(queryTerm).forEach((term, similarity) -> {
+                    Map<Long, Float> posting = postings.get(term);
+                    double idf = Math.log(1.0 + (double) doctors.size() / posting.size());
+                    posting.forEach((doctorId, weight) -> best.merge(doctorId, similarity * weight * idf, Math::max));
+                });
+                best.forEach((doctorId, score) -> {
+                    double[] hit = hits.computeIfAbsent(doctorId, id -> new double[2]);
+                    hit[0]++;
+                    hit[1] += score;
+                });
+            }
+
+            // Doctors matching more of the query rank first, then by accumulated score; only the
+            // best `limit` hits are kept so broad queries do not sort every matching doctor
+            Comparator<Map.Entry<Long, double[]>> ranking =
+                    Comparator.<Map.Entry<Long, double[]>>comparingDouble(e -> -e.getValue()[0])
+                            .thenComparingDouble(e -> -e.getValue()[1])
+                            .thenComparing(Map.Entry::getKey);
+            PriorityQueue<Map.Entry<Long, double[]>> top = new PriorityQueue<>(limit + 1, ranking.reversed());
+            for (Map.Entry<Long, double[]> hit : hits.entrySet()) {
+                top.add(hit);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            return top.stream()
+                    .sorted(ranking)
+                    .map(e -> doctors.get(e.getKey()))
+                    .toList();
+        }
+
+        private Map<String, Double> matchTerms(String queryTerm) {
+            Map<String, Double> matches = new HashMap<>();
+            if (postings.containsKey(queryTerm)) {
+                matches.put(queryTerm, 1.0);
+            }
+
+            if (queryTerm.length() >= 2) {
+                int expansions = 0;
+                for (String term : postings.subMap(queryTerm, false, queryTerm + Character.MAX_VALUE, false).keySet()) {
+                    matches.putIfAbsent(term, PREFIX_SIMILARITY);
+                    if (++expansions >= MAX_PREFIX_EXPANSIONS) {
+                        break;
+                    }
+                }
+            }
+
+            // Terms that exist as typed are not treated as typos
+            int maxEdits = maxEdits(queryTerm);
+            if (maxEdits == 0 || matches.containsKey(queryTerm)) {
+                return matches;
+            }
+            // Each edit destroys at most three trigrams, so real matches share at least this many
+            Set<String> queryTrigrams = trigrams(queryTerm);
+            int minShared = Math.max(1, queryTrigrams.size() - 3 * maxEdits);
+            Map<String, Integer> shared = new HashMap<>();
+            for (String trigram : queryTrigrams) {
+                for (String term : termsByTrigram.getOrDefault(trigram, Set.of())) {
+                    if (Math.abs(term.length() - queryTerm.length()) <= maxEdits) {
+                        shared.merge(term, 1, Integer::sum);
+                    }
+                }
+            }
+            shared.forEach((term, count) -> {
+                if (count < minShared || matches.containsKey(term)) {
+                    return;
+                }
+                int distance = editDistance(queryTerm, term, maxEdits);
+                if (distance <= maxEdits) {
+                    matches.put(term, 0.7 - 0.15 * (distance - 1));
+                }
+            });
+            return matches;
+        }
+
+        private static void addField(Map<String, Float> terms, String text, float weight) {
+            for (String token : tokenize(text)) {
+                terms.merge(token, weight, Math::max);
+            }
+        }
+    }
+}
@@ -2,12 +2,17 @@ package com.telemedicine.service;
 
 import com.telemedicine.dto.DoctorProfileRequest;
 import com.telemedicine.dto.DoctorResponse;
+import com.telemedicine.dto.NearbyDoctorResponse;
+import com.telemedicine.dto.PublicDoctorResponse;
 import com.telemedicine.entity.Doctor;
+import com.telemedicine.entity.Patient;
 import com.telemedicine.entity.User;
 import com.telemedicine.entity.UserRole;
+import com.telemedicine.exception.BadRequestException;
 import com.telemedicine.exception.ResourceNotFoundException;
 import com.telemedicine.exception.UnauthorizedException;
 import com.telemedicine.repository.DoctorRepository;
+import com.telemedicine.repository.PatientRepository;
 import com.telemedicine.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,44 +20,70 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class DoctorService {
 
+    private static final int DEFAULT_SEARCH_RESULTS = 20;
+    private static final int MAX_SEARCH_RESULTS = 50;
+    private static final int MAX_SEARCH_QUERY_LENGTH = 100;
+    private static final double DEFAULT_NEARBY_RADIUS_KM = 25;
+    private static final double MAX_NEARBY_RADIUS_KM = 500;
+    private static final int DEFAULT_NEARBY_RESULTS = 10;
+
     private final DoctorRepository doctorRepository;
     private final UserRepository userRepository;
+    private final PatientRepository patientRepository;
+    private final DoctorDirectory doctorDirectory;
+    private final DoctorSearchIndex doctorSearchIndex;
+    private final DoctorGeoIndex doctorGeoIndex;
 
-    @Transactional(readOnly = true)
-    public List<DoctorResponse> getAllDoctors() {
-        log.info("Fetching all doctors");
-        
-        List<Doctor> doctors = doctorRepository.findAll();
-        return doctors.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
-    }
+    // Anonymous endpoint, so results leave out contact details and licence numbers
+    public List<PublicDoctorResponse> searchDoctors(String query, Integer limit) {
+        log.info("Searching doctors for: {}", query);
 
-    @Transactional(readOnly = true)
-    public List<DoctorResponse> getAvailableDoctors() {
-        log.info("Fetching available doctors");
-        
-        List<Doctor> doctors = doctorRepository.findByAvailableForConsultationTrue();
-        return doctors.stream()
-                .map(this::mapToResponse)
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query is required");
+        }
+        if (query.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new BadRequestException("Search query must be at most " + MAX_SEARCH_QUERY_LENGTH + " characters");
+        }
+        int resultLimit = limit != null ? Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)) : DEFAULT_SEARCH_RESULTS;
+        return doctorSearchIndex.search(query, resultLimit).stream()
+                .map(PublicDoctorResponse::from)
                 .collect(Collectors.toList());
     }
 
-    @Transactional(readOnly = true)
-    public List<DoctorResponse> getDoctorsBySpecialization(String specialization) {
-        log.info("Fetching doctors by specialization: {}", specialization);
-        
-        List<Doctor> doctors = doctorRepository.findBySpecialization(specialization);
-        return doctors.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    // Falls back to the coordinates on the caller's patient profile when none are given
+    public List<NearbyDoctorResponse> findNearbyDoctors(Long userId, Double latitude, Double longitude,
+                                                        Double radiusKm, String specialization, Integer limit) {
+        log.info("Searching doctors near {}, {} within {} km", latitude, longitude, radiusKm);
+
+        if (latitude == null && longitude == null && userId != null) {
+            Optional<Patient> patient = patientRepository.findByUserId(userId);
+            if (patient.isPresent()) {
+                latitude = patient.get().getLatitude();
+                longitude = patient.get().getLongitude();
+            }
+        }
+        if (latitude == null || longitude == null) {
+            throw new BadRequestException("Latitude and longitude are required unless set on your patient profile");
+        }
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new BadRequestException("Latitude must be between -90 and 90 and longitude between -180 and 180");
+        }
+        double radius = radiusKm != null ? radiusKm : DEFAULT_NEARBY_RADIUS_KM;
+        if (radius <= 0 || radius > MAX_NEARBY_RADIUS_KM) {
+            throw new BadRequestException("Radius must be greater than 0 and at most " + (int) MAX_NEARBY_RADIUS_KM + " km");
+        }
+        int resultLimit = limit != null ? Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)) : DEFAULT_NEARBY_RESULTS;
+        String specializationFilter = specialization == null || specialization.isBlank() ? null : specialization;
+        return doctorGeoIndex.nearest(latitude, longitude, radius, specializationFilter, resultLimit);
     }
 
     @Transactional(readOnly = true)
@@ -88,6 +119,10 @@ public class DoctorService {
         
         Doctor doctor = doctorRepository.findByUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Doctor profile not found"));
+
+        if ((request.getClinicLatitude() == null) != (request.getClinicLongitude() == null)) {
+            throw new BadRequestException("Clinic latitude and longitude must be set together");
+        }
         
         // Update profile
         doctor.setSpecialization(request.getSpecialization());
@@ -98,8 +133,13 @@ public class DoctorService {
         doctor.setAvailableForConsultation(request.getAvailableForConsultation());
         doctor.setClinicAddress(request.getClinicAddress());
         doctor.setClinicPhone(request.getClinicPhone());
+        doctor.setClinicLatitude(request.getClinicLatitude());
+        doctor.setClinicLongitude(request.getClinicLongitude());
         
         doctor = doctorRepository.save(doctor);
+        doctorDirectory.invalidate();
+        doctorSearchIndex.doctorChanged(doctor.getId());
+        doctorGeoIndex.doctorChanged(doctor.getId());
         log.info("Doctor profile updated successfully for user ID: {}", userId);
         
         return mapToResponse(doctor);
@@ -114,6 +154,9 @@ public class DoctorService {
         
         doctor.setAvailableForConsultation(available);
         doctor = doctorRepository.save(doctor);
+        doctorDirectory.invalidate();
+        doctorSearchIndex.doctorChanged(doctor.getId());
+        doctorGeoIndex.doctorChanged(doctor.getId());
         
         log.info("Doctor availability updated successfully");
         return mapToResponse(doctor);
@@ -134,6 +177,8 @@ public class DoctorService {
         response.setAvailableForConsultation(doctor.getAvailableForConsultation());
         response.setClinicAddress(doctor.getClinicAddress());
         response.setClinicPhone(doctor.getClinicPhone());
+        response.setClinicLatitude(doctor.getClinicLatitude());
+        response.setClinicLongitude(doctor.getClinicLongitude());
         return response;
     }
 }
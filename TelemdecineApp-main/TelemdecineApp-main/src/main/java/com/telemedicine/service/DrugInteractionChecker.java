@@ -0,0 +1,310 @@
+package com.telemedicine.service;
+
+import com.telemedicine.dto.InteractionWarning;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+// Checks a new prescription against the patient's active medications and allergy terms using a local
+// dataset of interacting pairs (prescriptions.interactions.dataset). Drug names are interned to ints and
+// each drug's partners kept sorted in flat arrays, so a check is a handful of binary searches. The file
+// is re-read when it changes (or on demand) and swapped in whole; a file that fails to parse is ignored.
+@Component
+@Slf4j
+public class DrugInteractionChecker {
+
+    private static final List<String> SEVERITIES = List.of("MINOR", "MODERATE", "MAJOR", "CONTRAINDICATED");
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern ALLERGY_SEPARATOR = Pattern.compile("[,;\\n]+");
+
+    private final Resource dataset;
+    private final Timer checkTimer;
+
+    private volatile Graph graph = Graph.EMPTY;
+    private volatile long loadedVersion = -1;
+
+    public DrugInteractionChecker(ResourceLoader resourceLoader,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${prescriptions.interactions.dataset:classpath:drug-interactions.csv}") String location) {
+        this.dataset = resourceLoader.getResource(location);
+        this.checkTimer = Timer.builder("prescriptions.interactions.check.duration").register(meterRegistry);
+        Gauge.builder("prescriptions.interactions.pairs", this, checker -> checker.graph.pairs()).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        try {
+            reload();
+        } catch (IllegalStateException e) {
+            log.error("Drug interaction checks are disabled until the dataset loads: {}", e.getMessage());
+        }
+    }
+
+    // Returns the number of pairs loaded; the current dataset stays in place if the file is invalid
+    public synchronized int reload() {
+        long version = version();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(dataset.getInputStream(), StandardCharsets.UTF_8))) {
+            graph = Graph.parse(reader);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalStateException("Cannot load drug interactions from " + dataset.getDescription()
+                    + ": " + e.getMessage(), e);
+        } finally {
+            // A file that failed to parse is not retried until it changes again
+            loadedVersion = version;
+        }
+        log.info("Loaded {} drug interaction pairs from {}", graph.pairs(), dataset.getDescription());
+        return graph.pairs();
+    }
+
+    @Scheduled(fixedDelayString = "${prescriptions.interactions.reload-interval:PT1M}",
+               initialDelayString = "${prescriptions.interactions.reload-interval:PT1M}")
+    public void reloadIfChanged() {
+        if (version() == loadedVersion) {
+            return;
+        }
+        try {
+            reload();
+        } catch (IllegalStateException e) {
+            log.error(e.getMessage());
+        }
+    }
+
+    // Warnings for prescribing the medication, most severe first; at most one per conflicting item
+    public List<InteractionWarning> check(String medicationName, Collection<String> activeMedications,
+                                          String allergies) {
+        long startedAt = System.nanoTime();
+        Graph current = graph;
+        int[] drug = current.resolve(medicationName);
+        List<InteractionWarning> warnings = new ArrayList<>();
+
+        for (String active : activeMedications) {
+            int edge = current.mostSevere(drug, current.resolve(active));
+            if (edge >= 0) {
+                warnings.add(current.warning(edge, "INTERACTION", active));
+            }
+        }
+
+        if (allergies != null && !allergies.isBlank()) {
+            Set<String> names = new HashSet<>(Arrays.asList(tokens(medicationName)));
+            names.add(normalize(medicationName));
+            for (String term : ALLERGY_SEPARATOR.split(allergies)) {
+                String allergen = normalize(term);
+                if (allergen.isEmpty()) {
+                    continue;
+                }
+                if (names.contains(allergen)) {
+                    warnings.add(new InteractionWarning("ALLERGY", term.trim(), "CONTRAINDICATED",
+                            "Patient is allergic to " + term.trim()));
+                    continue;
+                }
+                int edge = current.mostSevere(drug, current.resolve(term));
+                if (edge >= 0) {
+                    warnings.add(current.warning(edge, "ALLERGY", term.trim()));
+                }
+            }
+        }
+
+        warnings.sort(Comparator.comparingInt((InteractionWarning w) -> SEVERITIES.indexOf(w.getSeverity())).reversed());
+        checkTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        return warnings;
+    }
+
+    private long version() {
+        try {
+            return dataset.lastModified();
+        } catch (IOException e) {
+            return loadedVersion;
+        }
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    private static String[] tokens(String name) {
+        return TOKEN_SEPARATOR.split(normalize(name));
+    }
+
+    // Immutable once built. Pair partners of drug i are neighbors[offsets[i] .. offsets[i + 1]), sorted,
+    // with the pair's severity and description at the same index.
+    private static final class Graph {
+
+        static final Graph EMPTY = new Graph(Map.of(), new int[]{0}, new int[0], new byte[0], new int[0], new String[0]);
+
+        private final Map<String, Integer> ids;
+        private final int[] offsets;
+        private final int[] neighbors;
+        private final byte[] severities;
+        private final int[] descriptions;
+        private final String[] descriptionTable;
+
+        private Graph(Map<String, Integer> ids, int[] offsets, int[] neighbors, byte[] severities,
+                      int[] descriptions, String[] descriptionTable) {
+            this.ids = ids;
+            this.offsets = offsets;
+            this.neighbors = neighbors;
+            this.severities = severities;
+            this.descriptions = descriptions;
+            this.descriptionTable = descriptionTable;
+        }
+
+        int pairs() {
+            return neighbors.length / 2;
+        }
+
+        // The whole name and each word of it that is a known drug, e.g. "Amoxicillin 500mg" -> amoxicillin
+        int[] resolve(String name) {
+            if (name == null || ids.isEmpty()) {
+                return new int[0];
+            }
+            int[] found = new int[4];
+            int count = 0;
+            Integer whole = ids.get(normalize(name));
+            if (whole != null) {
+                found[count++] = whole;
+            }
+            for (String token : tokens(name)) {
+                Integer id = ids.get(token);
+                if (id != null && !contains(found, count, id)) {
+                    if (count == found.length) {
+                        found = Arrays.copyOf(found, count * 2);
+                    }
+                    found[count++] = id;
+                }
+            }
+            return Arrays.copyOf(found, count);
+        }
+
+        // Index of the most severe pair between the two sets of drugs, or -1
+        int mostSevere(int[] drugs, int[] others) {
+            int best = -1;
+            for (int drug : drugs) {
+                for (int other : others) {
+                    int edge = Arrays.binarySearch(neighbors, offsets[drug], offsets[drug + 1], other);
+                    if (edge >= 0 && (best < 0 || severities[edge] > severities[best])) {
+                        best = edge;
+                    }
+                }
+            }
+            return best;
+        }
+
+        InteractionWarning warning(int edge, String type, String conflictsWith) {
+            return new InteractionWarning(type, conflictsWith, SEVERITIES.get(severities[edge]),
+                    descriptionTable[descriptions[edge]]);
+        }
+
+        static Graph parse(BufferedReader reader) throws IOException {
+            Map<String, Integer> ids = new HashMap<>();
+            Map<String, Integer> descriptionIds = new HashMap<>();
+            List<String> descriptionTable = new ArrayList<>();
+            // Both drug ids packed into the key; severity and description id packed into the value
+            Map<Long, Long> pairs = new HashMap<>();
+
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#") || line.startsWith("drug_a,")) {
+                    continue;
+                }
+                String[] fields = line.split(",", 4);
+                if (fields.length < 3 || fields[0].isBlank() || fields[1].isBlank()) {
+                    throw new IllegalArgumentException("line " + lineNumber + ": expected drug_a,drug_b,severity[,description]");
+                }
+                int severity = SEVERITIES.indexOf(fields[2].trim().toUpperCase(Locale.ROOT));
+                if (severity < 0) {
+                    throw new IllegalArgumentException("line " + lineNumber + ": unknown severity " + fields[2].trim());
+                }
+                int a = ids.computeIfAbsent(normalize(fields[0]), k -> ids.size());
+                int b = ids.computeIfAbsent(normalize(fields[1]), k -> ids.size());
+                if (a == b) {
+                    continue;
+                }
+                String description = fields.length > 3 ? fields[3].trim() : "";
+                int descriptionId = descriptionIds.computeIfAbsent(description, k -> {
+                    descriptionTable.add(k);
+                    return descriptionTable.size() - 1;
+                });
+                long key = ((long) Math.min(a, b) << 32) | Math.max(a, b);
+                long value = ((long) severity << 32) | descriptionId;
+                // A pair listed twice keeps its most severe entry
+                pairs.merge(key, value, (existing, added) -> (added >>> 32) > (existing >>> 32) ? added : existing);
+            }
+
+            int drugs = ids.size();
+            int[] offsets = new int[drugs + 1];
+            for (long key : pairs.keySet()) {
+                offsets[(int) (key >>> 32) + 1]++;
+                offsets[(int) key + 1]++;
+            }
+            for (int i = 0; i < drugs; i++) {
+                offsets[i + 1] += offsets[i];
+            }
+
+            // Partner id in the high half and pair index in the low half, so sorting a drug's slice
+            // orders its partners and keeps track of where each pair's attributes are
+            long[] packed = new long[offsets[drugs]];
+            long[] values = new long[pairs.size()];
+            int[] cursor = Arrays.copyOf(offsets, drugs);
+            int pair = 0;
+            for (Map.Entry<Long, Long> entry : pairs.entrySet()) {
+                int a = (int) (entry.getKey() >>> 32);
+                int b = (int) (long) entry.getKey();
+                values[pair] = entry.getValue();
+                packed[cursor[a]++] = ((long) b << 32) | pair;
+                packed[cursor[b]++] = ((long) a << 32) | pair;
+                pair++;
+            }
+
+            int[] neighbors = new int[packed.length];
+            byte[] severities = new byte[packed.length];
+            int[] descriptions = new int[packed.length];
+            for (int i = 0; i < drugs; i++) {
+                Arrays.sort(packed, offsets[i], offsets[i + 1]);
+            }
+            for (int i = 0; i < packed.length; i++) {
+                long value = values[(int) packed[i]];
+                neighbors[i] = (int) (packed[i] >>> 32);
+                severities[i] = (byte) (value >>> 32);
+                descriptions[i] = (int) value;
+            }
+            return new Graph(Map.copyOf(ids), offsets, neighbors, severities, descriptions,
+                    descriptionTable.toArray(new String[0]));
+        }
+
+        private static boolean contains(int[] values, int count, int value) {
+            for (int i = 0; i < count; i++) {
+                if (values[i] == value) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
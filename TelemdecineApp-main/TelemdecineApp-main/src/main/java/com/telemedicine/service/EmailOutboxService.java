@@ -0,0 +1,178 @@
+package com.telemedicine.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.telemedicine.dto.OutboxEmailResponse;
+import com.telemedicine.entity.OutboxEmail;
+import com.telemedicine.entity.OutboxEmailStatus;
+import com.telemedicine.exception.BadRequestException;
+import com.telemedicine.exception.ResourceNotFoundException;
+import com.telemedicine.repository.OutboxEmailRepository;
+import com.telemedicine.repository.SentEmailKeyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+// Transactional outbox for outgoing email: intents are stored with the business change that caused
+// them and delivered later by EmailOutboxWorker, with exponential backoff and dead-lettering.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxService {
+
+    private static final int DEFAULT_LIST_LIMIT = 50;
+    private static final int MAX_LIST_LIMIT = 200;
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxEmailRepository outboxEmailRepository;
+    private final SentEmailKeyRepository sentEmailKeyRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${email.outbox.lease:PT5M}")
+    private Duration lease;
+
+    @Value("${email.outbox.initial-backoff:PT30S}")
+    private Duration initialBackoff;
+
+    @Value("${email.outbox.max-backoff:PT1H}")
+    private Duration maxBackoff;
+
+    @Value("${email.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    // Joins the caller's transaction so the email is queued if and only if the change commits
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String idempotencyKey, String recipient, String subject, String template,
+                        Map<String, Object> variables) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(variables);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize email variables for " + idempotencyKey, e);
+        }
+
+        int inserted = outboxEmailRepository.insertIfAbsent(idempotencyKey, recipient, subject, template, json,
+                LocalDateTime.now());
+        if (inserted == 0) {
+            log.debug("Email {} is already queued", idempotencyKey);
+        }
+    }
+
+    // Leases due emails to the caller: they are not due again until the lease runs out, so an
+    // instance dying mid-send only delays delivery. The lease token identifies this claim in later updates.
+    @Transactional
+    public List<OutboxEmail> claimDue(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        String leaseToken = UUID.randomUUID().toString();
+        List<OutboxEmail> due = outboxEmailRepository.findDueForUpdate(OutboxEmailStatus.PENDING, now,
+                PageRequest.ofSize(limit));
+        for (OutboxEmail email : due) {
+            email.setAttempts(email.getAttempts() + 1);
+            email.setNextAttemptAt(now.plus(lease));
+            email.setLeaseToken(leaseToken);
+        }
+        return due;
+    }
+
+    // Returns the IDs still leased under the token; the others were re-claimed and must not be sent
+    @Transactional
+    public List<Long> renewLease(Collection<Long> emailIds, String leaseToken) {
+        LocalDateTime now = LocalDateTime.now();
+        int renewed = outboxEmailRepository.renewLease(emailIds, leaseToken, now.plus(lease), now);
+        if (renewed == emailIds.size()) {
+            return List.copyOf(emailIds);
+        }
+        List<Long> leased = outboxEmailRepository.findLeased(emailIds, leaseToken);
+        log.warn("Lease lost on {} of {} emails before sending; skipping them", emailIds.size() - leased.size(),
+                emailIds.size());
+        return leased;
+    }
+
+    @Transactional
+    public void markSent(Collection<Long> emailIds, String leaseToken) {
+        int updated = outboxEmailRepository.markSent(emailIds, leaseToken, LocalDateTime.now());
+        if (updated < emailIds.size()) {
+            log.warn("Lease lost on {} of {} sent emails; left to their new owner", emailIds.size() - updated,
+                    emailIds.size());
+        }
+    }
+
+    @Transactional
+    public void markFailed(Long emailId, String leaseToken, int attempts, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        String message = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        boolean dead = attempts >= maxAttempts;
+        int updated = dead
+                ? outboxEmailRepository.markFailed(emailId, leaseToken, OutboxEmailStatus.DEAD, now, message, now)
+                : outboxEmailRepository.markFailed(emailId, leaseToken, OutboxEmailStatus.PENDING,
+                        now.plus(backoff(attempts)), message, now);
+        if (updated == 0) {
+            log.warn("Lease lost on email {}; failure of attempt {} not recorded: {}", emailId, attempts, message);
+        } else if (dead) {
+            log.error("Email {} moved to dead letters after {} attempts: {}", emailId, attempts, message);
+        } else {
+            log.warn("Email {} failed on attempt {}, will retry: {}", emailId, attempts, message);
+        }
+    }
+
+    // Deletes one chunk of sent emails past retention, keeping their keys so they cannot be queued again
+    @Transactional
+    public int purgeSent(LocalDateTime cutoff, int limit) {
+        List<Long> emailIds = outboxEmailRepository.lockSentBefore(cutoff, limit);
+        if (emailIds.isEmpty()) {
+            return 0;
+        }
+        sentEmailKeyRepository.copyFromOutbox(emailIds, LocalDateTime.now());
+        return outboxEmailRepository.deleteByIds(emailIds);
+    }
+
+    @Transactional(readOnly = true)
+    public List<OutboxEmailResponse> getEmails(OutboxEmailStatus status, Integer limit) {
+        int pageSize = limit != null ? Math.max(1, Math.min(limit, MAX_LIST_LIMIT)) : DEFAULT_LIST_LIMIT;
+        return outboxEmailRepository.findByStatusOrderByIdDesc(status, PageRequest.ofSize(pageSize)).stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public OutboxEmailResponse retry(Long emailId) {
+        OutboxEmail email = outboxEmailRepository.findById(emailId)
+                .orElseThrow(() -> new ResourceNotFoundException("Email not found with ID: " + emailId));
+        if (email.getStatus() != OutboxEmailStatus.DEAD) {
+            throw new BadRequestException("Only dead-lettered emails can be retried");
+        }
+
+        email.setStatus(OutboxEmailStatus.PENDING);
+        email.setAttempts(0);
+        email.setNextAttemptAt(LocalDateTime.now());
+        email.setLeaseToken(null);
+        log.info("Email {} re-queued from dead letters", emailId);
+        return mapToResponse(outboxEmailRepository.save(email));
+    }
+
+    // Doubles per attempt up to max-backoff, with up to 20% jitter so failed batches spread out
+    private Duration backoff(int attempts) {
+        long base = initialBackoff.toMillis() << Math.min(attempts - 1, 20);
+        long capped = Math.min(base, maxBackoff.toMillis());
+        return Duration.ofMillis(capped + ThreadLocalRandom.current().nextLong(capped / 5 + 1));
+    }
+
+    private OutboxEmailResponse mapToResponse(OutboxEmail email) {
+        return new OutboxEmailResponse(email.getId(), email.getIdempotencyKey(), email.getRecipient(),
+                email.getSubject(), email.getTemplate(), email.getStatus(), email.getAttempts(),
+                email.getNextAttemptAt(), email.getLastError(), email.getSentAt(), email.getCreatedAt());
+    }
+}
@@ -0,0 +1,230 @@
+package com.telemedicine.service;
+
+import com.telemedicine.entity.OutboxEmail;
+import com.telemedicine.entity.OutboxEmailStatus;
+import com.telemedicine.repository.OutboxEmailRepository;
+import com.telemedicine.repository.SentEmailKeyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Polls the outbox and hands due emails, in batches, to a bounded sender pool. Each batch is sent over
+// one pooled SMTP connection after being rendered in parallel. Only a couple of batches per sender thread
+// are claimed at a time, so a slow SMTP server backs up in the table, not in memory, and claimed emails
+// are sent well within their lease instead of being re-claimed and sent twice.
+@Component
+@Slf4j
+public class EmailOutboxWorker {
+
+    // One batch being sent and one waiting, per sender thread
+    private static final int IN_FLIGHT_BATCHES_PER_THREAD = 2;
+
+    private final EmailOutboxService emailOutboxService;
+    private final EmailService emailService;
+    private final OutboxEmailRepository outboxEmailRepository;
+    private final SentEmailKeyRepository sentEmailKeyRepository;
+    private final SmtpConnectionPool smtpConnectionPool;
+    private final ThreadPoolExecutor executor;
+    private final int claimSize;
+    private final int sendBatchSize;
+    private final Duration sentRetention;
+    private final Duration keyRetention;
+    private final int purgeChunkSize;
+    private final int maxInFlight;
+    // Claimed and not yet sent or failed
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // Refreshed by refreshBacklog(), so metric scrapes never query the table
+    private final AtomicLong pendingEmails = new AtomicLong();
+    private final AtomicLong deadEmails = new AtomicLong();
+
+    private final Timer batchTimer;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Counter rejectedCounter;
+    private final Counter purgedCounter;
+
+    public EmailOutboxWorker(EmailOutboxService emailOutboxService,
+                             EmailService emailService,
+                             SmtpConnectionPool smtpConnectionPool,
+                             OutboxEmailRepository outboxEmailRepository,
+                             SentEmailKeyRepository sentEmailKeyRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${email.outbox.threads:4}") int threads,
+                             @Value("${email.outbox.queue-capacity:100}") int queueCapacity,
+                             @Value("${email.outbox.batch-size:50}") int claimSize,
+                             @Value("${email.smtp.send-batch-size:20}") int sendBatchSize,
+                             @Value("${email.outbox.sent-retention:P7D}") Duration sentRetention,
+                             @Value("${email.outbox.key-retention:P400D}") Duration keyRetention,
+                             @Value("${email.outbox.purge-chunk-size:1000}") int purgeChunkSize) {
+        this.emailOutboxService = emailOutboxService;
+        this.emailService = emailService;
+        this.outboxEmailRepository = outboxEmailRepository;
+        this.sentEmailKeyRepository = sentEmailKeyRepository;
+        this.smtpConnectionPool = smtpConnectionPool;
+        this.claimSize = claimSize;
+        this.sendBatchSize = sendBatchSize;
+        this.sentRetention = sentRetention;
+        this.keyRetention = keyRetention;
+        this.purgeChunkSize = purgeChunkSize;
+        this.maxInFlight = threads * sendBatchSize * IN_FLIGHT_BATCHES_PER_THREAD;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("email-sender-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.batchTimer = Timer.builder("email.send.batch.duration").register(meterRegistry);
+        this.sentCounter = Counter.builder("email.sent").tag("outcome", "sent").register(meterRegistry);
+        this.failedCounter = Counter.builder("email.sent").tag("outcome", "failed").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("email.sender.rejected").register(meterRegistry);
+        this.purgedCounter = Counter.builder("email.outbox.purged").register(meterRegistry);
+        Gauge.builder("email.sender.queue.depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("email.sender.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+        Gauge.builder("email.sender.in-flight", inFlight, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("email.outbox.pending", pendingEmails, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("email.outbox.dead", deadEmails, AtomicLong::get).register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval:PT5S}")
+    public void dispatch() {
+        int capacity = Math.min(claimSize, maxInFlight - inFlight.get());
+        if (capacity <= 0) {
+            return;
+        }
+
+        List<OutboxEmail> due = emailOutboxService.claimDue(capacity);
+        inFlight.addAndGet(due.size());
+        for (int from = 0; from < due.size(); from += sendBatchSize) {
+            List<OutboxEmail> batch = due.subList(from, Math.min(from + sendBatchSize, due.size()));
+            try {
+                executor.execute(() -> deliver(batch));
+            } catch (RejectedExecutionException e) {
+                // Still leased; picked up again once the lease runs out
+                rejectedCounter.increment(batch.size());
+                inFlight.addAndGet(-batch.size());
+            }
+        }
+        if (!due.isEmpty()) {
+            log.debug("Dispatched {} queued emails", due.size());
+        }
+    }
+
+    // Sent rows only serve the admin view; their keys are kept for key-retention so enqueueing them again stays
+    // a no-op, which covers every re-enqueue source (status and reminder emails are keyed by appointment date).
+    // Dead ones stay for retry.
+    @Scheduled(fixedDelayString = "${email.outbox.purge-interval:PT1H}")
+    public void purgeSent() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = emailOutboxService.purgeSent(now.minus(sentRetention), purgeChunkSize);
+            purgedCounter.increment(deleted);
+            total += deleted;
+        } while (deleted == purgeChunkSize);
+        if (total > 0) {
+            log.info("Purged {} sent emails older than {}", total, sentRetention);
+        }
+
+        int keys = 0;
+        do {
+            deleted = sentEmailKeyRepository.deleteSentBefore(now.minus(keyRetention), purgeChunkSize);
+            keys += deleted;
+        } while (deleted == purgeChunkSize);
+        if (keys > 0) {
+            log.info("Purged {} sent email keys older than {}", keys, keyRetention);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.backlog-refresh-interval:PT30S}")
+    public void refreshBacklog() {
+        pendingEmails.set(outboxEmailRepository.countByStatus(OutboxEmailStatus.PENDING));
+        deadEmails.set(outboxEmailRepository.countByStatus(OutboxEmailStatus.DEAD));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void deliver(List<OutboxEmail> batch) {
+        try {
+            // The lease counts from when the batch starts sending, not from when it was claimed. Emails whose
+            // lease already ran out and were claimed elsewhere are left to that worker.
+            String leaseToken = batch.get(0).getLeaseToken();
+            Set<Long> leased = new HashSet<>(emailOutboxService.renewLease(
+                    batch.stream().map(OutboxEmail::getId).toList(), leaseToken));
+            List<OutboxEmail> held = batch.stream().filter(email -> leased.contains(email.getId())).toList();
+            if (!held.isEmpty()) {
+                send(held, leaseToken);
+            }
+        } finally {
+            inFlight.addAndGet(-batch.size());
+        }
+    }
+
+    private void send(List<OutboxEmail> batch, String leaseToken) {
+        long startedAt = System.nanoTime();
+        Map<MimeMessage, OutboxEmail> messages = new LinkedHashMap<>();
+        for (EmailService.RenderedEmail rendered : emailService.renderAll(batch)) {
+            if (rendered.error() == null) {
+                messages.put(rendered.message(), rendered.email());
+            } else {
+                failed(rendered.email(), rendered.error());
+            }
+        }
+
+        Map<MimeMessage, Exception> failures;
+        try {
+            failures = smtpConnectionPool.send(new ArrayList<>(messages.keySet()));
+        } catch (InterruptedException e) {
+            // Shutting down; the lease brings these back
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        List<Long> sentIds = new ArrayList<>();
+        messages.forEach((message, email) -> {
+            Exception failure = failures.get(message);
+            if (failure == null) {
+                sentIds.add(email.getId());
+            } else {
+                failed(email, failure);
+            }
+        });
+        // A crash between sending and this update re-sends once the lease runs out (at-least-once)
+        if (!sentIds.isEmpty()) {
+            emailOutboxService.markSent(sentIds, leaseToken);
+            sentCounter.increment(sentIds.size());
+        }
+        batchTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+    }
+
+    private void failed(OutboxEmail email, Exception e) {
+        failedCounter.increment();
+        emailOutboxService.markFailed(email.getId(), email.getLeaseToken(), email.getAttempts(),
+                e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+    }
+}
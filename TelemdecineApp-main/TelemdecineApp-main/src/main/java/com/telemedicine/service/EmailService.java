@@ -1,11 +1,19 @@
 package com.telemedicine.service;
 
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.telemedicine.entity.OutboxEmail;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
@@ -13,39 +21,118 @@ import org.thymeleaf.context.Context;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Renders emails into MIME messages; EmailOutboxWorker sends them in batches through SmtpConnectionPool.
+// Callers queue emails through EmailOutboxService instead of using this directly. Templates are parsed
+// once and cached by the template engine (spring.thymeleaf.cache), so rendering only evaluates the
+// variables; a batch is rendered in parallel on a small dedicated pool.
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class EmailService {
 
+    private static final TypeReference<Map<String, Object>> VARIABLES_TYPE = new TypeReference<>() {
+    };
+
     private final JavaMailSender mailSender;
     private final TemplateEngine templateEngine;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor renderExecutor;
+    private final Timer renderTimer;
 
     @Value("${spring.mail.username:}")
     private String senderEmail;
 
-    @Async
-    public void sendAppointmentConfirmationEmail(String patientEmail, String patientName, String doctorName, String specialty, String appointmentDate) {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            helper.setTo(patientEmail);
-            helper.setSubject("Rendez-vous Médical Confirmé - TeleMed");
-            
-            Context context = new Context();
-            context.setVariable("patientName", patientName);
-            context.setVariable("doctorName", doctorName);
-            context.setVariable("specialty", specialty);
-            context.setVariable("appointmentDate", appointmentDate);
-            
-            String htmlContent = templateEngine.process("appointment-confirmation", context);
-            helper.setText(htmlContent, true);
-
-            mailSender.send(message);
-            log.info("Appointment confirmation email sent to: {}", patientEmail);
-        } catch (MessagingException e) {
-            log.error("Failed to send appointment confirmation email to: {}", patientEmail, e);
+    public EmailService(JavaMailSender mailSender,
+                        TemplateEngine templateEngine,
+                        ObjectMapper objectMapper,
+                        MeterRegistry meterRegistry,
+                        @Value("${email.render.threads:4}") int threads,
+                        @Value("${email.render.queue-capacity:200}") int queueCapacity) {
+        this.mailSender = mailSender;
+        this.templateEngine = templateEngine;
+        this.objectMapper = objectMapper;
+        // A full queue renders on the sender thread instead of failing the email
+        this.renderExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("email-render-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        this.renderTimer = Timer.builder("email.render.duration").register(meterRegistry);
+        Gauge.builder("email.render.queue.depth", renderExecutor, e -> e.getQueue().size()).register(meterRegistry);
+    }
+
+    // Parse every email template (and the shared layout fragments) at startup, so a missing or broken
+    // template fails here and the first bulk send does not parse them in every sender thread at once
+    @EventListener(ApplicationReadyEvent.class)
+    public void preloadTemplates() {
+        for (String template : AppointmentEmailService.templates()) {
+            templateEngine.process(template, new Context());
+        }
+        log.info("Preloaded {} email templates", AppointmentEmailService.templates().size());
+    }
+
+    public MimeMessage render(String recipient, String subject, String template, Map<String, Object> variables)
+            throws MessagingException {
+        long startedAt = System.nanoTime();
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+        if (!senderEmail.isBlank()) {
+            helper.setFrom(senderEmail);
+        }
+        helper.setTo(recipient);
+        helper.setSubject(subject);
+
+        Context context = new Context();
+        context.setVariables(variables);
+
+        String htmlContent = templateEngine.process(template, context);
+        helper.setText(htmlContent, true);
+        renderTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        return message;
+    }
+
+    // Renders queued emails in parallel; an email that fails to render is returned with its cause
+    // instead of failing the others
+    public List<RenderedEmail> renderAll(List<OutboxEmail> emails) {
+        List<CompletableFuture<MimeMessage>> futures = new ArrayList<>(emails.size());
+        for (OutboxEmail email : emails) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    Map<String, Object> variables = email.getVariables() != null
+                            ? objectMapper.readValue(email.getVariables(), VARIABLES_TYPE) : Map.of();
+                    return render(email.getRecipient(), email.getSubject(), email.getTemplate(), variables);
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, renderExecutor));
+        }
+
+        List<RenderedEmail> rendered = new ArrayList<>(emails.size());
+        for (int i = 0; i < emails.size(); i++) {
+            try {
+                rendered.add(new RenderedEmail(emails.get(i), futures.get(i).join(), null));
+            } catch (CompletionException e) {
+                Exception cause = e.getCause() instanceof Exception ex ? ex : e;
+                rendered.add(new RenderedEmail(emails.get(i), null, cause));
+            }
         }
+        return rendered;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderExecutor.shutdown();
+    }
+
+    public record RenderedEmail(OutboxEmail email, MimeMessage message, Exception error) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,50 @@
+package com.telemedicine.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Runs scheduled jobs on one instance at a time through Postgres session-level advisory locks. The lock
+// is held on its own connection for the length of the job, so it goes away with the connection if the
+// instance dies mid-run; instances that do not get it skip that run.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LeaderLock {
+
+    private final DataSource dataSource;
+
+    public boolean runIfLeader(String name, Runnable job) {
+        long key = name.hashCode();
+        try (Connection connection = dataSource.getConnection()) {
+            if (!call(connection, "SELECT pg_try_advisory_lock(?)", key)) {
+                log.debug("Skipping {}: another instance is running it", name);
+                return false;
+            }
+            try {
+                job.run();
+            } finally {
+                call(connection, "SELECT pg_advisory_unlock(?)", key);
+            }
+            return true;
+        } catch (SQLException e) {
+            log.warn("Skipping {}: could not take its advisory lock: {}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean call(Connection connection, String sql, long key) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, key);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getBoolean(1);
+            }
+        }
+    }
+}
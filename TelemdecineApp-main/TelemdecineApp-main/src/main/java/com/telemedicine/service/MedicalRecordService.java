@@ -3,6 +3,8 @@ package com.telemedicine.service;
 import com.telemedicine.dto.MedicalRecordRequest;
 import com.telemedicine.dto.MedicalRecordResponse;
 import com.telemedicine.entity.*;
+import com.telemedicine.exception.BadRequestException;
+import com.telemedicine.exception.ConflictException;
 import com.telemedicine.exception.ResourceNotFoundException;
 import com.telemedicine.exception.UnauthorizedException;
 import com.telemedicine.repository.MedicalRecordRepository;
@@ -13,6 +15,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -24,6 +30,8 @@ public class MedicalRecordService {
     private final MedicalRecordRepository medicalRecordRepository;
     private final PatientRepository patientRepository;
     private final UserRepository userRepository;
+    private final StatisticsCounters statisticsCounters;
+    private final AttachmentStore attachmentStore;
 
     @Transactional
     public MedicalRecordResponse createMedicalRecord(Long userId, MedicalRecordRequest request) {
@@ -36,15 +44,7 @@ public class MedicalRecordService {
         Patient patient = patientRepository.findById(request.getPatientId())
                 .orElseThrow(() -> new ResourceNotFoundException("Patient not found with ID: " + request.getPatientId()));
 
-        // Verify access - only doctors, admins, or the patient themselves can create records
-        boolean canCreate = false;
-        if (user.getRole() == UserRole.DOCTOR || user.getRole() == UserRole.ADMIN) {
-            canCreate = true;
-        } else if (user.getRole() == UserRole.PATIENT && patient.getUser().getId().equals(userId)) {
-            canCreate = true;
-        }
-
-        if (!canCreate) {
+        if (!canCreate(user, patient)) {
             throw new UnauthorizedException("You don't have permission to create medical records for this patient");
         }
 
@@ -60,6 +60,7 @@ public class MedicalRecordService {
         record.setUploadedBy(user.getFirstName() + " " + user.getLastName() + " (" + user.getRole() + ")");
 
         record = medicalRecordRepository.save(record);
+        statisticsCounters.medicalRecordCreated();
         log.info("Medical record created successfully with ID: {}", record.getId());
 
         return mapToResponse(record);
@@ -75,15 +76,7 @@ public class MedicalRecordService {
         Patient patient = patientRepository.findById(patientId)
                 .orElseThrow(() -> new ResourceNotFoundException("Patient not found with ID: " + patientId));
 
-        // Verify access
-        boolean hasAccess = false;
-        if (user.getRole() == UserRole.PATIENT && patient.getUser().getId().equals(userId)) {
-            hasAccess = true;
-        } else if (user.getRole() == UserRole.DOCTOR || user.getRole() == UserRole.ADMIN) {
-            hasAccess = true;
-        }
-
-        if (!hasAccess) {
+        if (!canView(user, patient)) {
             throw new UnauthorizedException("You don't have permission to view these medical records");
         }
 
@@ -103,15 +96,7 @@ public class MedicalRecordService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
 
-        // Verify access
-        boolean hasAccess = false;
-        if (user.getRole() == UserRole.PATIENT && record.getPatient().getUser().getId().equals(userId)) {
-            hasAccess = true;
-        } else if (user.getRole() == UserRole.DOCTOR || user.getRole() == UserRole.ADMIN) {
-            hasAccess = true;
-        }
-
-        if (!hasAccess) {
+        if (!canView(user, record.getPatient())) {
             throw new UnauthorizedException("You don't have permission to view this medical record");
         }
 
@@ -163,9 +148,95 @@ public class MedicalRecordService {
         }
 
         medicalRecordRepository.delete(record);
+        attachmentStore.release(record.getFileHash());
+        statisticsCounters.medicalRecordDeleted();
         log.info("Medical record deleted successfully: {}", recordId);
     }
 
+    // Streams the body into the attachment store outside of any transaction, so a slow upload holds no
+    // database connection, then points the record at the stored file
+    public MedicalRecordResponse uploadFile(Long userId, Long recordId, String fileName, String contentType,
+                                            long contentLength, InputStream body) throws IOException {
+        log.info("Uploading file for medical record ID: {} by user ID: {}", recordId, userId);
+
+        MedicalRecord record = medicalRecordRepository.findWithPatientById(recordId)
+                .orElseThrow(() -> new ResourceNotFoundException("Medical record not found with ID: " + recordId));
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+
+        // Same rule as creating a record for the patient
+        if (!canCreate(user, record.getPatient())) {
+            throw new UnauthorizedException("You don't have permission to add files to this medical record");
+        }
+
+        // Some clients send the whole local path; keep only the last segment
+        String name = fileName == null ? ""
+                : fileName.substring(Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\')) + 1).trim();
+        if (name.isEmpty() || name.length() > 255) {
+            throw new BadRequestException("A file name of at most 255 characters is required");
+        }
+
+        AttachmentStore.StoredFile stored = attachmentStore.store(body, contentLength);
+        boolean attached = false;
+        try {
+            String previousHash = record.getFileHash() != null ? record.getFileHash() : "";
+            attached = medicalRecordRepository.attachFile(recordId, previousHash, stored.hash(), stored.size(),
+                    name, contentType, LocalDateTime.now()) == 1;
+        } finally {
+            attachmentStore.unpin(stored.hash());
+            if (!attached) {
+                attachmentStore.release(stored.hash());
+            }
+        }
+        if (!attached) {
+            throw new ConflictException("The medical record was changed by another request, please try again");
+        }
+        if (!stored.hash().equals(record.getFileHash())) {
+            attachmentStore.release(record.getFileHash());
+        }
+        log.info("Stored {} bytes as {} for medical record ID: {}", stored.size(), stored.hash(), recordId);
+
+        return mapToResponse(medicalRecordRepository.findWithPatientById(recordId)
+                .orElseThrow(() -> new ResourceNotFoundException("Medical record not found with ID: " + recordId)));
+    }
+
+    @Transactional(readOnly = true)
+    public FileDownload getFile(Long userId, Long recordId) {
+        log.info("Fetching file of medical record ID: {} by user ID: {}", recordId, userId);
+
+        MedicalRecord record = medicalRecordRepository.findById(recordId)
+                .orElseThrow(() -> new ResourceNotFoundException("Medical record not found with ID: " + recordId));
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+
+        if (!canView(user, record.getPatient())) {
+            throw new UnauthorizedException("You don't have permission to view this medical record");
+        }
+        if (record.getFileHash() == null) {
+            throw new ResourceNotFoundException("No file is stored for medical record ID: " + recordId);
+        }
+
+        return new FileDownload(attachmentStore.path(record.getFileHash()), record.getFileHash(),
+                record.getFileSize(), record.getFileName(), record.getContentType());
+    }
+
+    // Doctors, admins, or the patient themselves
+    private boolean canCreate(User user, Patient patient) {
+        if (user.getRole() == UserRole.DOCTOR || user.getRole() == UserRole.ADMIN) {
+            return true;
+        }
+        return user.getRole() == UserRole.PATIENT && patient.getUser().getId().equals(user.getId());
+    }
+
+    private boolean canView(User user, Patient patient) {
+        if (user.getRole() == UserRole.PATIENT && patient.getUser().getId().equals(user.getId())) {
+            return true;
+        }
+        return user.getRole() == UserRole.DOCTOR || user.getRole() == UserRole.ADMIN;
+    }
+
     private MedicalRecordResponse mapToResponse(MedicalRecord record) {
         MedicalRecordResponse response = new MedicalRecordResponse();
         response.setId(record.getId());
@@ -178,9 +249,15 @@ public class MedicalRecordService {
         response.setRecordType(record.getRecordType());
         response.setFileUrl(record.getFileUrl());
         response.setFileName(record.getFileName());
+        response.setFileSha256(record.getFileHash());
+        response.setFileSize(record.getFileSize());
+        response.setContentType(record.getContentType());
         response.setUploadedBy(record.getUploadedBy());
         response.setCreatedAt(record.getCreatedAt());
         response.setUpdatedAt(record.getUpdatedAt());
         return response;
     }
+
+    public record FileDownload(Path path, String sha256, long size, String fileName, String contentType) {
+    }
 }
@@ -0,0 +1,315 @@
+package com.telemedicine.service;
+
+import com.telemedicine.dto.MedicationSuggestion;
+import com.telemedicine.repository.PrescriptionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Prefix autocomplete over medication names from the formulary file (prescriptions.formulary) and the
+// names already used on prescriptions, ranked by how often each was prescribed. Names live in a radix
+// trie whose nodes keep the best entries of their subtree, so a lookup only walks the prefix. A new
+// prescription bumps its name in place once committed; a periodic rebuild picks up other instances.
+@Component
+@Slf4j
+public class MedicationSuggestIndex {
+
+    static final int MAX_SUGGESTIONS = 10;
+
+    private final PrescriptionRepository prescriptionRepository;
+    private final Resource formulary;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile Trie trie;
+
+    public MedicationSuggestIndex(PrescriptionRepository prescriptionRepository,
+                                  ResourceLoader resourceLoader,
+                                  @Value("${prescriptions.formulary:classpath:formulary.txt}") String formulary) {
+        this.prescriptionRepository = prescriptionRepository;
+        this.formulary = resourceLoader.getResource(formulary);
+    }
+
+    // Built once at startup, so no request pays for the GROUP BY over prescriptions
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        buildIfAbsent();
+    }
+
+    public List<MedicationSuggestion> suggest(String prefix, int limit) {
+        if (trie == null) {
+            buildIfAbsent();
+        }
+        lock.readLock().lock();
+        try {
+            return trie.suggest(normalize(prefix), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void medicationPrescribed(String name) {
+        TransactionHooks.afterCommit(() -> {
+            // Same monitor as rebuild(), so a bump arriving mid-rebuild lands on the new trie instead of
+            // the one being replaced. It may then be counted twice until the next rebuild, but is never lost.
+            synchronized (this) {
+                // Not built yet: the build still to come counts this prescription
+                if (trie == null) {
+                    return;
+                }
+                lock.writeLock().lock();
+                try {
+                    trie.add(name, 1);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${prescriptions.suggest.rebuild-interval:PT30M}",
+               initialDelayString = "${prescriptions.suggest.rebuild-interval:PT30M}")
+    public synchronized void rebuild() {
+        Trie rebuilt = new Trie();
+        // Most used spelling first, so it is the one shown for names that differ only in case; formulary
+        // names only fill in what has never been prescribed
+        for (PrescriptionRepository.MedicationCount row : prescriptionRepository.countByMedicationName()) {
+            rebuilt.add(row.getName(), row.getTotal());
+        }
+        for (String name : readFormulary()) {
+            rebuilt.add(name, 0);
+        }
+
+        lock.writeLock().lock();
+        try {
+            trie = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Rebuilt medication suggestions with {} names", rebuilt.size);
+    }
+
+    // Lookups arriving before the startup build has finished wait for it instead of each running their own
+    private synchronized void buildIfAbsent() {
+        if (trie == null) {
+            rebuild();
+        }
+    }
+
+    private List<String> readFormulary() {
+        List<String> names = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(formulary.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank() && !line.startsWith("#")) {
+                    names.add(line.trim());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Cannot read formulary {}: {}", formulary.getDescription(), e.getMessage());
+        }
+        return names;
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    // Mutable; guarded by the enclosing read/write lock once published
+    private static final class Trie {
+
+        private final Node root = new Node(new char[0]);
+        private final Map<String, Integer> ids = new HashMap<>();
+        private String[] names = new String[256];
+        private long[] counts = new long[256];
+        private int size;
+
+        void add(String name, long count) {
+            String key = normalize(name);
+            if (key.isEmpty()) {
+                return;
+            }
+            Integer id = ids.get(key);
+            if (id == null) {
+                id = size++;
+                if (id == names.length) {
+                    names = Arrays.copyOf(names, id * 2);
+                    counts = Arrays.copyOf(counts, id * 2);
+                }
+                names[id] = name.trim();
+                ids.put(key, id);
+                insert(key);
+            }
+            counts[id] += count;
+
+            // Counts only grow, so the entry can only move up in the lists along its path
+            Node node = root;
+            offer(node, id);
+            for (int i = 0; i < key.length(); i += node.label.length) {
+                node = node.children[node.childIndex(key.charAt(i))];
+                offer(node, id);
+            }
+        }
+
+        List<MedicationSuggestion> suggest(String prefix, int limit) {
+            Node node = root;
+            int i = 0;
+            while (i < prefix.length()) {
+                int index = node.childIndex(prefix.charAt(i));
+                if (index < 0) {
+                    return List.of();
+                }
+                Node child = node.children[index];
+                int common = commonPrefix(child.label, prefix, i);
+                if (i + common == prefix.length()) {
+                    // The prefix ends on or inside this edge: everything below matches
+                    node = child;
+                    break;
+                }
+                if (common < child.label.length) {
+                    return List.of();
+                }
+                node = child;
+                i += common;
+            }
+
+            List<MedicationSuggestion> suggestions = new ArrayList<>();
+            for (int k = 0; k < node.top.length && k < limit; k++) {
+                int id = node.top[k];
+                suggestions.add(new MedicationSuggestion(names[id], counts[id]));
+            }
+            return suggestions;
+        }
+
+        private void insert(String key) {
+            Node node = root;
+            int i = 0;
+            while (i < key.length()) {
+                int index = node.childIndex(key.charAt(i));
+                if (index < 0) {
+                    node.addChild(new Node(key.substring(i).toCharArray()));
+                    return;
+                }
+                Node child = node.children[index];
+                int common = commonPrefix(child.label, key, i);
+                if (common < child.label.length) {
+                    // Split the edge; the new middle node covers the same subtree as the old child
+                    Node middle = new Node(Arrays.copyOf(child.label, common));
+                    middle.top = child.top.clone();
+                    middle.children = new Node[]{child};
+                    child.label = Arrays.copyOfRange(child.label, common, child.label.length);
+                    node.children[index] = middle;
+                    child = middle;
+                }
+                node = child;
+                i += common;
+            }
+        }
+
+        private void offer(Node node, int id) {
+            int[] top = node.top;
+            int position = -1;
+            for (int k = 0; k < top.length; k++) {
+                if (top[k] == id) {
+                    position = k;
+                    break;
+                }
+            }
+            if (position < 0) {
+                if (top.length < MAX_SUGGESTIONS) {
+                    top = Arrays.copyOf(top, top.length + 1);
+                    node.top = top;
+                } else if (!better(id, top[top.length - 1])) {
+                    return;
+                }
+                position = top.length - 1;
+                top[position] = id;
+            }
+            while (position > 0 && better(top[position], top[position - 1])) {
+                int swap = top[position - 1];
+                top[position - 1] = top[position];
+                top[position] = swap;
+                position--;
+            }
+        }
+
+        private boolean better(int a, int b) {
+            if (counts[a] != counts[b]) {
+                return counts[a] > counts[b];
+            }
+            return names[a].compareToIgnoreCase(names[b]) < 0;
+        }
+
+        private static int commonPrefix(char[] label, String key, int from) {
+            int length = Math.min(label.length, key.length() - from);
+            int i = 0;
+            while (i < length && label[i] == key.charAt(from + i)) {
+                i++;
+            }
+            return i;
+        }
+    }
+
+    private static final class Node {
+
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final int[] NO_ENTRIES = new int[0];
+
+        private char[] label;
+        // Sorted by the first character of their label
+        private Node[] children = NO_CHILDREN;
+        // Best entries in this subtree, best first
+        private int[] top = NO_ENTRIES;
+
+        private Node(char[] label) {
+            this.label = label;
+        }
+
+        int childIndex(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char c = children[mid].label[0];
+                if (c < first) {
+                    low = mid + 1;
+                } else if (c > first) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+
+        void addChild(Node child) {
+            int index = 0;
+            while (index < children.length && children[index].label[0] < child.label[0]) {
+                index++;
+            }
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, index);
+            grown[index] = child;
+            System.arraycopy(children, index, grown, index + 1, children.length - index);
+            children = grown;
+        }
+    }
+}
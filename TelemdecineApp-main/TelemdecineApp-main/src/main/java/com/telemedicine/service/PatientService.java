@@ -6,6 +6,7 @@ import com.telemedicine.dto.PatientProfileRequest;
 import com.telemedicine.dto.PatientResponse;
 import com.telemedicine.dto.PrescriptionResponse;
 import com.telemedicine.entity.*;
+import com.telemedicine.exception.BadRequestException;
 import com.telemedicine.exception.ResourceNotFoundException;
 import com.telemedicine.exception.UnauthorizedException;
 import com.telemedicine.repository.AppointmentRepository;
@@ -56,6 +57,10 @@ public class PatientService {
         Patient patient = patientRepository.findByUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Patient profile not found"));
         
+        if ((request.getLatitude() == null) != (request.getLongitude() == null)) {
+            throw new BadRequestException("Latitude and longitude must be set together");
+        }
+        
         // Update profile
         patient.setDateOfBirth(request.getDateOfBirth());
         patient.setGender(request.getGender());
@@ -68,6 +73,8 @@ public class PatientService {
         patient.setCity(request.getCity());
         patient.setCountry(request.getCountry());
         patient.setPostalCode(request.getPostalCode());
+        patient.setLatitude(request.getLatitude());
+        patient.setLongitude(request.getLongitude());
         
         patient = patientRepository.save(patient);
         log.info("Patient profile updated successfully for user ID: {}", userId);
@@ -164,6 +171,8 @@ public class PatientService {
         response.setCity(patient.getCity());
         response.setCountry(patient.getCountry());
         response.setPostalCode(patient.getPostalCode());
+        response.setLatitude(patient.getLatitude());
+        response.setLongitude(patient.getLongitude());
         response.setCreatedAt(patient.getCreatedAt());
         response.setUpdatedAt(patient.getUpdatedAt());
         return response;
@@ -0,0 +1,73 @@
+package com.telemedicine.service;
+
+import com.telemedicine.repository.PrescriptionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Deactivates prescriptions once their end date has passed, so is_active alone answers "currently
+// taking" for patient views and statistics. Same shape as AppointmentSweeper: chunked set-based
+// UPDATEs that skip rows locked by another node.
+@Component
+@Slf4j
+public class PrescriptionExpiryJob {
+
+    private final PrescriptionRepository prescriptionRepository;
+    private final StatisticsCounters statisticsCounters;
+    private final int chunkSize;
+
+    private final Timer runTimer;
+    private final Counter expiredCounter;
+    // Days the oldest still-active ended prescription had been over when the last run started
+    private final AtomicLong lagDays = new AtomicLong();
+
+    public PrescriptionExpiryJob(PrescriptionRepository prescriptionRepository,
+                                 StatisticsCounters statisticsCounters,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${prescriptions.expiry.chunk-size:1000}") int chunkSize) {
+        this.prescriptionRepository = prescriptionRepository;
+        this.statisticsCounters = statisticsCounters;
+        this.chunkSize = chunkSize;
+
+        this.runTimer = Timer.builder("prescriptions.expiry.run.duration").register(meterRegistry);
+        this.expiredCounter = Counter.builder("prescriptions.expiry.expired").register(meterRegistry);
+        Gauge.builder("prescriptions.expiry.lag", lagDays, AtomicLong::get).baseUnit("days").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${prescriptions.expiry.interval:PT1H}")
+    public void expire() {
+        long startedAt = System.nanoTime();
+        LocalDate today = LocalDate.now();
+
+        LocalDate oldest = prescriptionRepository.findOldestEnded(today);
+        lagDays.set(oldest != null ? ChronoUnit.DAYS.between(oldest, today) : 0);
+        if (oldest == null) {
+            return;
+        }
+
+        int total = 0;
+        int expired;
+        do {
+            expired = prescriptionRepository.expireEnded(today, LocalDateTime.now(), chunkSize);
+            statisticsCounters.prescriptionsExpired(expired);
+            expiredCounter.increment(expired);
+            total += expired;
+        } while (expired == chunkSize);
+
+        runTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        if (total > 0) {
+            log.info("Deactivated {} ended prescriptions", total);
+        }
+    }
+}
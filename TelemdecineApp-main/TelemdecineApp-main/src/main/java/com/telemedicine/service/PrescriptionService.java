@@ -1,8 +1,11 @@
 package com.telemedicine.service;
 
+import com.telemedicine.dto.InteractionWarning;
+import com.telemedicine.dto.MedicationSuggestion;
 import com.telemedicine.dto.PrescriptionRequest;
 import com.telemedicine.dto.PrescriptionResponse;
 import com.telemedicine.entity.*;
+import com.telemedicine.exception.BadRequestException;
 import com.telemedicine.exception.ResourceNotFoundException;
 import com.telemedicine.exception.UnauthorizedException;
 import com.telemedicine.repository.DoctorRepository;
@@ -27,6 +30,9 @@ public class PrescriptionService {
     private final PatientRepository patientRepository;
     private final DoctorRepository doctorRepository;
     private final UserRepository userRepository;
+    private final StatisticsCounters statisticsCounters;
+    private final DrugInteractionChecker drugInteractionChecker;
+    private final MedicationSuggestIndex medicationSuggestIndex;
 
     @Transactional
     public PrescriptionResponse createPrescription(Long userId, PrescriptionRequest request) {
@@ -62,10 +68,33 @@ public class PrescriptionService {
         prescription.setIsActive(true);
         prescription.setNotes(request.getNotes());
 
+        // Check against what the patient already takes before this one counts as active
+        List<InteractionWarning> warnings = drugInteractionChecker.check(request.getMedicationName(),
+                prescriptionRepository.findActiveMedicationNames(patient.getId()), patient.getAllergies());
+
         prescription = prescriptionRepository.save(prescription);
+        statisticsCounters.prescriptionCreated();
+        medicationSuggestIndex.medicationPrescribed(prescription.getMedicationName());
         log.info("Prescription created successfully with ID: {}", prescription.getId());
+        if (!warnings.isEmpty()) {
+            log.warn("Prescription {} has {} interaction warnings", prescription.getId(), warnings.size());
+        }
 
-        return mapToResponse(prescription);
+        PrescriptionResponse response = mapToResponse(prescription);
+        response.setWarnings(warnings);
+        return response;
+    }
+
+    public List<MedicationSuggestion> suggestMedications(String prefix, Integer limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new BadRequestException("prefix is required");
+        }
+        if (prefix.length() > 100) {
+            throw new BadRequestException("prefix is too long");
+        }
+        int size = limit != null ? Math.max(1, Math.min(limit, MedicationSuggestIndex.MAX_SUGGESTIONS))
+                                 : MedicationSuggestIndex.MAX_SUGGESTIONS;
+        return medicationSuggestIndex.suggest(prefix, size);
     }
 
     @Transactional(readOnly = true)
@@ -172,6 +201,9 @@ public class PrescriptionService {
             throw new UnauthorizedException("Only the prescribing doctor can deactivate this prescription");
         }
 
+        if (Boolean.TRUE.equals(prescription.getIsActive())) {
+            statisticsCounters.prescriptionDeactivated();
+        }
         prescription.setIsActive(false);
         prescription = prescriptionRepository.save(prescription);
         log.info("Prescription deactivated successfully: {}", prescriptionId);
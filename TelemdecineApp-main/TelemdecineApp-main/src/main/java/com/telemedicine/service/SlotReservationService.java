@@ -0,0 +1,72 @@
+package com.telemedicine.service;
+
+import com.telemedicine.entity.AppointmentStatus;
+import com.telemedicine.entity.Doctor;
+import com.telemedicine.exception.BadRequestException;
+import com.telemedicine.exception.ConflictException;
+import com.telemedicine.exception.ResourceNotFoundException;
+import com.telemedicine.repository.AppointmentRepository;
+import com.telemedicine.repository.DoctorRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SlotReservationService {
+
+    public static final int DEFAULT_DURATION_MINUTES = 30;
+    public static final int MIN_DURATION_MINUTES = 5;
+    public static final int MAX_DURATION_MINUTES = 240;
+
+    private final DoctorRepository doctorRepository;
+    private final AppointmentRepository appointmentRepository;
+
+    // Locks the doctor row for the rest of the transaction and verifies that
+    // [start, start + duration) does not overlap any other active appointment of that doctor.
+    // Concurrent bookings for the same doctor queue on the row lock, so check-then-insert is atomic.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Doctor reserve(Long doctorId, LocalDateTime start, int durationMinutes, Long excludedAppointmentId) {
+        if (durationMinutes < MIN_DURATION_MINUTES || durationMinutes > MAX_DURATION_MINUTES) {
+            throw new BadRequestException("Appointment duration must be between " + MIN_DURATION_MINUTES +
+                    " and " + MAX_DURATION_MINUTES + " minutes");
+        }
+
+        Doctor doctor = doctorRepository.findByIdForUpdate(doctorId)
+                .orElseThrow(() -> new ResourceNotFoundException("Doctor not found with ID: " + doctorId));
+
+        LocalDateTime end = start.plusMinutes(durationMinutes);
+        for (AppointmentRepository.BookedSlot slot : findBookedSlots(doctorId, start, end)) {
+            if (slot.getId().equals(excludedAppointmentId)) {
+                continue;
+            }
+            LocalDateTime slotEnd = slot.getAppointmentDate().plusMinutes(durationOf(slot));
+            if (slot.getAppointmentDate().isBefore(end) && slotEnd.isAfter(start)) {
+                log.info("Rejected booking for doctor {} at {}: overlaps appointment {}", doctorId, start, slot.getId());
+                throw new ConflictException("Doctor already has an appointment between " +
+                        slot.getAppointmentDate() + " and " + slotEnd);
+            }
+        }
+
+        return doctor;
+    }
+
+    // Appointments are at most MAX_DURATION_MINUTES long (appointments_duration_range, added at startup by
+    // AppointmentConstraintsInitializer, which reports older rows outside it), so anything overlapping [from, to)
+    // starts within [from - MAX_DURATION_MINUTES, to): a single range scan on (doctor_id, appointment_date)
+    @Transactional(readOnly = true)
+    public List<AppointmentRepository.BookedSlot> findBookedSlots(Long doctorId, LocalDateTime from, LocalDateTime to) {
+        return appointmentRepository.findBookedSlots(
+                doctorId, from.minusMinutes(MAX_DURATION_MINUTES), to, AppointmentStatus.CANCELLED);
+    }
+
+    public static int durationOf(AppointmentRepository.BookedSlot slot) {
+        return slot.getDurationMinutes() != null ? slot.getDurationMinutes() : DEFAULT_DURATION_MINUTES;
+    }
+}
@@ -0,0 +1,193 @@
+package com.telemedicine.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Long-lived SMTP connections shared by the email senders, so a batch of emails costs one session
+// (and one STARTTLS handshake) instead of one per message. Connections are retired after a number of
+// messages and dropped when they sat idle long enough for the server to have closed them.
+@Component
+@Slf4j
+public class SmtpConnectionPool {
+
+    private final JavaMailSenderImpl mailSender;
+    private final Semaphore permits;
+    private final BlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final AtomicInteger open = new AtomicInteger();
+    private final int maxMessagesPerConnection;
+    private final long maxIdleMillis;
+
+    private final Counter openedCounter;
+
+    public SmtpConnectionPool(JavaMailSenderImpl mailSender,
+                              MeterRegistry meterRegistry,
+                              @Value("${email.smtp.max-connections:4}") int maxConnections,
+                              @Value("${email.smtp.max-messages-per-connection:100}") int maxMessagesPerConnection,
+                              @Value("${email.smtp.max-idle:PT30S}") Duration maxIdle) {
+        this.mailSender = mailSender;
+        this.permits = new Semaphore(maxConnections, true);
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.maxIdleMillis = maxIdle.toMillis();
+
+        this.openedCounter = Counter.builder("email.smtp.connections.opened").register(meterRegistry);
+        Gauge.builder("email.smtp.connections.open", open, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("email.smtp.connections.idle", idle, BlockingDeque::size).register(meterRegistry);
+    }
+
+    // Sends the messages over one pooled connection and returns the ones that failed with their cause.
+    // A message the server rejects does not stop the rest; a dropped connection is reopened once.
+    public Map<MimeMessage, Exception> send(List<MimeMessage> messages) throws InterruptedException {
+        Map<MimeMessage, Exception> failures = new LinkedHashMap<>();
+        permits.acquire();
+        PooledConnection connection = null;
+        try {
+            for (int i = 0; i < messages.size(); i++) {
+                MimeMessage message = messages.get(i);
+                if (connection != null && connection.sent >= maxMessagesPerConnection) {
+                    close(connection);
+                    connection = null;
+                }
+                if (connection == null) {
+                    try {
+                        connection = borrow();
+                    } catch (MessagingException | RuntimeException e) {
+                        // Server unreachable: fail the rest of the batch instead of timing out on each message
+                        for (MimeMessage remaining : messages.subList(i, messages.size())) {
+                            failures.put(remaining, e);
+                        }
+                        break;
+                    }
+                }
+                try {
+                    connection = sendOne(connection, message);
+                } catch (MessagingException | RuntimeException e) {
+                    failures.put(message, e);
+                    if (!connection.isUsable()) {
+                        close(connection);
+                        connection = null;
+                    }
+                }
+            }
+        } finally {
+            release(connection);
+            permits.release();
+        }
+        return failures;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        PooledConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            close(connection);
+        }
+    }
+
+    private PooledConnection sendOne(PooledConnection connection, MimeMessage message) throws MessagingException {
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        message.saveChanges();
+        try {
+            connection.transport.sendMessage(message, message.getAllRecipients());
+        } catch (IllegalStateException e) {
+            // The server closed the connection since it was last used; retry once on a fresh one
+            close(connection);
+            connection = connect();
+            connection.transport.sendMessage(message, message.getAllRecipients());
+        }
+        connection.sent++;
+        return connection;
+    }
+
+    // Most recently used connection first, so surplus connections go idle and get dropped
+    private PooledConnection borrow() throws MessagingException {
+        PooledConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            if (System.currentTimeMillis() - connection.releasedAt <= maxIdleMillis && connection.isUsable()) {
+                return connection;
+            }
+            close(connection);
+        }
+        return connect();
+    }
+
+    private void release(PooledConnection connection) {
+        if (connection == null) {
+            return;
+        }
+        if (connection.closed || connection.sent >= maxMessagesPerConnection) {
+            close(connection);
+            return;
+        }
+        connection.releasedAt = System.currentTimeMillis();
+        idle.offerFirst(connection);
+    }
+
+    private PooledConnection connect() throws MessagingException {
+        Session session = mailSender.getSession();
+        String protocol = mailSender.getProtocol();
+        if (protocol == null) {
+            protocol = session.getProperty("mail.transport.protocol");
+        }
+        Transport transport = session.getTransport(protocol != null ? protocol : JavaMailSenderImpl.DEFAULT_PROTOCOL);
+        String username = mailSender.getUsername();
+        String password = mailSender.getPassword();
+        transport.connect(mailSender.getHost(), mailSender.getPort(),
+                username != null && !username.isEmpty() ? username : null,
+                password != null && !password.isEmpty() ? password : null);
+        open.incrementAndGet();
+        openedCounter.increment();
+        return new PooledConnection(transport);
+    }
+
+    private void close(PooledConnection connection) {
+        if (connection == null || connection.closed) {
+            return;
+        }
+        connection.closed = true;
+        open.decrementAndGet();
+        try {
+            connection.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Failed to close SMTP connection cleanly: {}", e.getMessage());
+        }
+    }
+
+    private static final class PooledConnection {
+
+        private final Transport transport;
+        private int sent;
+        private long releasedAt;
+        private boolean closed;
+
+        private PooledConnection(Transport transport) {
+            this.transport = transport;
+        }
+
+        // isConnected() round-trips a NOOP to the server
+        private boolean isUsable() {
+            return !closed && transport.isConnected();
+        }
+    }
+}
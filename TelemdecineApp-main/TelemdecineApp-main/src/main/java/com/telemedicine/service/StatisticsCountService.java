@@ -0,0 +1,64 @@
+package com.telemedicine.service;
+
+import com.telemedicine.entity.AppointmentStatus;
+import com.telemedicine.entity.UserRole;
+import com.telemedicine.repository.AppointmentRepository;
+import com.telemedicine.repository.ConsultationRepository;
+import com.telemedicine.repository.MedicalRecordRepository;
+import com.telemedicine.repository.PrescriptionRepository;
+import com.telemedicine.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+// Reads every statistic from the database in one read-only transaction, so StatisticsCounters never mixes
+// counts taken before and after a concurrent commit
+@Service
+@RequiredArgsConstructor
+public class StatisticsCountService {
+
+    private final UserRepository userRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final PrescriptionRepository prescriptionRepository;
+    private final MedicalRecordRepository medicalRecordRepository;
+    private final ConsultationRepository consultationRepository;
+
+    @Transactional(readOnly = true)
+    public Counts countAll() {
+        Map<UserRole, Long> usersByRole = new EnumMap<>(UserRole.class);
+        long activeUsers = 0;
+        for (UserRepository.RoleStatusCount row : userRepository.countByRoleAndActive()) {
+            usersByRole.merge(row.getRole(), row.getTotal(), Long::sum);
+            if (Boolean.TRUE.equals(row.getActive())) {
+                activeUsers += row.getTotal();
+            }
+        }
+
+        Map<AppointmentStatus, Long> appointmentsByStatus = new EnumMap<>(AppointmentStatus.class);
+        for (AppointmentRepository.StatusCount row : appointmentRepository.countByStatus()) {
+            appointmentsByStatus.put(row.getStatus(), row.getTotal());
+        }
+
+        return new Counts(
+                usersByRole,
+                activeUsers,
+                appointmentsByStatus,
+                prescriptionRepository.count(),
+                prescriptionRepository.countByIsActiveTrue(),
+                medicalRecordRepository.count(),
+                consultationRepository.count()
+        );
+    }
+
+    public record Counts(Map<UserRole, Long> usersByRole,
+                         long activeUsers,
+                         Map<AppointmentStatus, Long> appointmentsByStatus,
+                         long totalPrescriptions,
+                         long activePrescriptions,
+                         long totalMedicalRecords,
+                         long totalConsultations) {
+    }
+}
@@ -0,0 +1,182 @@
+package com.telemedicine.service;
+
+import com.telemedicine.dto.StatisticsResponse;
+import com.telemedicine.entity.AppointmentStatus;
+import com.telemedicine.entity.UserRole;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StatisticsCounters {
+
+    private final StatisticsCountService statisticsCountService;
+
+    private final Map<UserRole, AtomicLong> usersByRole = counters(UserRole.class);
+    private final AtomicLong activeUsers = new AtomicLong();
+    private final Map<AppointmentStatus, AtomicLong> appointmentsByStatus = counters(AppointmentStatus.class);
+    private final AtomicLong totalPrescriptions = new AtomicLong();
+    private final AtomicLong activePrescriptions = new AtomicLong();
+    private final AtomicLong totalMedicalRecords = new AtomicLong();
+    private final AtomicLong totalConsultations = new AtomicLong();
+
+    private volatile boolean initialized;
+
+    public StatisticsResponse snapshot() {
+        if (!initialized) {
+            reconcile();
+        }
+
+        long totalUsers = usersByRole.values().stream().mapToLong(AtomicLong::get).sum();
+        long totalAppointments = appointmentsByStatus.values().stream().mapToLong(AtomicLong::get).sum();
+
+        return new StatisticsResponse(
+                totalUsers,
+                usersByRole.get(UserRole.PATIENT).get(),
+                usersByRole.get(UserRole.DOCTOR).get(),
+                usersByRole.get(UserRole.ADMIN).get(),
+                activeUsers.get(),
+                totalAppointments,
+                appointmentsByStatus.get(AppointmentStatus.SCHEDULED).get(),
+                appointmentsByStatus.get(AppointmentStatus.COMPLETED).get(),
+                appointmentsByStatus.get(AppointmentStatus.CANCELLED).get(),
+                totalPrescriptions.get(),
+                activePrescriptions.get(),
+                totalMedicalRecords.get(),
+                totalConsultations.get()
+        );
+    }
+
+    // Recomputes every counter from the database to correct any drift. The counts are read through
+    // StatisticsCountService so they come from a single read-only transaction, also when snapshot() calls this.
+    @Scheduled(fixedDelayString = "${statistics.reconcile-interval:PT5M}",
+               initialDelayString = "${statistics.reconcile-interval:PT5M}")
+    public synchronized void reconcile() {
+        StatisticsCountService.Counts counts = statisticsCountService.countAll();
+
+        usersByRole.forEach((role, counter) -> counter.set(counts.usersByRole().getOrDefault(role, 0L)));
+        activeUsers.set(counts.activeUsers());
+        appointmentsByStatus.forEach((status, counter) ->
+                counter.set(counts.appointmentsByStatus().getOrDefault(status, 0L)));
+        totalPrescriptions.set(counts.totalPrescriptions());
+        activePrescriptions.set(counts.activePrescriptions());
+        totalMedicalRecords.set(counts.totalMedicalRecords());
+        totalConsultations.set(counts.totalConsultations());
+
+        initialized = true;
+        log.debug("Statistics counters reconciled with the database");
+    }
+
+    public void userCreated(UserRole role, boolean active) {
+        TransactionHooks.afterCommit(() -> {
+            usersByRole.get(role).incrementAndGet();
+            if (active) {
+                activeUsers.incrementAndGet();
+            }
+        });
+    }
+
+    public void userRoleChanged(UserRole oldRole, UserRole newRole) {
+        if (oldRole == newRole) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            usersByRole.get(oldRole).decrementAndGet();
+            usersByRole.get(newRole).incrementAndGet();
+            // Dropping a patient or doctor profile cascades to its appointments and prescriptions
+            if (oldRole != UserRole.ADMIN) {
+                initialized = false;
+            }
+        });
+    }
+
+    public void userStatusChanged(boolean wasActive, boolean active) {
+        if (wasActive == active) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            if (active) {
+                activeUsers.incrementAndGet();
+            } else {
+                activeUsers.decrementAndGet();
+            }
+        });
+    }
+
+    public void userDeleted() {
+        // Deleting a user cascades to its profile, appointments, prescriptions and records,
+        // so recount everything on the next read instead of tracking each cascaded row
+        TransactionHooks.afterCommit(() -> initialized = false);
+    }
+
+    public void appointmentCreated(AppointmentStatus status) {
+        TransactionHooks.afterCommit(() -> appointmentsByStatus.get(status).incrementAndGet());
+    }
+
+    public void appointmentStatusChanged(AppointmentStatus oldStatus, AppointmentStatus newStatus) {
+        if (oldStatus == newStatus) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            appointmentsByStatus.get(oldStatus).decrementAndGet();
+            appointmentsByStatus.get(newStatus).incrementAndGet();
+        });
+    }
+
+    public void appointmentsStatusChanged(AppointmentStatus oldStatus, AppointmentStatus newStatus, int count) {
+        if (oldStatus == newStatus || count == 0) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            appointmentsByStatus.get(oldStatus).addAndGet(-count);
+            appointmentsByStatus.get(newStatus).addAndGet(count);
+        });
+    }
+
+    public void prescriptionCreated() {
+        TransactionHooks.afterCommit(() -> {
+            totalPrescriptions.incrementAndGet();
+            activePrescriptions.incrementAndGet();
+        });
+    }
+
+    public void prescriptionDeactivated() {
+        TransactionHooks.afterCommit(activePrescriptions::decrementAndGet);
+    }
+
+    public void prescriptionsExpired(int count) {
+        if (count == 0) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> activePrescriptions.addAndGet(-count));
+    }
+
+    public void medicalRecordCreated() {
+        TransactionHooks.afterCommit(totalMedicalRecords::incrementAndGet);
+    }
+
+    public void medicalRecordDeleted() {
+        TransactionHooks.afterCommit(totalMedicalRecords::decrementAndGet);
+    }
+
+    public void consultationCreated() {
+        TransactionHooks.afterCommit(totalConsultations::incrementAndGet);
+    }
+
+    // Counters only move once the change is committed, so rolled-back work never skews them
+
+    private static <E extends Enum<E>> Map<E, AtomicLong> counters(Class<E> type) {
+        Map<E, AtomicLong> counters = new EnumMap<>(type);
+        for (E value : type.getEnumConstants()) {
+            counters.put(value, new AtomicLong());
+        }
+        return counters;
+    }
+}
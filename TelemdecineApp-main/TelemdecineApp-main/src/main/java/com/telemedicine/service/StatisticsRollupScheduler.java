@@ -0,0 +1,20 @@
+package com.telemedicine.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Rolls up the statistics buckets on whichever instance holds the rollup lock. Two instances rewriting
+// the same hours at once would collide on uk_statistics_buckets and roll each other back.
+@Component
+@RequiredArgsConstructor
+public class StatisticsRollupScheduler {
+
+    private final StatisticsRollupService statisticsRollupService;
+    private final LeaderLock leaderLock;
+
+    @Scheduled(fixedDelayString = "${statistics.rollup-interval:PT5M}")
+    public void rollup() {
+        leaderLock.runIfLeader("statistics-rollup", statisticsRollupService::rollup);
+    }
+}
@@ -0,0 +1,155 @@
+package com.telemedicine.service;
+
+import com.telemedicine.dto.StatisticsGranularity;
+import com.telemedicine.dto.StatisticsSeriesPoint;
+import com.telemedicine.dto.StatisticsSeriesResponse;
+import com.telemedicine.entity.RollupWatermark;
+import com.telemedicine.entity.StatisticsBucket;
+import com.telemedicine.entity.StatisticsMetric;
+import com.telemedicine.exception.BadRequestException;
+import com.telemedicine.repository.AppointmentRepository;
+import com.telemedicine.repository.HourKey;
+import com.telemedicine.repository.HourlyCount;
+import com.telemedicine.repository.PrescriptionRepository;
+import com.telemedicine.repository.RollupWatermarkRepository;
+import com.telemedicine.repository.StatisticsBucketRepository;
+import com.telemedicine.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StatisticsRollupService {
+
+    // Re-scan a little before the last watermark to catch rows whose transaction committed late
+    private static final Duration WATERMARK_OVERLAP = Duration.ofMinutes(2);
+    // Dirty hours closer than this are recomputed with a single GROUP BY
+    private static final long MERGE_GAP_HOURS = 24;
+    private static final long MAX_SERIES_DAYS = 366;
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final StatisticsBucketRepository statisticsBucketRepository;
+    private final RollupWatermarkRepository rollupWatermarkRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final UserRepository userRepository;
+    private final PrescriptionRepository prescriptionRepository;
+
+    // Run through StatisticsRollupScheduler, so only one instance rewrites the buckets at a time
+    @Transactional
+    public void rollup() {
+        rollup(StatisticsMetric.APPOINTMENTS,
+                appointmentRepository::findCreatedHoursModifiedSince, appointmentRepository::countHourlyByStatus);
+        rollup(StatisticsMetric.REGISTRATIONS,
+                userRepository::findCreatedHoursModifiedSince, userRepository::countHourlyByRole);
+        rollup(StatisticsMetric.PRESCRIPTIONS,
+                prescriptionRepository::findCreatedHoursModifiedSince, prescriptionRepository::countHourly);
+    }
+
+    @Transactional(readOnly = true)
+    public StatisticsSeriesResponse getSeries(LocalDateTime from, LocalDateTime to, StatisticsGranularity granularity) {
+        log.info("Fetching statistics series from {} to {} by {}", from, to, granularity);
+
+        if (from == null || to == null || !to.isAfter(from)) {
+            throw new BadRequestException("'to' must be after 'from'");
+        }
+        if (Duration.between(from, to).toDays() > MAX_SERIES_DAYS) {
+            throw new BadRequestException("Statistics series are limited to " + MAX_SERIES_DAYS + " days");
+        }
+
+        ChronoUnit unit = granularity == StatisticsGranularity.DAY ? ChronoUnit.DAYS : ChronoUnit.HOURS;
+        List<StatisticsBucket> buckets = statisticsBucketRepository.findBuckets(from.truncatedTo(unit), to);
+
+        // Hourly buckets are stored; day points are summed from them
+        Map<String, StatisticsSeriesPoint> points = new LinkedHashMap<>();
+        for (StatisticsBucket bucket : buckets) {
+            LocalDateTime start = bucket.getBucketStart().truncatedTo(unit);
+            String key = bucket.getMetric() + "|" + bucket.getDimension() + "|" + start;
+            points.merge(key,
+                    new StatisticsSeriesPoint(bucket.getMetric(), bucket.getDimension(), start, bucket.getTotal()),
+                    (existing, added) -> {
+                        existing.setTotal(existing.getTotal() + added.getTotal());
+                        return existing;
+                    });
+        }
+
+        return new StatisticsSeriesResponse(from, to, granularity, new ArrayList<>(points.values()));
+    }
+
+    private void rollup(StatisticsMetric metric,
+                        Function<LocalDateTime, List<HourKey>> modifiedHours,
+                        BiFunction<LocalDateTime, LocalDateTime, List<HourlyCount>> hourlyCounts) {
+        LocalDateTime runStartedAt = LocalDateTime.now();
+
+        RollupWatermark watermark = rollupWatermarkRepository.findByMetric(metric).orElseGet(() -> {
+            RollupWatermark initial = new RollupWatermark();
+            initial.setMetric(metric);
+            initial.setProcessedUntil(EPOCH);
+            return initial;
+        });
+
+        TreeSet<LocalDateTime> dirtyHours = new TreeSet<>();
+        for (HourKey key : modifiedHours.apply(watermark.getProcessedUntil().minus(WATERMARK_OVERLAP))) {
+            dirtyHours.add(toHour(key.getYear(), key.getMonth(), key.getDay(), key.getHour()));
+        }
+
+        int rebuilt = 0;
+        LocalDateTime rangeStart = null;
+        LocalDateTime rangeEnd = null;
+        for (LocalDateTime hour : dirtyHours) {
+            if (rangeStart != null && ChronoUnit.HOURS.between(rangeEnd, hour) > MERGE_GAP_HOURS) {
+                rebuilt += rebuild(metric, rangeStart, rangeEnd, hourlyCounts);
+                rangeStart = null;
+            }
+            if (rangeStart == null) {
+                rangeStart = hour;
+            }
+            rangeEnd = hour.plusHours(1);
+        }
+        if (rangeStart != null) {
+            rebuilt += rebuild(metric, rangeStart, rangeEnd, hourlyCounts);
+        }
+
+        watermark.setProcessedUntil(runStartedAt);
+        rollupWatermarkRepository.save(watermark);
+
+        if (!dirtyHours.isEmpty()) {
+            log.info("Rolled up {} dirty hours ({} buckets) for {}", dirtyHours.size(), rebuilt, metric);
+        }
+    }
+
+    private int rebuild(StatisticsMetric metric, LocalDateTime from, LocalDateTime to,
+                        BiFunction<LocalDateTime, LocalDateTime, List<HourlyCount>> hourlyCounts) {
+        statisticsBucketRepository.deleteBuckets(metric, from, to);
+
+        List<StatisticsBucket> buckets = new ArrayList<>();
+        for (HourlyCount row : hourlyCounts.apply(from, to)) {
+            StatisticsBucket bucket = new StatisticsBucket();
+            bucket.setMetric(metric);
+            bucket.setDimension(Objects.toString(row.getDimension()));
+            bucket.setBucketStart(toHour(row.getYear(), row.getMonth(), row.getDay(), row.getHour()));
+            bucket.setTotal(row.getTotal());
+            buckets.add(bucket);
+        }
+        statisticsBucketRepository.saveAll(buckets);
+        return buckets.size();
+    }
+
+    private LocalDateTime toHour(int year, int month, int day, int hour) {
+        return LocalDateTime.of(year, month, day, hour, 0);
+    }
+}
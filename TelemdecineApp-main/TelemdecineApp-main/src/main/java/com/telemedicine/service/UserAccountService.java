@@ -0,0 +1,78 @@
+package com.telemedicine.service;
+
+import com.telemedicine.dto.RegisterRequest;
+import com.telemedicine.entity.Doctor;
+import com.telemedicine.entity.Patient;
+import com.telemedicine.entity.User;
+import com.telemedicine.entity.UserRole;
+import com.telemedicine.exception.BadRequestException;
+import com.telemedicine.repository.DoctorRepository;
+import com.telemedicine.repository.PatientRepository;
+import com.telemedicine.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+// Stores new accounts for AuthService and AdminService. Callers hash the password first, outside any
+// transaction, so a request waiting for the bounded BCrypt pool does not hold a database connection.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserAccountService {
+
+    private final UserRepository userRepository;
+    private final PatientRepository patientRepository;
+    private final DoctorRepository doctorRepository;
+    private final StatisticsCounters statisticsCounters;
+    private final DoctorDirectory doctorDirectory;
+    private final DoctorSearchIndex doctorSearchIndex;
+
+    // Cheap check before hashing, so a taken email is rejected without spending a BCrypt round
+    @Transactional(readOnly = true)
+    public void checkEmailAvailable(String email) {
+        if (userRepository.existsByEmail(email)) {
+            throw new BadRequestException("Email address already in use");
+        }
+    }
+
+    @Transactional
+    public User createUser(RegisterRequest request, String passwordHash) {
+        checkEmailAvailable(request.getEmail());
+
+        // Create and save user
+        User user = new User();
+        user.setEmail(request.getEmail());
+        user.setPassword(passwordHash);
+        user.setFirstName(request.getFirstName());
+        user.setLastName(request.getLastName());
+        user.setPhoneNumber(request.getPhoneNumber());
+        user.setRole(request.getRole());
+        user.setActive(true);
+
+        user = userRepository.save(user);
+        statisticsCounters.userCreated(user.getRole(), true);
+        log.info("User created successfully with ID: {}", user.getId());
+
+        // Create Patient or Doctor profile based on role
+        if (request.getRole() == UserRole.PATIENT) {
+            Patient patient = new Patient();
+            patient.setUser(user);
+            patientRepository.save(patient);
+            log.info("Patient profile created for user ID: {}", user.getId());
+        } else if (request.getRole() == UserRole.DOCTOR) {
+            Doctor doctor = new Doctor();
+            doctor.setUser(user);
+            // Default values for required fields
+            doctor.setSpecialization("General Medicine");
+            doctor.setLicenseNumber("LICENSE-" + System.currentTimeMillis());
+            doctor.setAvailableForConsultation(true);
+            doctorRepository.save(doctor);
+            doctorDirectory.invalidate();
+            doctorSearchIndex.doctorChanged(doctor.getId());
+            log.info("Doctor profile created for user ID: {}", user.getId());
+        }
+
+        return user;
+    }
+}
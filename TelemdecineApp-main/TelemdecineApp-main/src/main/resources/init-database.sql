@@ -14,9 +14,47 @@ CREATE INDEX IF NOT EXISTS idx_appointments_patient_id ON appointments(patient_i
 CREATE INDEX IF NOT EXISTS idx_appointments_doctor_id ON appointments(doctor_id);
 CREATE INDEX IF NOT EXISTS idx_appointments_date ON appointments(appointment_date);
 CREATE INDEX IF NOT EXISTS idx_appointments_status ON appointments(status);
+CREATE INDEX IF NOT EXISTS idx_appointments_patient_date ON appointments(patient_id, appointment_date, id);
+CREATE INDEX IF NOT EXISTS idx_appointments_doctor_date ON appointments(doctor_id, appointment_date, id);
+CREATE INDEX IF NOT EXISTS idx_appointments_status_date ON appointments(status, appointment_date, id);
+CREATE INDEX IF NOT EXISTS idx_appointments_created_at ON appointments(created_at);
+CREATE INDEX IF NOT EXISTS idx_appointments_updated_at ON appointments(updated_at);
+CREATE INDEX IF NOT EXISTS idx_doctors_specialization_lower ON doctors(LOWER(specialization));
+
+-- The appointments_duration_range and appointments_no_overlap constraints (btree_gist exclusion) are added
+-- at application startup by AppointmentConstraintsInitializer. Existing rows that break them are logged, not
+-- changed; fix those rows and restart to complete the constraints.
+
+-- Reminder scans only look at upcoming appointments that have not been reminded yet
+CREATE INDEX IF NOT EXISTS idx_appointments_day_reminder_due ON appointments(appointment_date)
+    WHERE day_reminder_sent_at IS NULL AND status IN ('SCHEDULED', 'CONFIRMED');
+CREATE INDEX IF NOT EXISTS idx_appointments_hour_reminder_due ON appointments(appointment_date)
+    WHERE hour_reminder_sent_at IS NULL AND status IN ('SCHEDULED', 'CONFIRMED');
+
+-- Prefix search for the admin user listing
+CREATE INDEX IF NOT EXISTS idx_users_email_lower ON users(LOWER(email) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_users_first_name_lower ON users(LOWER(first_name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_users_last_name_lower ON users(LOWER(last_name) text_pattern_ops);
+
+CREATE INDEX IF NOT EXISTS idx_users_created_at ON users(created_at);
+CREATE INDEX IF NOT EXISTS idx_users_updated_at ON users(updated_at);
+CREATE INDEX IF NOT EXISTS idx_prescriptions_created_at ON prescriptions(created_at);
+CREATE INDEX IF NOT EXISTS idx_prescriptions_updated_at ON prescriptions(updated_at);
 CREATE INDEX IF NOT EXISTS idx_prescriptions_patient_id ON prescriptions(patient_id);
 CREATE INDEX IF NOT EXISTS idx_prescriptions_doctor_id ON prescriptions(doctor_id);
 CREATE INDEX IF NOT EXISTS idx_medical_records_patient_id ON medical_records(patient_id);
+CREATE INDEX IF NOT EXISTS idx_medical_records_file_hash ON medical_records(file_hash);
+
+-- Active prescriptions: patient/doctor lookups, the active count and the expiry job only touch these rows
+CREATE INDEX IF NOT EXISTS idx_prescriptions_active_patient ON prescriptions(patient_id) WHERE is_active = true;
+CREATE INDEX IF NOT EXISTS idx_prescriptions_active_doctor ON prescriptions(doctor_id) WHERE is_active = true;
+CREATE INDEX IF NOT EXISTS idx_prescriptions_active_end_date ON prescriptions(end_date) WHERE is_active = true;
+
+-- Outbox polling only ever looks at pending emails
+CREATE INDEX IF NOT EXISTS idx_email_outbox_pending ON email_outbox(next_attempt_at) WHERE status = 'PENDING';
+CREATE INDEX IF NOT EXISTS idx_email_outbox_status ON email_outbox(status, id);
+CREATE INDEX IF NOT EXISTS idx_email_outbox_sent_at ON email_outbox(sent_at) WHERE status = 'SENT';
+CREATE INDEX IF NOT EXISTS idx_email_outbox_sent_keys_sent_at ON email_outbox_sent_keys(sent_at);
 
 -- Optional: Insert initial admin user (password: admin123)
 -- Password is hashed using BCrypt
@@ -0,0 +1,58 @@
+package com.telemedicine;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+// Plain timed loops for the *BenchmarkTest classes. They are skipped unless run with -Dbenchmarks=true, e.g.
+// mvn test -Dbenchmarks=true -Dtest='*BenchmarkTest'
+public final class Benchmarks {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private Benchmarks() {
+    }
+
+    // Runs the operation warmup times untimed, then operations times on the calling thread, timing each call
+    public static Result run(String name, int warmup, int operations, Runnable operation) {
+        for (int i = 0; i < warmup; i++) {
+            operation.run();
+        }
+        long[] latencies = new long[operations];
+        long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+        long started = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            long start = System.nanoTime();
+            operation.run();
+            latencies[i] = System.nanoTime() - start;
+        }
+        long elapsed = System.nanoTime() - started;
+        long allocated = THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        Arrays.sort(latencies);
+        Result result = new Result(name, operations, elapsed, allocated, latencies);
+        System.out.println(result);
+        return result;
+    }
+
+    public record Result(String name, int operations, long elapsedNanos, long allocatedBytes, long[] sortedLatencies) {
+
+        public double opsPerSecond() {
+            return operations * 1e9 / elapsedNanos;
+        }
+
+        public double bytesPerOperation() {
+            return (double) allocatedBytes / operations;
+        }
+
+        public double percentileMicros(double percentile) {
+            int index = (int) Math.ceil(percentile / 100 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1e3;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-40s %,12.0f ops/s  p50 %,9.2f us  p99 %,9.2f us  %,10.0f B/op",
+                    name, opsPerSecond(), percentileMicros(50), percentileMicros(99), bytesPerOperation());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.telemedicine.security;
+
+import com.telemedicine.Benchmarks;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class JwtTokenProviderBenchmarkTest {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-long-enough-for-hmac-sha-256-signing";
+    private static final int WARMUP = 20_000;
+    private static final int OPERATIONS = 100_000;
+
+    @Test
+    void singleParseAgainstTheFormerDoubleParse() {
+        JwtTokenProvider provider = new JwtTokenProvider(mock(TokenRevocationService.class));
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", 3_600_000L);
+        provider.init();
+        UserPrincipal principal = new UserPrincipal(42L, "doctor@example.com", null,
+                List.of(new SimpleGrantedAuthority(UserPrincipal.ROLE_PREFIX + "DOCTOR")), true);
+        String token = provider.generateToken(new UsernamePasswordAuthenticationToken(principal, null));
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+
+        // The filter used to call validateToken and then getUserIdFromJWT, each building a parser and verifying
+        Benchmarks.Result former = Benchmarks.run("validateToken + getUserIdFromJWT", WARMUP, OPERATIONS, () -> {
+            Jwts.parser().verifyWith(key).build().parseSignedClaims(token);
+            Claims claims = Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+            Long.parseLong(claims.getSubject());
+        });
+        Benchmarks.Result current = Benchmarks.run("parseToken", WARMUP, OPERATIONS,
+                () -> provider.parseToken(token).orElseThrow());
+
+        assertThat(current.opsPerSecond()).isGreaterThan(former.opsPerSecond());
+        assertThat(current.bytesPerOperation()).isLessThan(former.bytesPerOperation());
+    }
+}
@@ -0,0 +1,159 @@
+package com.telemedicine.service;
+
+import com.telemedicine.Benchmarks;
+import com.telemedicine.dto.StatisticsResponse;
+import com.telemedicine.entity.Appointment;
+import com.telemedicine.entity.AppointmentStatus;
+import com.telemedicine.entity.Doctor;
+import com.telemedicine.entity.Patient;
+import com.telemedicine.entity.Prescription;
+import com.telemedicine.entity.User;
+import com.telemedicine.entity.UserRole;
+import com.telemedicine.repository.AppointmentRepository;
+import com.telemedicine.repository.ConsultationRepository;
+import com.telemedicine.repository.DoctorRepository;
+import com.telemedicine.repository.MedicalRecordRepository;
+import com.telemedicine.repository.PatientRepository;
+import com.telemedicine.repository.PrescriptionRepository;
+import com.telemedicine.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The dashboard used to load every user, appointment and prescription to count them. The counters are now
+// recomputed by reconcile() with GROUP BY counts, so its allocation must stay flat as the tables grow and its
+// latency must grow no faster than the rows the database scans.
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class AdminStatisticsBenchmarkTest {
+
+    private static final int[] APPOINTMENT_STEPS = {2_000, 10_000, 40_000};
+    private static final int APPOINTMENTS_PER_PATIENT = 10;
+    private static final int DOCTORS = 50;
+    private static final int CHUNK = 1_000;
+    private static final int MAX_BYTES_PER_ADDED_APPOINTMENT = 256;
+
+    @Autowired
+    private AdminService adminService;
+    @Autowired
+    private StatisticsCounters statisticsCounters;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+    @Autowired
+    private ConsultationRepository consultationRepository;
+
+    private final List<Doctor> doctors = new ArrayList<>();
+    private int appointments;
+
+    @Test
+    void reconcileStaysFlatAsTablesGrow() {
+        consultationRepository.deleteAll();
+        medicalRecordRepository.deleteAll();
+        prescriptionRepository.deleteAll();
+        appointmentRepository.deleteAll();
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+        userRepository.deleteAll();
+        for (int i = 0; i < DOCTORS; i++) {
+            Doctor doctor = new Doctor();
+            doctor.setUser(userRepository.save(user("doctor" + i + "@bench", UserRole.DOCTOR)));
+            doctor.setSpecialization("Cardiology");
+            doctor.setLicenseNumber("BENCH-" + i);
+            doctors.add(doctorRepository.save(doctor));
+        }
+
+        List<Benchmarks.Result> results = new ArrayList<>();
+        for (int target : APPOINTMENT_STEPS) {
+            grow(target);
+            // Rows were inserted behind the counters' back, as another instance would; reconcile catches up
+            results.add(Benchmarks.run("reconcile, " + target + " appointments", 3, 20, statisticsCounters::reconcile));
+
+            StatisticsResponse statistics = adminService.getStatistics();
+            assertThat(statistics.getTotalAppointments()).isEqualTo((long) target);
+            assertThat(statistics.getTotalPrescriptions()).isEqualTo(target / 2L);
+        }
+
+        Benchmarks.Result smallest = results.get(0);
+        Benchmarks.Result largest = results.get(results.size() - 1);
+        int addedAppointments = APPOINTMENT_STEPS[APPOINTMENT_STEPS.length - 1] - APPOINTMENT_STEPS[0];
+        double growth = (double) APPOINTMENT_STEPS[APPOINTMENT_STEPS.length - 1] / APPOINTMENT_STEPS[0];
+        // Loading an appointment as an entity costs well over a kilobyte; counting it must cost next to nothing
+        assertThat((largest.bytesPerOperation() - smallest.bytesPerOperation()) / addedAppointments)
+                .isLessThan(MAX_BYTES_PER_ADDED_APPOINTMENT);
+        // 20x the rows: at most linear in the rows scanned, with room for noise
+        assertThat(largest.percentileMicros(50)).isLessThan(smallest.percentileMicros(50) * growth * 2 + 1_000);
+
+        // The endpoint itself only reads the counters, whatever the table sizes
+        Benchmarks.Result read = Benchmarks.run("getStatistics (counters)", 20_000, 200_000, adminService::getStatistics);
+        assertThat(read.percentileMicros(99)).isLessThan(1_000);
+    }
+
+    // Adds patients, appointments across every status and prescriptions until there are target appointments
+    private void grow(int target) {
+        AppointmentStatus[] statuses = AppointmentStatus.values();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        while (appointments < target) {
+            List<Appointment> appointmentChunk = new ArrayList<>();
+            List<Prescription> prescriptionChunk = new ArrayList<>();
+            for (int p = 0; p < CHUNK / APPOINTMENTS_PER_PATIENT; p++) {
+                int index = appointments / APPOINTMENTS_PER_PATIENT;
+                Patient patient = new Patient();
+                patient.setUser(userRepository.save(user("patient" + index + "@bench", UserRole.PATIENT)));
+                patient = patientRepository.save(patient);
+                for (int a = 0; a < APPOINTMENTS_PER_PATIENT; a++, appointments++) {
+                    Doctor doctor = doctors.get(appointments % DOCTORS);
+                    Appointment appointment = new Appointment();
+                    appointment.setPatient(patient);
+                    appointment.setDoctor(doctor);
+                    appointment.setAppointmentDate(start.plusMinutes(30L * appointments));
+                    appointment.setStatus(statuses[appointments % statuses.length]);
+                    appointmentChunk.add(appointment);
+                    if (appointments % 2 == 0) {
+                        Prescription prescription = new Prescription();
+                        prescription.setPatient(patient);
+                        prescription.setDoctor(doctor);
+                        prescription.setMedicationName("Amoxicillin");
+                        prescription.setDosage("500mg");
+                        prescription.setFrequency("3x/day");
+                        prescription.setDuration(7);
+                        prescription.setStartDate(LocalDate.now());
+                        prescription.setIsActive(appointments % 4 == 0);
+                        prescriptionChunk.add(prescription);
+                    }
+                }
+            }
+            appointmentRepository.saveAll(appointmentChunk);
+            prescriptionRepository.saveAll(prescriptionChunk);
+        }
+    }
+
+    private static User user(String email, UserRole role) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("secret");
+        user.setFirstName("First " + email);
+        user.setLastName("Last");
+        user.setRole(role);
+        return user;
+    }
+}
@@ -0,0 +1,153 @@
+package com.telemedicine.service;
+
+import com.telemedicine.dto.AppointmentResponse;
+import com.telemedicine.dto.CursorPage;
+import com.telemedicine.entity.Appointment;
+import com.telemedicine.entity.AppointmentStatus;
+import com.telemedicine.entity.Doctor;
+import com.telemedicine.entity.Patient;
+import com.telemedicine.entity.User;
+import com.telemedicine.entity.UserRole;
+import com.telemedicine.exception.ResourceNotFoundException;
+import com.telemedicine.repository.AppointmentRepository;
+import com.telemedicine.repository.DoctorRepository;
+import com.telemedicine.repository.PatientRepository;
+import com.telemedicine.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// The appointment lists must come from a single joined statement, however many patients and doctors
+// the page spans; walking the lazy associations would add statements per row
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class AppointmentServiceQueryCountTest {
+
+    private static final int DOCTORS = 4;
+    private static final int PATIENTS = 3;
+
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Patient> patients = new ArrayList<>();
+    private final List<Doctor> doctors = new ArrayList<>();
+    private User admin;
+
+    @BeforeEach
+    void setUp() {
+        appointmentRepository.deleteAll();
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+        userRepository.deleteAll();
+
+        admin = userRepository.save(user("admin@test", UserRole.ADMIN));
+        for (int i = 0; i < PATIENTS; i++) {
+            Patient patient = new Patient();
+            patient.setUser(userRepository.save(user("patient" + i + "@test", UserRole.PATIENT)));
+            patients.add(patientRepository.save(patient));
+        }
+        for (int i = 0; i < DOCTORS; i++) {
+            Doctor doctor = new Doctor();
+            doctor.setUser(userRepository.save(user("doctor" + i + "@test", UserRole.DOCTOR)));
+            doctor.setSpecialization("Cardiology");
+            doctor.setLicenseNumber("LIC-" + i);
+            doctors.add(doctorRepository.save(doctor));
+        }
+
+        // Every patient sees every doctor, so each page spans several distinct patients and doctors
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        for (int p = 0; p < PATIENTS; p++) {
+            for (int d = 0; d < DOCTORS; d++) {
+                Appointment appointment = new Appointment();
+                appointment.setPatient(patients.get(p));
+                appointment.setDoctor(doctors.get(d));
+                appointment.setAppointmentDate(start.plusDays(p).plusHours(d));
+                appointmentRepository.save(appointment);
+            }
+        }
+    }
+
+    @Test
+    void patientAppointmentsTakeOneStatement() {
+        CursorPage<AppointmentResponse> page = countStatements(1, () -> appointmentService.getPatientAppointments(
+                patients.get(0).getUser().getId(), null, 50, null, null));
+
+        assertThat(page.getItems()).hasSize(DOCTORS)
+                .extracting(AppointmentResponse::getDoctorName).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void doctorAppointmentsTakeOneStatement() {
+        CursorPage<AppointmentResponse> page = countStatements(1, () -> appointmentService.getDoctorAppointments(
+                doctors.get(0).getUser().getId(), null, 50, null, null));
+
+        assertThat(page.getItems()).hasSize(PATIENTS)
+                .extracting(AppointmentResponse::getPatientName).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void appointmentsByStatusTakeOneStatement() {
+        CursorPage<AppointmentResponse> page = countStatements(1, () -> appointmentService.getAppointmentsByStatus(
+                admin.getId(), UserRole.ADMIN, AppointmentStatus.SCHEDULED, null, 50, null, null));
+
+        assertThat(page.getItems()).hasSize(PATIENTS * DOCTORS);
+    }
+
+    @Test
+    void doctorAppointmentsByStatusTakeOneStatement() {
+        CursorPage<AppointmentResponse> page = countStatements(1, () -> appointmentService.getAppointmentsByStatus(
+                doctors.get(1).getUser().getId(), UserRole.DOCTOR, AppointmentStatus.SCHEDULED, null, 50, null, null));
+
+        assertThat(page.getItems()).hasSize(PATIENTS)
+                .allMatch(appointment -> appointment.getDoctorId().equals(doctors.get(1).getId()));
+    }
+
+    @Test
+    void missingProfileIsStillReported() {
+        assertThatThrownBy(() -> appointmentService.getPatientAppointments(admin.getId(), null, 50, null, null))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private <T> T countStatements(long expected, Supplier<T> call) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        T result = call.get();
+
+        assertThat(statistics.getPrepareStatementCount()).as("SQL statements").isEqualTo(expected);
+        return result;
+    }
+
+    private static User user(String email, UserRole role) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("secret");
+        user.setFirstName("First " + email);
+        user.setLastName("Last");
+        user.setRole(role);
+        return user;
+    }
+}
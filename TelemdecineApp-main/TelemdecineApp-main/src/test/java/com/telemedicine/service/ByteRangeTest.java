@@ -0,0 +1,70 @@
+package com.telemedicine.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ByteRangeTest {
+
+    private static final String ETAG = "\"abc123\"";
+    private static final ByteRange WHOLE = new ByteRange(0, 999, false);
+
+    @Test
+    void noRangeMeansTheWholeFile() {
+        assertThat(resolve(null, null)).isEqualTo(WHOLE);
+        assertThat(WHOLE.length()).isEqualTo(1000);
+    }
+
+    @Test
+    void closedAndOpenRanges() {
+        assertThat(resolve("bytes=0-99", null)).isEqualTo(new ByteRange(0, 99, true));
+        assertThat(resolve("bytes=500-", null)).isEqualTo(new ByteRange(500, 999, true));
+        // An end past the file is clamped to the last byte
+        assertThat(resolve("bytes=900-5000", null)).isEqualTo(new ByteRange(900, 999, true));
+        // Asking for everything is still a partial response
+        assertThat(resolve("bytes=0-", null)).isEqualTo(new ByteRange(0, 999, true));
+    }
+
+    @Test
+    void suffixRangeIsTheLastBytes() {
+        assertThat(resolve("bytes=-100", null)).isEqualTo(new ByteRange(900, 999, true));
+        assertThat(resolve("bytes=-5000", null)).isEqualTo(new ByteRange(0, 999, true));
+    }
+
+    @Test
+    void rangesStartingPastTheEndCannotBeSatisfied() {
+        ByteRange range = resolve("bytes=1000-", null);
+        assertThat(range.partial()).isTrue();
+        assertThat(range.satisfiable()).isFalse();
+        assertThat(resolve("bytes=1000-1500", null).satisfiable()).isFalse();
+        assertThat(resolve("bytes=-0", null).satisfiable()).isFalse();
+        // Nothing is satisfiable in an empty file, but the file itself can still be sent
+        assertThat(ByteRange.resolve("bytes=0-", null, ETAG, 0).satisfiable()).isFalse();
+        assertThat(ByteRange.resolve(null, null, ETAG, 0).length()).isZero();
+    }
+
+    @Test
+    void multiRangeAndMalformedHeadersGetTheWholeFile() {
+        assertThat(resolve("bytes=0-9,20-29", null)).isEqualTo(WHOLE);
+        assertThat(resolve("bytes=-", null)).isEqualTo(WHOLE);
+        assertThat(resolve("bytes=a-b", null)).isEqualTo(WHOLE);
+        assertThat(resolve("items=0-9", null)).isEqualTo(WHOLE);
+        assertThat(resolve("bytes=1234567890123456789-", null)).isEqualTo(WHOLE);
+        // A first position after the last is an invalid range, not an unsatisfiable one
+        assertThat(resolve("bytes=5-3", null)).isEqualTo(WHOLE);
+        assertThat(resolve("bytes=2000-1500", null)).isEqualTo(WHOLE);
+    }
+
+    @Test
+    void ifRangeMustMatchTheEtag() {
+        assertThat(resolve("bytes=0-99", ETAG)).isEqualTo(new ByteRange(0, 99, true));
+        assertThat(resolve("bytes=0-99", "\"other\"")).isEqualTo(WHOLE);
+        // A weak validator or a date never matches the strong ETag
+        assertThat(resolve("bytes=0-99", "W/" + ETAG)).isEqualTo(WHOLE);
+        assertThat(resolve("bytes=0-99", "Wed, 21 Oct 2026 07:28:00 GMT")).isEqualTo(WHOLE);
+    }
+
+    private static ByteRange resolve(String range, String ifRange) {
+        return ByteRange.resolve(range, ifRange, ETAG, 1000);
+    }
+}
@@ -0,0 +1,113 @@
+package com.telemedicine.service;
+
+import com.telemedicine.dto.FreeSlotResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DoctorCalendarTest {
+
+    // A Monday
+    private static final LocalDate MONDAY = LocalDate.of(2027, 1, 4);
+
+    private final Map<DayOfWeek, List<LocalTime[]>> weeklyHours = new HashMap<>();
+    private final Map<LocalDate, List<LocalTime[]>> timeOff = new HashMap<>();
+    private final DoctorCalendar calendar = new DoctorCalendar(weeklyHours, timeOff);
+
+    @Test
+    void bookingSplitsTheWorkingWindow() {
+        workingHours(DayOfWeek.MONDAY, "09:00", "12:00");
+        calendar.book(1L, MONDAY.atTime(10, 0), 30);
+
+        assertThat(slotStarts(MONDAY, 30)).containsExactly("09:00", "09:30", "10:30", "11:00", "11:30");
+    }
+
+    @Test
+    void overlappingBookingsAndSeveralWindowsAreAllSubtracted() {
+        workingHours(DayOfWeek.MONDAY, "09:00", "11:00");
+        workingHours(DayOfWeek.MONDAY, "14:00", "15:00");
+        calendar.book(1L, MONDAY.atTime(9, 0), 45);
+        calendar.book(2L, MONDAY.atTime(9, 30), 60);
+        calendar.book(3L, MONDAY.atTime(14, 20), 20);
+
+        assertThat(slotStarts(MONDAY, 20)).containsExactly("10:30", "14:00", "14:40");
+    }
+
+    @Test
+    void partialTimeOffIsSubtractedAndWholeDayOffLeavesNothing() {
+        workingHours(DayOfWeek.MONDAY, "09:00", "11:00");
+        timeOff.put(MONDAY, List.<LocalTime[]>of(new LocalTime[]{LocalTime.of(9, 0), LocalTime.of(9, 45)}));
+
+        assertThat(slotStarts(MONDAY, 30)).containsExactly("09:45", "10:15");
+
+        timeOff.put(MONDAY, List.<LocalTime[]>of(new LocalTime[]{null, null}));
+        assertThat(calendar.freeSlots(MONDAY.atStartOfDay(), MONDAY.atTime(23, 59), 30)).isEmpty();
+    }
+
+    @Test
+    void slotsStartOnFiveMinuteBoundaries() {
+        workingHours(DayOfWeek.MONDAY, "09:00", "10:00");
+
+        // 09:07:30 rounds up to 09:08, then to the next 5-minute boundary
+        List<FreeSlotResponse> slots = calendar.freeSlots(MONDAY.atTime(9, 7, 30), MONDAY.atTime(10, 0), 15);
+        assertThat(starts(slots)).containsExactly("09:10", "09:25", "09:40");
+
+        // A booking ending off the grid pushes the next slot to the following boundary
+        calendar.book(1L, MONDAY.atTime(9, 0), 17);
+        assertThat(slotStarts(MONDAY, 15)).containsExactly("09:20", "09:35");
+    }
+
+    @Test
+    void bookingFromThePreviousDayBlocksTheStartOfTheNextDay() {
+        workingHours(DayOfWeek.TUESDAY, "00:00", "02:00");
+        calendar.book(1L, MONDAY.atTime(23, 0), SlotReservationService.MAX_DURATION_MINUTES / 2);
+
+        LocalDate tuesday = MONDAY.plusDays(1);
+        assertThat(slotStarts(tuesday, 30)).containsExactly("01:00", "01:30");
+    }
+
+    @Test
+    void releaseAndRebookMoveTheBooking() {
+        workingHours(DayOfWeek.MONDAY, "09:00", "10:00");
+        calendar.book(1L, MONDAY.atTime(9, 0), 30);
+        assertThat(slotStarts(MONDAY, 30)).containsExactly("09:30");
+
+        // Booking the same appointment again replaces its interval
+        calendar.book(1L, MONDAY.atTime(9, 30), 30);
+        assertThat(slotStarts(MONDAY, 30)).containsExactly("09:00");
+
+        calendar.release(1L);
+        assertThat(slotStarts(MONDAY, 30)).containsExactly("09:00", "09:30");
+    }
+
+    @Test
+    void stopsAfterMaxSlotsAndSpansDays() {
+        workingHours(DayOfWeek.MONDAY, "16:00", "17:00");
+        workingHours(DayOfWeek.TUESDAY, "08:00", "09:00");
+
+        List<FreeSlotResponse> slots = calendar.freeSlots(MONDAY.atStartOfDay(), MONDAY.plusDays(2).atStartOfDay(), 30, 3);
+        assertThat(slots).extracting(FreeSlotResponse::getStart).containsExactly(
+                MONDAY.atTime(16, 0), MONDAY.atTime(16, 30), MONDAY.plusDays(1).atTime(8, 0));
+    }
+
+    private void workingHours(DayOfWeek day, String start, String end) {
+        weeklyHours.computeIfAbsent(day, d -> new ArrayList<>())
+                .add(new LocalTime[]{LocalTime.parse(start), LocalTime.parse(end)});
+    }
+
+    private List<String> slotStarts(LocalDate day, int durationMinutes) {
+        return starts(calendar.freeSlots(day.atStartOfDay(), day.plusDays(1).atStartOfDay(), durationMinutes));
+    }
+
+    private static List<String> starts(List<FreeSlotResponse> slots) {
+        return slots.stream().map(slot -> slot.getStart().toLocalTime().toString()).toList();
+    }
+}
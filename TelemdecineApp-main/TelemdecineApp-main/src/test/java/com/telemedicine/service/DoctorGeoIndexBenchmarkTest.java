@@ -0,0 +1,75 @@
+package com.telemedicine.service;
+
+import com.telemedicine.Benchmarks;
+import com.telemedicine.repository.DoctorRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class DoctorGeoIndexBenchmarkTest {
+
+    private static final int DOCTORS = 100_000;
+    private static final String[] SPECIALIZATIONS = {"Cardiology", "Neurology", "Dermatology", "Pediatrics", "General Practice"};
+
+    @Test
+    void buildAndNearestQueriesAtOneHundredThousandDoctors() {
+        Random random = new Random(7);
+        // Dense cities plus a thin scatter over the rest of a country-sized area
+        double[][] cities = {{48.85, 2.35}, {45.76, 4.84}, {43.30, 5.37}, {50.63, 3.06}, {44.84, -0.58}};
+        List<DoctorRepository.LocatedDoctor> doctors = new ArrayList<>(DOCTORS);
+        for (long id = 1; id <= DOCTORS; id++) {
+            double latitude;
+            double longitude;
+            if (id % 5 == 0) {
+                latitude = 42 + random.nextDouble() * 9;
+                longitude = -4 + random.nextDouble() * 12;
+            } else {
+                double[] city = cities[random.nextInt(cities.length)];
+                latitude = city[0] + random.nextGaussian() * 0.15;
+                longitude = city[1] + random.nextGaussian() * 0.2;
+            }
+            doctors.add(new Located(id, "Doctor " + id, SPECIALIZATIONS[(int) (id % SPECIALIZATIONS.length)],
+                    null, null, latitude, longitude));
+        }
+        DoctorRepository doctorRepository = mock(DoctorRepository.class);
+        when(doctorRepository.findLocatedBookable()).thenReturn(doctors);
+        DoctorGeoIndex index = new DoctorGeoIndex(doctorRepository);
+
+        Benchmarks.Result build = Benchmarks.run("build (100k doctors)", 3, 10, index::rebuild);
+
+        double[][] origins = new double[1024][];
+        for (int i = 0; i < origins.length; i++) {
+            origins[i] = new double[]{42 + random.nextDouble() * 9, -4 + random.nextDouble() * 12};
+        }
+        int[] next = {0};
+        Benchmarks.Result nearest = Benchmarks.run("nearest 10 within 25 km", 20_000, 100_000, () -> {
+            double[] origin = origins[next[0]++ & 1023];
+            index.nearest(origin[0], origin[1], 25, null, 10);
+        });
+        // City centres hold thousands of doctors per cell, so these scan far more candidates
+        Benchmarks.run("nearest 10 within 25 km, in a city", 2_000, 10_000, () -> {
+            double[] city = cities[next[0]++ % cities.length];
+            index.nearest(city[0], city[1], 25, null, 10);
+        });
+        Benchmarks.run("nearest 10 cardiologists within 100 km", 20_000, 100_000, () -> {
+            double[] origin = origins[next[0]++ & 1023];
+            index.nearest(origin[0], origin[1], 100, "Cardiology", 10);
+        });
+
+        assertThat(build.percentileMicros(50)).isLessThan(5_000_000);
+        assertThat(nearest.percentileMicros(99)).isLessThan(10_000);
+    }
+
+    private record Located(Long getId, String getName, String getSpecialization, Double getConsultationFee,
+                           String getClinicAddress, Double getLatitude, Double getLongitude)
+            implements DoctorRepository.LocatedDoctor {
+    }
+}
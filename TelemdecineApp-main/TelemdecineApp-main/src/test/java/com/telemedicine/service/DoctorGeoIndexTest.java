@@ -0,0 +1,156 @@
+package com.telemedicine.service;
+
+import com.telemedicine.dto.NearbyDoctorResponse;
+import com.telemedicine.repository.DoctorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DoctorGeoIndexTest {
+
+    private final DoctorRepository doctorRepository = mock(DoctorRepository.class);
+    private final DoctorGeoIndex index = new DoctorGeoIndex(doctorRepository);
+    private final List<DoctorRepository.LocatedDoctor> doctors = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(doctorRepository.findLocatedBookable()).thenAnswer(invocation -> List.copyOf(doctors));
+    }
+
+    @Test
+    void haversineDistance() {
+        // Paris to Lyon is about 392 km
+        assertThat(DoctorGeoIndex.distanceKm(48.8566, 2.3522, 45.7640, 4.8357)).isCloseTo(392, within(1.0));
+        assertThat(DoctorGeoIndex.distanceKm(10, 20, 10, 20)).isZero();
+        // Half the circumference between antipodes
+        assertThat(DoctorGeoIndex.distanceKm(0, 0, 0, 180)).isCloseTo(Math.PI * 6371.0088, within(0.01));
+    }
+
+    @Test
+    void nearestFirstWithinTheRadius() {
+        doctors.add(doctor(1L, "Cardiology", 45.7640, 4.8357));   // Lyon
+        doctors.add(doctor(2L, "Cardiology", 45.1885, 5.7245));   // Grenoble, ~94 km
+        doctors.add(doctor(3L, "Neurology", 45.7500, 4.8500));    // ~2 km
+        doctors.add(doctor(4L, "Cardiology", 48.8566, 2.3522));   // Paris, ~392 km
+
+        assertThat(ids(index.nearest(45.7640, 4.8357, 100, null, 10))).containsExactly(1L, 3L, 2L);
+        assertThat(ids(index.nearest(45.7640, 4.8357, 500, null, 2))).containsExactly(1L, 3L);
+        assertThat(ids(index.nearest(45.7640, 4.8357, 500, "CARDIOLOGY", 10))).containsExactly(1L, 2L, 4L);
+        assertThat(index.nearest(45.7640, 4.8357, 500, "Pediatrics", 10)).isEmpty();
+        assertThat(index.nearest(45.7640, 4.8357, 1, null, 10)).extracting(NearbyDoctorResponse::getDistanceKm)
+                .containsExactly(0.0);
+    }
+
+    @Test
+    void searchWrapsAroundTheAntimeridian() {
+        doctors.add(doctor(1L, "Cardiology", -17.75, -179.95));
+        doctors.add(doctor(2L, "Cardiology", -17.75, 179.80));
+        doctors.add(doctor(3L, "Cardiology", -17.75, 170.00));
+
+        List<NearbyDoctorResponse> fromEast = index.nearest(-17.75, 179.95, 50, null, 10);
+        assertThat(ids(fromEast)).containsExactly(1L, 2L);
+        assertThat(fromEast.get(0).getDistanceKm()).isCloseTo(10.6, within(0.1));
+
+        assertThat(ids(index.nearest(-17.75, -179.90, 50, null, 10))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void emptyRingsDoNotStopTheSearchEarly() {
+        // Nothing in the neighbouring cells; the only doctor is several rings out
+        doctors.add(doctor(1L, "Cardiology", 46.5, 6.6));
+
+        assertThat(ids(index.nearest(45.0, 5.0, 300, null, 5))).containsExactly(1L);
+        assertThat(index.nearest(45.0, 5.0, 100, null, 5)).isEmpty();
+    }
+
+    @Test
+    void matchesABruteForceScan() {
+        Random random = new Random(42);
+        for (long id = 1; id <= 2000; id++) {
+            // Clusters near the poles, the antimeridian and a busy city, plus scattered points
+            double latitude;
+            double longitude;
+            switch ((int) (id % 4)) {
+                case 0 -> { latitude = 84 + random.nextDouble() * 6; longitude = random.nextDouble() * 360 - 180; }
+                case 1 -> { latitude = random.nextDouble() * 4 - 2; longitude = 178 + random.nextDouble() * 4; }
+                case 2 -> { latitude = 48.8 + random.nextGaussian() * 0.2; longitude = 2.35 + random.nextGaussian() * 0.3; }
+                default -> { latitude = random.nextDouble() * 180 - 90; longitude = random.nextDouble() * 360 - 180; }
+            }
+            if (longitude > 180) {
+                longitude -= 360;
+            }
+            doctors.add(doctor(id, id % 3 == 0 ? "Cardiology" : "Neurology", latitude, longitude));
+        }
+
+        double[][] origins = {{48.85, 2.35}, {0, 179.99}, {1, -179.5}, {88, 10}, {-60, -70}, {89.99, -120}};
+        for (double[] origin : origins) {
+            for (double radiusKm : new double[]{5, 50, 300, 500}) {
+                for (int limit : new int[]{1, 10, 50}) {
+                    assertThat(ids(index.nearest(origin[0], origin[1], radiusKm, null, limit)))
+                            .as("origin %s,%s radius %s limit %s", origin[0], origin[1], radiusKm, limit)
+                            .isEqualTo(bruteForce(origin[0], origin[1], radiusKm, null, limit));
+                    assertThat(ids(index.nearest(origin[0], origin[1], radiusKm, "cardiology", limit)))
+                            .isEqualTo(bruteForce(origin[0], origin[1], radiusKm, "Cardiology", limit));
+                }
+            }
+        }
+    }
+
+    @Test
+    void changedDoctorsMoveAndRemovedOnesDropOut() {
+        doctors.add(doctor(1L, "Cardiology", 45.76, 4.84));
+        doctors.add(doctor(2L, "Cardiology", 45.77, 4.85));
+        assertThat(ids(index.nearest(45.76, 4.84, 10, null, 10))).containsExactly(1L, 2L);
+
+        // Moved to Paris
+        when(doctorRepository.findLocatedBookableByIdIn(Set.of(1L)))
+                .thenReturn(List.of(doctor(1L, "Neurology", 48.85, 2.35)));
+        index.doctorChanged(1L);
+        assertThat(ids(index.nearest(45.76, 4.84, 10, null, 10))).containsExactly(2L);
+        assertThat(ids(index.nearest(48.85, 2.35, 10, "neurology", 10))).containsExactly(1L);
+        assertThat(index.nearest(48.85, 2.35, 10, "cardiology", 10)).isEmpty();
+
+        // No longer bookable, so the reload does not return it
+        when(doctorRepository.findLocatedBookableByIdIn(Set.of(1L))).thenReturn(List.of());
+        index.doctorChanged(1L);
+        assertThat(index.nearest(48.85, 2.35, 10, null, 10)).isEmpty();
+        assertThat(index.nearest(48.85, 2.35, 10, "neurology", 10)).isEmpty();
+    }
+
+    private List<Long> bruteForce(double latitude, double longitude, double radiusKm, String specialization, int limit) {
+        record Hit(long id, double distanceKm) {
+        }
+        return doctors.stream()
+                .filter(doctor -> specialization == null || doctor.getSpecialization().equals(specialization))
+                .map(doctor -> new Hit(doctor.getId(),
+                        DoctorGeoIndex.distanceKm(latitude, longitude, doctor.getLatitude(), doctor.getLongitude())))
+                .filter(hit -> hit.distanceKm() <= radiusKm)
+                .sorted(Comparator.comparingDouble(Hit::distanceKm).thenComparingLong(Hit::id))
+                .limit(limit)
+                .map(Hit::id)
+                .toList();
+    }
+
+    private static List<Long> ids(List<NearbyDoctorResponse> nearby) {
+        return nearby.stream().map(NearbyDoctorResponse::getDoctorId).toList();
+    }
+
+    private static DoctorRepository.LocatedDoctor doctor(Long id, String specialization, double latitude, double longitude) {
+        return new Located(id, "Doctor " + id, specialization, null, null, latitude, longitude);
+    }
+
+    private record Located(Long getId, String getName, String getSpecialization, Double getConsultationFee,
+                           String getClinicAddress, Double getLatitude, Double getLongitude)
+            implements DoctorRepository.LocatedDoctor {
+    }
+}
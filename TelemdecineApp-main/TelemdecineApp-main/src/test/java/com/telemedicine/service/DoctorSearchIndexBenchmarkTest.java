@@ -0,0 +1,79 @@
+package com.telemedicine.service;
+
+import com.telemedicine.Benchmarks;
+import com.telemedicine.dto.DoctorResponse;
+import com.telemedicine.repository.DoctorRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class DoctorSearchIndexBenchmarkTest {
+
+    private static final int DOCTORS = 50_000;
+    private static final String[] FIRST_NAMES = {"Zoé", "Paul", "Anna", "Hugo", "Léa", "Louis", "Chloé", "Jules",
+            "Inès", "Gabriel", "Camille", "Arthur", "Manon", "Raphaël", "Sarah", "Nathan"};
+    private static final String[] LAST_NAMES = {"Martin", "Bernard", "Dubois", "Thomas", "Robert", "Richard",
+            "Petit", "Durand", "Leroy", "Moreau", "Simon", "Laurent", "Lefèvre", "Michel", "Garcia", "Fournier",
+            "Girard", "Bonnet", "Dupont", "Lambert", "Fontaine", "Rousseau", "Vincent", "Muller"};
+    private static final String[] SPECIALIZATIONS = {"Cardiology", "Neurology", "Dermatology", "Pediatrics",
+            "General Medicine", "Ophthalmology", "Psychiatry", "Gastroenterology", "Endocrinology", "Rheumatology"};
+    private static final String[] CITIES = {"Paris", "Lyon", "Marseille", "Lille", "Bordeaux", "Toulouse",
+            "Nantes", "Strasbourg", "Montpellier", "Rennes"};
+    private static final String[] BIOGRAPHY_WORDS = {"experienced", "specialist", "children", "adults", "chronic",
+            "disease", "prevention", "screening", "heart", "skin", "sleep", "diabetes", "allergy", "sports",
+            "injuries", "telemedicine", "follow-up", "care", "hospital", "research"};
+
+    @Test
+    void queriesAtFiftyThousandDoctors() {
+        Random random = new Random(11);
+        List<DoctorResponse> doctors = new ArrayList<>(DOCTORS);
+        for (long id = 1; id <= DOCTORS; id++) {
+            DoctorResponse doctor = new DoctorResponse();
+            doctor.setId(id);
+            doctor.setFirstName(pick(random, FIRST_NAMES));
+            // Surnames repeat, but each doctor also gets a rarer suffix so the vocabulary is realistic in size
+            doctor.setLastName(pick(random, LAST_NAMES) + (id % 7 == 0 ? "-" + pick(random, LAST_NAMES) + id % 997 : ""));
+            doctor.setSpecialization(pick(random, SPECIALIZATIONS));
+            doctor.setClinicAddress(random.nextInt(200) + " rue " + pick(random, LAST_NAMES) + ", " + pick(random, CITIES));
+            StringBuilder biography = new StringBuilder();
+            for (int w = 0; w < 12; w++) {
+                biography.append(pick(random, BIOGRAPHY_WORDS)).append(' ');
+            }
+            doctor.setBiography(biography.toString());
+            doctors.add(doctor);
+        }
+        DoctorRepository doctorRepository = mock(DoctorRepository.class);
+        when(doctorRepository.findAllResponses()).thenReturn(doctors);
+        DoctorSearchIndex index = new DoctorSearchIndex(doctorRepository);
+
+        Benchmarks.run("build (50k doctors)", 2, 5, index::rebuild);
+
+        String[] exact = {"cardiology lyon", "martin", "dermatology paris", "pediatrics", "neurology bordeaux"};
+        String[] prefixes = {"cardio", "derm", "mart", "neur lyo", "pedia"};
+        String[] typos = {"cardiolgy", "dermatolgy lyon", "mrtin", "neurolgy", "pediatrcs paris"};
+        int[] next = {0};
+        Benchmarks.Result exactResult = Benchmarks.run("exact terms", 2_000, 20_000,
+                () -> index.search(exact[next[0]++ % exact.length], 20));
+        Benchmarks.Result prefixResult = Benchmarks.run("prefixes", 2_000, 20_000,
+                () -> index.search(prefixes[next[0]++ % prefixes.length], 20));
+        Benchmarks.Result typoResult = Benchmarks.run("typos", 2_000, 20_000,
+                () -> index.search(typos[next[0]++ % typos.length], 20));
+
+        assertThat(index.search("cardiolgy lyon", 20)).isNotEmpty();
+        assertThat(exactResult.percentileMicros(99)).isLessThan(5_000);
+        assertThat(prefixResult.percentileMicros(99)).isLessThan(5_000);
+        assertThat(typoResult.percentileMicros(99)).isLessThan(5_000);
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,135 @@
+package com.telemedicine.service;
+
+import com.telemedicine.dto.DoctorResponse;
+import com.telemedicine.repository.DoctorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DoctorSearchIndexTest {
+
+    private final DoctorRepository doctorRepository = mock(DoctorRepository.class);
+    private final DoctorSearchIndex index = new DoctorSearchIndex(doctorRepository);
+    private final List<DoctorResponse> doctors = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        doctors.add(doctor(1L, "Zoé", "Martin", "Cardiology", "Lyon", "Heart rhythm disorders"));
+        doctors.add(doctor(2L, "Paul", "Durand", "Dermatology", "Paris", "Skin care and cardiology screening"));
+        doctors.add(doctor(3L, "Anna", "Cardin", "Neurology", "Lyon", null));
+        when(doctorRepository.findAllResponses()).thenAnswer(invocation -> List.copyOf(doctors));
+    }
+
+    @Test
+    void tokenizeFoldsCaseAndAccentsAndSplitsOnPunctuation() {
+        assertThat(DoctorSearchIndex.tokenize("Zoé  O'Brien-Côté, M.D.")).containsExactly("zoe", "o", "brien", "cote", "m", "d");
+        assertThat(DoctorSearchIndex.tokenize("  ")).isEmpty();
+        assertThat(DoctorSearchIndex.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void exactTermsMatchAcrossFieldsWithAccentsFolded() {
+        assertThat(ids("zoe")).containsExactly(1L);
+        assertThat(ids("LYON")).containsExactlyInAnyOrder(1L, 3L);
+    }
+
+    @Test
+    void prefixesExpandToLongerTerms() {
+        // The specialization outweighs the same word in a biography
+        assertThat(ids("cardiolo")).containsExactly(1L, 2L);
+        assertThat(ids("derm")).containsExactly(2L);
+        // A short prefix may also be one edit away from another term
+        assertThat(ids("cardio")).containsExactlyInAnyOrder(1L, 2L, 3L);
+        // Single characters are not expanded
+        assertThat(ids("c")).isEmpty();
+    }
+
+    @Test
+    void typosWithinTheEditBudgetStillMatch() {
+        // Seven or more characters allow two edits
+        assertThat(ids("dermatolgy")).containsExactly(2L);
+        assertThat(ids("neurolgoy")).containsExactly(3L);
+        // Four to six characters allow one
+        assertThat(ids("durnd")).containsExactly(2L);
+        assertThat(ids("drnd")).isEmpty();
+        // Shorter terms must match exactly or by prefix
+        assertThat(ids("lyn")).isEmpty();
+    }
+
+    @Test
+    void doctorsMatchingMoreTermsRankFirst() {
+        assertThat(ids("cardiology lyon")).containsExactly(1L, 3L, 2L);
+        assertThat(index.search("cardiology lyon", 1)).extracting(DoctorResponse::getId).containsExactly(1L);
+    }
+
+    @Test
+    void changedDoctorsAreReReadAndRemovedOnesDropOut() {
+        assertThat(ids("paris")).containsExactly(2L);
+
+        // Moved to Marseille: the old terms and their trigrams go with it
+        DoctorResponse moved = doctor(2L, "Paul", "Durand", "Dermatology", "Marseille", null);
+        when(doctorRepository.findResponsesByIdIn(Set.of(2L))).thenReturn(List.of(moved));
+        index.doctorChanged(2L);
+        assertThat(ids("paris")).isEmpty();
+        assertThat(ids("pari")).isEmpty();
+        assertThat(ids("marseile")).containsExactly(2L);
+
+        // Gone from the database, e.g. deleted
+        when(doctorRepository.findResponsesByIdIn(Set.of(2L))).thenReturn(List.of());
+        index.doctorChanged(2L);
+        assertThat(ids("durand")).isEmpty();
+        assertThat(ids("dermatology")).isEmpty();
+
+        // And back again
+        when(doctorRepository.findResponsesByIdIn(Set.of(2L))).thenReturn(List.of(moved));
+        index.doctorChanged(2L);
+        assertThat(ids("durand")).containsExactly(2L);
+
+        verify(doctorRepository, times(1)).findAllResponses();
+    }
+
+    @Test
+    void requestRebuildReloadsEverything() {
+        assertThat(ids("martin")).containsExactly(1L);
+
+        doctors.remove(0);
+        index.requestRebuild();
+        assertThat(ids("martin")).isEmpty();
+        verify(doctorRepository, times(2)).findAllResponses();
+    }
+
+    @Test
+    void noChangesMeansNoDatabaseAccess() {
+        ids("lyon");
+        ids("paris");
+
+        verify(doctorRepository, times(1)).findAllResponses();
+        verify(doctorRepository, times(0)).findResponsesByIdIn(anyCollection());
+    }
+
+    private List<Long> ids(String query) {
+        return index.search(query, 10).stream().map(DoctorResponse::getId).toList();
+    }
+
+    private static DoctorResponse doctor(Long id, String firstName, String lastName, String specialization,
+                                         String clinicAddress, String biography) {
+        DoctorResponse doctor = new DoctorResponse();
+        doctor.setId(id);
+        doctor.setFirstName(firstName);
+        doctor.setLastName(lastName);
+        doctor.setSpecialization(specialization);
+        doctor.setClinicAddress(clinicAddress);
+        doctor.setBiography(biography);
+        return doctor;
+    }
+}
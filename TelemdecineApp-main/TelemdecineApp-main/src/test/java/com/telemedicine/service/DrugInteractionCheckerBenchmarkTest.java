@@ -0,0 +1,86 @@
+package com.telemedicine.service;
+
+import com.telemedicine.Benchmarks;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class DrugInteractionCheckerBenchmarkTest {
+
+    private static final int DRUGS = 5_000;
+    private static final int PAIRS = 100_000;
+    private static final String[] SEVERITIES = {"MINOR", "MODERATE", "MAJOR", "CONTRAINDICATED"};
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reloadAndCheckAtOneHundredThousandPairs() throws IOException {
+        Random random = new Random(23);
+        Path dataset = directory.resolve("interactions.csv");
+        Set<Long> pairs = new HashSet<>();
+        try (BufferedWriter writer = Files.newBufferedWriter(dataset, StandardCharsets.UTF_8)) {
+            writer.write("drug_a,drug_b,severity,description\n");
+            while (pairs.size() < PAIRS) {
+                // Skewed towards low IDs, so a few common drugs have hundreds of partners like real datasets
+                int a = skewed(random);
+                int b = skewed(random);
+                if (a == b || !pairs.add((long) Math.min(a, b) * DRUGS + Math.max(a, b))) {
+                    continue;
+                }
+                writer.write(drug(a) + "," + drug(b) + "," + SEVERITIES[random.nextInt(SEVERITIES.length)]
+                        + ",Interaction " + (pairs.size() % 500) + "\n");
+            }
+        }
+
+        DrugInteractionChecker checker = new DrugInteractionChecker(new DefaultResourceLoader(),
+                new SimpleMeterRegistry(), dataset.toUri().toString());
+        int[] loaded = new int[1];
+        Benchmarks.Result reload = Benchmarks.run("reload (100k pairs)", 2, 5, () -> loaded[0] = checker.reload());
+
+        // A patient on a dozen medications, written the way prescriptions name them, with a few allergies
+        List<List<String>> activeLists = new ArrayList<>();
+        for (int i = 0; i < 256; i++) {
+            List<String> active = new ArrayList<>();
+            for (int m = 0; m < 12; m++) {
+                active.add(drug(skewed(random)) + " " + (50 + random.nextInt(10) * 50) + "mg");
+            }
+            activeLists.add(active);
+        }
+        String allergies = "penicillin, " + drug(7) + ", latex";
+        int[] next = {0};
+        Benchmarks.Result check = Benchmarks.run("check against 12 active + allergies", 20_000, 200_000, () -> {
+            int i = next[0]++ & 255;
+            checker.check(drug(skewed(random)) + " 100mg", activeLists.get(i), allergies);
+        });
+
+        assertThat(loaded[0]).isEqualTo(PAIRS);
+        assertThat(reload.percentileMicros(50)).isLessThan(2_000_000);
+        assertThat(check.percentileMicros(99)).isLessThan(1_000);
+    }
+
+    private static int skewed(Random random) {
+        double x = random.nextDouble();
+        return (int) (x * x * DRUGS);
+    }
+
+    private static String drug(int id) {
+        return "drug" + id;
+    }
+}
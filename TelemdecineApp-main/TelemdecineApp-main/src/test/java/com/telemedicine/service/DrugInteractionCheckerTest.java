@@ -0,0 +1,128 @@
+package com.telemedicine.service;
+
+import com.telemedicine.dto.InteractionWarning;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class DrugInteractionCheckerTest {
+
+    @TempDir
+    Path directory;
+
+    private Path dataset;
+    private DrugInteractionChecker checker;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dataset = directory.resolve("interactions.csv");
+        write("""
+                # comment
+                drug_a,drug_b,severity,description
+                warfarin,aspirin,MAJOR,Increased risk of bleeding
+                Warfarin, Ibuprofen ,moderate,NSAID, raises bleeding risk
+                ibuprofen,warfarin,MINOR,Listed again with a lower severity
+                simvastatin,clarithromycin,CONTRAINDICATED,Risk of rhabdomyolysis
+                amoxicillin clavulanate,methotrexate,MAJOR,Reduced methotrexate clearance
+                penicillin,amoxicillin,CONTRAINDICATED,Cross-reactive penicillin allergy
+                aspirin,aspirin,MAJOR,Ignored self pair
+
+                clopidogrel,omeprazole,MODERATE
+                """);
+        checker = new DrugInteractionChecker(new DefaultResourceLoader(), new SimpleMeterRegistry(),
+                dataset.toUri().toString());
+        checker.init();
+    }
+
+    @Test
+    void parseCountsDistinctPairsOnly() {
+        // The repeated warfarin/ibuprofen pair and the self pair are not counted
+        assertThat(checker.reload()).isEqualTo(6);
+    }
+
+    @Test
+    void pairsMatchInEitherDirection() {
+        assertThat(checker.check("Aspirin", List.of("WARFARIN"), null))
+                .extracting(InteractionWarning::getType, InteractionWarning::getConflictsWith, InteractionWarning::getSeverity)
+                .containsExactly(tuple("INTERACTION", "WARFARIN", "MAJOR"));
+        assertThat(checker.check("warfarin", List.of("aspirin"), null)).hasSize(1);
+        assertThat(checker.check("aspirin", List.of("omeprazole", "simvastatin"), null)).isEmpty();
+    }
+
+    @Test
+    void duplicatePairKeepsTheMostSevereEntry() {
+        // The description keeps its comma; names and severity are trimmed and case-folded
+        assertThat(checker.check("ibuprofen", List.of("warfarin"), null))
+                .extracting(InteractionWarning::getSeverity, InteractionWarning::getDescription)
+                .containsExactly(tuple("MODERATE", "NSAID, raises bleeding risk"));
+        assertThat(checker.check("clopidogrel", List.of("omeprazole"), null))
+                .extracting(InteractionWarning::getDescription).containsExactly("");
+    }
+
+    @Test
+    void namesResolveByWholeNameAndByWord() {
+        assertThat(checker.check("Warfarin 5mg tablets", List.of("Aspirin 100 mg"), null)).hasSize(1);
+        assertThat(checker.check("Amoxicillin Clavulanate", List.of("methotrexate"), null))
+                .extracting(InteractionWarning::getSeverity).containsExactly("MAJOR");
+        // "clavulanate" alone is not a drug of the dataset
+        assertThat(checker.check("clavulanate", List.of("methotrexate"), null)).isEmpty();
+        assertThat(checker.check("unknown-drug", List.of("aspirin"), null)).isEmpty();
+    }
+
+    @Test
+    void allergiesMatchByNameAndByCrossReaction() {
+        List<InteractionWarning> warnings = checker.check("Amoxicillin 500mg", List.of(),
+                "Penicillin; amoxicillin,\n  latex ");
+
+        assertThat(warnings)
+                .extracting(InteractionWarning::getType, InteractionWarning::getConflictsWith, InteractionWarning::getSeverity)
+                .containsExactlyInAnyOrder(
+                        tuple("ALLERGY", "Penicillin", "CONTRAINDICATED"),
+                        tuple("ALLERGY", "amoxicillin", "CONTRAINDICATED"));
+    }
+
+    @Test
+    void warningsAreSortedMostSevereFirst() {
+        List<InteractionWarning> warnings = checker.check("warfarin", List.of("ibuprofen", "aspirin"), null);
+
+        assertThat(warnings).extracting(InteractionWarning::getConflictsWith).containsExactly("aspirin", "ibuprofen");
+    }
+
+    @Test
+    void invalidFileKeepsTheCurrentDataset() throws IOException {
+        write("warfarin,aspirin,SEVERE,Unknown severity\n");
+        assertThatThrownBy(checker::reload).isInstanceOf(IllegalStateException.class).hasMessageContaining("line 1");
+
+        write("warfarin\n");
+        assertThatThrownBy(checker::reload).isInstanceOf(IllegalStateException.class).hasMessageContaining("expected");
+
+        assertThat(checker.check("warfarin", List.of("aspirin"), null)).hasSize(1);
+    }
+
+    @Test
+    void reloadIfChangedPicksUpANewVersion() throws IOException {
+        write("warfarin,paracetamol,MODERATE,Regular use may raise INR\n");
+        Files.setLastModifiedTime(dataset, FileTime.fromMillis(Files.getLastModifiedTime(dataset).toMillis() + 5000));
+
+        checker.reloadIfChanged();
+
+        assertThat(checker.check("warfarin", List.of("aspirin"), null)).isEmpty();
+        assertThat(checker.check("warfarin", List.of("paracetamol"), null)).hasSize(1);
+    }
+
+    private void write(String content) throws IOException {
+        Files.writeString(dataset, content);
+    }
+}
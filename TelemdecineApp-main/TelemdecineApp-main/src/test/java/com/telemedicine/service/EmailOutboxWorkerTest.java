@@ -0,0 +1,254 @@
+package com.telemedicine.service;
+
+import com.telemedicine.entity.OutboxEmail;
+import com.telemedicine.entity.OutboxEmailStatus;
+import com.telemedicine.repository.OutboxEmailRepository;
+import com.telemedicine.repository.SentEmailKeyRepository;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+// The SMTP pool is stubbed to reject the first sends, so retries, backoff and dead-lettering run against the
+// real outbox table and worker
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "email.outbox.poll-interval=PT1H",
+        "email.outbox.initial-backoff=PT30S",
+        "email.outbox.max-backoff=PT1H",
+        "email.outbox.max-attempts=3"
+})
+@ActiveProfiles("test")
+class EmailOutboxWorkerTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Autowired
+    private EmailOutboxWorker emailOutboxWorker;
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
+    @Autowired
+    private SentEmailKeyRepository sentEmailKeyRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @MockBean
+    private SmtpConnectionPool smtpConnectionPool;
+
+    private final AtomicInteger sendCalls = new AtomicInteger();
+    private final AtomicInteger messagesSent = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        outboxEmailRepository.deleteAll();
+        sentEmailKeyRepository.deleteAll();
+    }
+
+    @Test
+    void failedSendsAreRetriedWithGrowingBackoff() throws Exception {
+        rejectFirstSends(2);
+        OutboxEmail email = enqueue("appointment-confirmed:1");
+
+        LocalDateTime firstAttempt = LocalDateTime.now();
+        dispatchAndAwaitAttempt(email.getId(), 1);
+        OutboxEmail failedOnce = reload(email.getId());
+        assertThat(failedOnce.getStatus()).isEqualTo(OutboxEmailStatus.PENDING);
+        assertThat(failedOnce.getLastError()).isEqualTo("550 Mailbox unavailable");
+        // 30s, plus up to 20% jitter
+        assertThat(failedOnce.getNextAttemptAt()).isBetween(firstAttempt.plusSeconds(30), LocalDateTime.now().plusSeconds(37));
+
+        // Not due yet, so nothing is claimed
+        emailOutboxWorker.dispatch();
+        assertThat(reload(email.getId()).getAttempts()).isEqualTo(1);
+
+        makeDue(email.getId());
+        LocalDateTime secondAttempt = LocalDateTime.now();
+        dispatchAndAwaitAttempt(email.getId(), 2);
+        assertThat(reload(email.getId()).getNextAttemptAt())
+                .isBetween(secondAttempt.plusSeconds(60), LocalDateTime.now().plusSeconds(73));
+
+        makeDue(email.getId());
+        emailOutboxWorker.dispatch();
+        OutboxEmail sent = awaitStatus(email.getId(), OutboxEmailStatus.SENT);
+        assertThat(sent.getAttempts()).isEqualTo(3);
+        assertThat(sent.getSentAt()).isNotNull();
+        assertThat(sent.getLastError()).isNull();
+    }
+
+    @Test
+    void emailIsDeadLetteredAfterMaxAttempts() throws Exception {
+        rejectFirstSends(Integer.MAX_VALUE);
+        OutboxEmail email = enqueue("appointment-cancelled:2");
+
+        for (int attempt = 1; attempt < 3; attempt++) {
+            dispatchAndAwaitAttempt(email.getId(), attempt);
+            assertThat(reload(email.getId()).getStatus()).isEqualTo(OutboxEmailStatus.PENDING);
+            makeDue(email.getId());
+        }
+        emailOutboxWorker.dispatch();
+        OutboxEmail dead = awaitStatus(email.getId(), OutboxEmailStatus.DEAD);
+        assertThat(dead.getAttempts()).isEqualTo(3);
+        assertThat(dead.getLastError()).isEqualTo("550 Mailbox unavailable");
+
+        // Dead letters are not claimed again until an admin retries them
+        makeDue(email.getId());
+        emailOutboxWorker.dispatch();
+        assertThat(reload(email.getId()).getAttempts()).isEqualTo(3);
+        assertThat(sendCalls).hasValue(3);
+
+        emailOutboxService.retry(email.getId());
+        rejectFirstSends(0);
+        emailOutboxWorker.dispatch();
+        assertThat(awaitStatus(email.getId(), OutboxEmailStatus.SENT).getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void duplicateIdempotencyKeyQueuesOneEmail() throws Exception {
+        rejectFirstSends(0);
+        OutboxEmail email = enqueue("appointment-scheduled:3:2026-10-20T10:00");
+        enqueue("appointment-scheduled:3:2026-10-20T10:00");
+        enqueue("appointment-scheduled:3:2026-10-21T10:00");
+
+        assertThat(outboxEmailRepository.count()).isEqualTo(2);
+
+        emailOutboxWorker.dispatch();
+        awaitStatus(email.getId(), OutboxEmailStatus.SENT);
+        awaitStatus(findByKey("appointment-scheduled:3:2026-10-21T10:00").getId(), OutboxEmailStatus.SENT);
+        assertThat(messagesSent).hasValue(2);
+
+        // Queuing it again after it was sent does not send it twice either
+        int callsBefore = sendCalls.get();
+        enqueue("appointment-scheduled:3:2026-10-20T10:00");
+        emailOutboxWorker.dispatch();
+        assertThat(outboxEmailRepository.count()).isEqualTo(2);
+        assertThat(sendCalls).hasValue(callsBefore);
+        assertThat(messagesSent).hasValue(2);
+    }
+
+    @Test
+    void purgedEmailIsNotQueuedAgain() throws Exception {
+        rejectFirstSends(0);
+        OutboxEmail email = enqueue("appointment-reminder-24h:4:2026-10-20T10:00");
+        emailOutboxWorker.dispatch();
+        OutboxEmail sent = awaitStatus(email.getId(), OutboxEmailStatus.SENT);
+
+        // Past sent-retention, the row is purged but its key is kept
+        sent.setSentAt(LocalDateTime.now().minusDays(30));
+        outboxEmailRepository.save(sent);
+        emailOutboxWorker.purgeSent();
+        assertThat(outboxEmailRepository.count()).isZero();
+        assertThat(sentEmailKeyRepository.count()).isEqualTo(1);
+
+        transactionTemplate.executeWithoutResult(status -> emailOutboxService.enqueue(
+                "appointment-reminder-24h:4:2026-10-20T10:00", "patient@test", "Rappel de Rendez-vous - TeleMed",
+                "appointment-reminder", Map.of("patientName", "Jane Doe")));
+        assertThat(outboxEmailRepository.count()).isZero();
+    }
+
+    @Test
+    void workerThatLostItsLeaseCannotUpdateTheEmail() {
+        OutboxEmail email = enqueue("appointment-confirmed:5");
+        String expiredLease = emailOutboxService.claimDue(10).get(0).getLeaseToken();
+
+        // The lease runs out and another worker claims the email
+        makeDue(email.getId());
+        String currentLease = emailOutboxService.claimDue(10).get(0).getLeaseToken();
+        assertThat(currentLease).isNotEqualTo(expiredLease);
+
+        assertThat(emailOutboxService.renewLease(List.of(email.getId()), expiredLease)).isEmpty();
+        emailOutboxService.markSent(List.of(email.getId()), expiredLease);
+        emailOutboxService.markFailed(email.getId(), expiredLease, 3, "421 Timeout");
+        OutboxEmail untouched = reload(email.getId());
+        assertThat(untouched.getStatus()).isEqualTo(OutboxEmailStatus.PENDING);
+        assertThat(untouched.getAttempts()).isEqualTo(2);
+        assertThat(untouched.getLastError()).isNull();
+        assertThat(untouched.getLeaseToken()).isEqualTo(currentLease);
+
+        emailOutboxService.markSent(List.of(email.getId()), currentLease);
+        assertThat(reload(email.getId()).getStatus()).isEqualTo(OutboxEmailStatus.SENT);
+    }
+
+    // The first sends (up to rejections) fail every message of their batch; later ones deliver them all
+    private void rejectFirstSends(int rejections) throws InterruptedException {
+        sendCalls.set(0);
+        messagesSent.set(0);
+        when(smtpConnectionPool.send(anyList())).thenAnswer(invocation -> {
+            List<MimeMessage> messages = invocation.getArgument(0);
+            if (sendCalls.incrementAndGet() <= rejections) {
+                Map<MimeMessage, Exception> failures = new LinkedHashMap<>();
+                for (MimeMessage message : messages) {
+                    failures.put(message, new MessagingException("550 Mailbox unavailable"));
+                }
+                return failures;
+            }
+            messagesSent.addAndGet(messages.size());
+            return Map.of();
+        });
+    }
+
+    private OutboxEmail enqueue(String key) {
+        transactionTemplate.executeWithoutResult(status -> emailOutboxService.enqueue(key, "patient@test",
+                "Rendez-vous Médical Confirmé - TeleMed", "appointment-confirmation",
+                Map.of("patientName", "Jane Doe", "doctorName", "John Smith", "specialty", "Cardiology",
+                        "appointmentDate", "20 octobre 2026 à 10:00")));
+        return findByKey(key);
+    }
+
+    private OutboxEmail findByKey(String key) {
+        return outboxEmailRepository.findAll().stream()
+                .filter(email -> email.getIdempotencyKey().equals(key))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private OutboxEmail reload(Long emailId) {
+        return outboxEmailRepository.findById(emailId).orElseThrow();
+    }
+
+    // Pretends the backoff has elapsed
+    private void makeDue(Long emailId) {
+        OutboxEmail email = reload(emailId);
+        email.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        outboxEmailRepository.save(email);
+    }
+
+    // Sending runs on the worker's pool; a failed attempt is recorded once the lease is replaced by the backoff
+    private void dispatchAndAwaitAttempt(Long emailId, int attempts) throws InterruptedException {
+        emailOutboxWorker.dispatch();
+        await(() -> {
+            OutboxEmail email = reload(emailId);
+            return email.getAttempts() == attempts && email.getLastError() != null
+                    && email.getNextAttemptAt().isBefore(LocalDateTime.now().plusMinutes(4));
+        });
+    }
+
+    private OutboxEmail awaitStatus(Long emailId, OutboxEmailStatus status) throws InterruptedException {
+        await(() -> reload(emailId).getStatus() == status);
+        return reload(emailId);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within %s", TIMEOUT).isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
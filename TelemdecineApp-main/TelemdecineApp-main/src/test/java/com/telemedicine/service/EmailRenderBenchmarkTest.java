@@ -0,0 +1,93 @@
+package com.telemedicine.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.telemedicine.Benchmarks;
+import com.telemedicine.entity.OutboxEmail;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class EmailRenderBenchmarkTest {
+
+    private static final int BATCH_SIZE = 20;
+    private static final int RENDER_THREADS = 4;
+
+    @Test
+    void renderSingleAndBatchedWithAndWithoutTheTemplateCache() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, Object> single = Map.of(
+                "patientName", "Jane Doe",
+                "doctorName", "John Smith",
+                "specialty", "Cardiology",
+                "appointmentDate", "20 octobre 2026 à 10:00",
+                "meetingLink", "https://meet.telemedicine.test/abc");
+        String variables = objectMapper.writeValueAsString(single);
+        List<String> templates = AppointmentEmailService.templates();
+        List<OutboxEmail> batch = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            OutboxEmail email = new OutboxEmail();
+            email.setRecipient("patient" + i + "@telemedicine.test");
+            email.setSubject("Rendez-vous Médical Confirmé - TeleMed");
+            email.setTemplate(templates.get(i % templates.size()));
+            email.setVariables(variables);
+            batch.add(email);
+        }
+
+        // Before caching: every render re-read and re-parsed the template and its layout fragments
+        EmailService uncached = emailService(false);
+        Benchmarks.Result parsedEachTime = Benchmarks.run("render, template parsed each time", 200, 2_000,
+                () -> render(uncached, single));
+        uncached.shutdown();
+
+        EmailService cached = emailService(true);
+        cached.preloadTemplates();
+        Benchmarks.Result renderCached = Benchmarks.run("render, cached template", 2_000, 20_000,
+                () -> render(cached, single));
+        Benchmarks.Result batches = Benchmarks.run("renderAll, batches of " + BATCH_SIZE, 100, 1_000, () ->
+                assertThat(cached.renderAll(batch)).allSatisfy(rendered -> assertThat(rendered.error()).isNull()));
+        cached.shutdown();
+
+        System.out.printf("%-40s %,12.0f renders/s%n", "renderAll, " + RENDER_THREADS + " render threads",
+                batches.opsPerSecond() * BATCH_SIZE);
+        // The parallel speed-up depends on the cores available, so only the cache is asserted
+        assertThat(renderCached.opsPerSecond()).isGreaterThan(parsedEachTime.opsPerSecond());
+    }
+
+    private static void render(EmailService emailService, Map<String, Object> variables) {
+        try {
+            emailService.render("patient@telemedicine.test", "Rendez-vous Médical Confirmé - TeleMed",
+                    "appointment-confirmation", variables);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Same resolver settings as spring.thymeleaf.* in application.properties
+    private static EmailService emailService(boolean cacheTemplates) {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(cacheTemplates);
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+
+        EmailService emailService = new EmailService(new JavaMailSenderImpl(), templateEngine, new ObjectMapper(),
+                new SimpleMeterRegistry(), RENDER_THREADS, 200);
+        ReflectionTestUtils.setField(emailService, "senderEmail", "noreply@telemedicine.test");
+        return emailService;
+    }
+}
@@ -0,0 +1,161 @@
+package com.telemedicine.service;
+
+import com.telemedicine.dto.MedicationSuggestion;
+import com.telemedicine.repository.PrescriptionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MedicationSuggestIndexTest {
+
+    @TempDir
+    Path directory;
+
+    private final PrescriptionRepository prescriptionRepository = mock(PrescriptionRepository.class);
+    private final List<PrescriptionRepository.MedicationCount> prescribed = new ArrayList<>();
+    private Path formulary;
+    private MedicationSuggestIndex index;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        formulary = directory.resolve("formulary.txt");
+        Files.writeString(formulary, "");
+        when(prescriptionRepository.countByMedicationName()).thenAnswer(invocation -> List.copyOf(prescribed));
+        index = new MedicationSuggestIndex(prescriptionRepository, new DefaultResourceLoader(), formulary.toUri().toString());
+    }
+
+    @Test
+    void edgesSplitWhereNamesDiverge() throws IOException {
+        formulary("# comment", "Amoxicillin", "Amoxapine", "Amlodipine", "Am", "  Zinc   sulfate ");
+
+        assertThat(names("am")).containsExactly("Am", "Amlodipine", "Amoxapine", "Amoxicillin");
+        // Prefix ending inside an edge, on a split node and on a leaf
+        assertThat(names("amo")).containsExactly("Amoxapine", "Amoxicillin");
+        assertThat(names("amox")).containsExactly("Amoxapine", "Amoxicillin");
+        assertThat(names("amoxi")).containsExactly("Amoxicillin");
+        assertThat(names("AMOXICILLIN")).containsExactly("Amoxicillin");
+        assertThat(names("amoxicillins")).isEmpty();
+        assertThat(names("amx")).isEmpty();
+        // Whitespace is collapsed in both the names and the prefix
+        assertThat(names("zinc  s")).containsExactly("Zinc   sulfate");
+    }
+
+    @Test
+    void mostPrescribedFirstThenAlphabetical() throws IOException {
+        formulary("Metformin", "Metoprolol", "methotrexate");
+        prescribed("Metoprolol", 4);
+
+        assertThat(index.suggest("met", 10))
+                .extracting(MedicationSuggestion::getName, MedicationSuggestion::getUsageCount)
+                .containsExactly(tuple("Metoprolol", 4L), tuple("Metformin", 0L), tuple("methotrexate", 0L));
+        assertThat(names("met", 2)).containsExactly("Metoprolol", "Metformin");
+    }
+
+    @Test
+    void eachNodeKeepsOnlyTheBestTen() throws IOException {
+        formulary(IntStream.range(0, 15).mapToObj(i -> "Drug" + (char) ('a' + i)).toArray(String[]::new));
+
+        assertThat(names("drug", 50)).hasSize(MedicationSuggestIndex.MAX_SUGGESTIONS)
+                .containsExactly("Druga", "Drugb", "Drugc", "Drugd", "Druge", "Drugf", "Drugg", "Drugh", "Drugi", "Drugj");
+    }
+
+    @Test
+    void bumpsReorderEveryListAlongThePath() throws IOException {
+        formulary(IntStream.range(0, 15).mapToObj(i -> "Drug" + (char) ('a' + i)).toArray(String[]::new));
+        assertThat(names("drug")).doesNotContain("Drugo");
+
+        // Drugo was not in the root's or "drug"'s top ten; one prescription moves it in and to the front
+        index.medicationPrescribed("drugo");
+        assertThat(names("drug")).startsWith("Drugo").hasSize(10).doesNotContain("Drugj");
+        assertThat(names("d")).startsWith("Drugo");
+        assertThat(names("drugo")).containsExactly("Drugo");
+
+        // A later bump for another name overtakes it only once its count is higher
+        index.medicationPrescribed("Drugc");
+        assertThat(names("drug")).startsWith("Drugc", "Drugo");
+        index.medicationPrescribed("Drugc");
+        assertThat(index.suggest("drug", 2))
+                .extracting(MedicationSuggestion::getName, MedicationSuggestion::getUsageCount)
+                .containsExactly(tuple("Drugc", 2L), tuple("Drugo", 1L));
+    }
+
+    @Test
+    void bumpingANewNameAddsIt() throws IOException {
+        formulary("Ibuprofen");
+        assertThat(names("ib")).containsExactly("Ibuprofen");
+
+        index.medicationPrescribed("Ibandronate");
+        assertThat(names("ib")).containsExactly("Ibandronate", "Ibuprofen");
+        assertThat(names("iba")).containsExactly("Ibandronate");
+    }
+
+    @Test
+    void prescribedSpellingWinsOverTheFormulary() throws IOException {
+        formulary("Amlodipine");
+        prescribed("AMLODIPINE", 3);
+        prescribed("amlodipine", 1);
+
+        assertThat(index.suggest("aml", 10))
+                .extracting(MedicationSuggestion::getName, MedicationSuggestion::getUsageCount)
+                .containsExactly(tuple("AMLODIPINE", 4L));
+    }
+
+    @Test
+    void bumpBeforeTheFirstBuildIsLeftToTheBuild() throws IOException {
+        formulary("Aspirin");
+        index.medicationPrescribed("Aspirin");
+        prescribed("Aspirin", 1);
+
+        assertThat(index.suggest("asp", 10)).extracting(MedicationSuggestion::getUsageCount).containsExactly(1L);
+    }
+
+    @Test
+    void bumpDuringARebuildIsNotLost() throws Exception {
+        formulary("Aspirin");
+        assertThat(index.suggest("asp", 10)).extracting(MedicationSuggestion::getUsageCount).containsExactly(0L);
+
+        // A prescription commits after the rebuild has read the counts but before it swaps the trie in
+        Thread bump = new Thread(() -> index.medicationPrescribed("Aspirin"));
+        when(prescriptionRepository.countByMedicationName()).thenAnswer(invocation -> {
+            bump.start();
+            Thread.sleep(200);
+            return List.of();
+        });
+        index.rebuild();
+        bump.join();
+
+        assertThat(index.suggest("asp", 10)).extracting(MedicationSuggestion::getUsageCount).containsExactly(1L);
+    }
+
+    private void formulary(String... names) throws IOException {
+        Files.write(formulary, List.of(names));
+    }
+
+    private void prescribed(String name, long total) {
+        prescribed.add(new Count(name, total));
+    }
+
+    private List<String> names(String prefix) {
+        return names(prefix, 10);
+    }
+
+    private List<String> names(String prefix, int limit) {
+        return index.suggest(prefix, limit).stream().map(MedicationSuggestion::getName).toList();
+    }
+
+    private record Count(String getName, long getTotal) implements PrescriptionRepository.MedicationCount {
+    }
+}
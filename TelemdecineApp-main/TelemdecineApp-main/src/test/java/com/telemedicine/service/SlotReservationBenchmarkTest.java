@@ -0,0 +1,176 @@
+package com.telemedicine.service;
+
+import com.telemedicine.dto.AppointmentRequest;
+import com.telemedicine.entity.AppointmentType;
+import com.telemedicine.entity.Doctor;
+import com.telemedicine.entity.Patient;
+import com.telemedicine.entity.User;
+import com.telemedicine.entity.UserRole;
+import com.telemedicine.exception.ConflictException;
+import com.telemedicine.repository.AppointmentRepository;
+import com.telemedicine.repository.DoctorRepository;
+import com.telemedicine.repository.PatientRepository;
+import com.telemedicine.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Many request threads booking at once: racing for one slot, queueing on one doctor's row lock, and
+// spread over several doctors
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class SlotReservationBenchmarkTest {
+
+    private static final int THREADS = 16;
+    private static final int BOOKINGS_PER_THREAD = 25;
+
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private UserRepository userRepository;
+    // Queueing the confirmation email is not what is measured
+    @MockBean
+    private AppointmentEmailService appointmentEmailService;
+
+    private final List<Long> patientUserIds = new ArrayList<>();
+    private final List<Long> doctorIds = new ArrayList<>();
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1).withHour(8).withMinute(0).withSecond(0).withNano(0);
+
+    @BeforeEach
+    void setUp() {
+        appointmentRepository.deleteAll();
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+        userRepository.deleteAll();
+
+        for (int i = 0; i < THREADS; i++) {
+            Patient patient = new Patient();
+            patient.setUser(userRepository.save(user("patient" + i + "@bench", UserRole.PATIENT)));
+            patientUserIds.add(patientRepository.save(patient).getUser().getId());
+
+            Doctor doctor = new Doctor();
+            doctor.setUser(userRepository.save(user("doctor" + i + "@bench", UserRole.DOCTOR)));
+            doctor.setSpecialization("Cardiology");
+            doctor.setLicenseNumber("BENCH-" + i);
+            doctorIds.add(doctorRepository.save(doctor).getId());
+        }
+    }
+
+    @Test
+    void everyThreadRacingForTheSameSlot() throws Exception {
+        AtomicInteger conflicts = new AtomicInteger();
+
+        int booked = runConcurrently("same slot, one doctor", 1, (thread, i) -> {
+            try {
+                book(thread, doctorIds.get(0), start);
+                return true;
+            } catch (ConflictException e) {
+                conflicts.incrementAndGet();
+                return false;
+            }
+        });
+
+        assertThat(booked).isEqualTo(1);
+        assertThat(conflicts).hasValue(THREADS - 1);
+        assertThat(appointmentRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void distinctSlotsQueueOnOneDoctor() throws Exception {
+        int booked = runConcurrently("distinct slots, one doctor", BOOKINGS_PER_THREAD, (thread, i) -> {
+            book(thread, doctorIds.get(0), start.plusMinutes(30L * (thread * BOOKINGS_PER_THREAD + i)));
+            return true;
+        });
+
+        assertThat(booked).isEqualTo(THREADS * BOOKINGS_PER_THREAD);
+    }
+
+    @Test
+    void bookingsSpreadOverDoctors() throws Exception {
+        int booked = runConcurrently("distinct slots, one doctor per thread", BOOKINGS_PER_THREAD, (thread, i) -> {
+            book(thread, doctorIds.get(thread), start.plusMinutes(30L * i));
+            return true;
+        });
+
+        assertThat(booked).isEqualTo(THREADS * BOOKINGS_PER_THREAD);
+    }
+
+    private void book(int thread, Long doctorId, LocalDateTime appointmentDate) {
+        AppointmentRequest request = new AppointmentRequest(doctorId, appointmentDate,
+                AppointmentType.VIDEO_CONSULTATION, "Benchmark", null, 30);
+        appointmentService.createAppointment(patientUserIds.get(thread), request);
+    }
+
+    // Starts THREADS threads together, each making bookings attempts; returns how many succeeded
+    private int runConcurrently(String name, int bookings, Booking booking) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch ready = new CountDownLatch(THREADS);
+            CountDownLatch go = new CountDownLatch(1);
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                results.add(executor.submit((Callable<Integer>) () -> {
+                    ready.countDown();
+                    go.await();
+                    int succeeded = 0;
+                    for (int i = 0; i < bookings; i++) {
+                        succeeded += booking.attempt(thread, i) ? 1 : 0;
+                    }
+                    return succeeded;
+                }));
+            }
+            ready.await();
+            long started = System.nanoTime();
+            go.countDown();
+            int succeeded = 0;
+            for (Future<Integer> result : results) {
+                succeeded += result.get();
+            }
+            double seconds = (System.nanoTime() - started) / 1e9;
+            int attempts = THREADS * bookings;
+            System.out.printf("%-40s %,6d attempts %,6d booked  %,8.0f attempts/s  %,8.2f ms/attempt%n",
+                    name, attempts, succeeded, attempts / seconds, seconds * 1e3 * THREADS / attempts);
+            return succeeded;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private interface Booking {
+        boolean attempt(int thread, int index);
+    }
+
+    private static User user(String email, UserRole role) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("secret");
+        user.setFirstName("First " + email);
+        user.setLastName("Last");
+        user.setRole(role);
+        return user;
+    }
+}
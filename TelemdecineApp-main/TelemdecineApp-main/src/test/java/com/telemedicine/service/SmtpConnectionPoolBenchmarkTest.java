@@ -0,0 +1,209 @@
+package com.telemedicine.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class SmtpConnectionPoolBenchmarkTest {
+
+    private static final int MESSAGES = 400;
+    private static final int SENDER_THREADS = 4;
+    private static final int BATCH_SIZE = 20;
+    // Stands in for the TCP and STARTTLS handshake of a remote server
+    private static final long CONNECT_DELAY_MILLIS = 30;
+
+    private FakeSmtpServer server;
+    private JavaMailSenderImpl mailSender;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new FakeSmtpServer(CONNECT_DELAY_MILLIS);
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(server.port());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    void pooledBatchesAgainstOneSessionPerMessage() throws Exception {
+        List<MimeMessage> messages = messages();
+
+        // Before the pool: every send opened its own session
+        double perMessage = throughput("one session per message", () -> {
+            List<Callable<Void>> senders = new ArrayList<>();
+            for (int t = 0; t < SENDER_THREADS; t++) {
+                List<MimeMessage> share = share(messages, t);
+                senders.add(() -> {
+                    for (MimeMessage message : share) {
+                        mailSender.send(message);
+                    }
+                    return null;
+                });
+            }
+            return senders;
+        });
+        int sessionsBefore = server.sessions.getAndSet(0);
+        int deliveredBefore = server.delivered.getAndSet(0);
+
+        SmtpConnectionPool pool = new SmtpConnectionPool(mailSender, new SimpleMeterRegistry(),
+                SENDER_THREADS, 100, Duration.ofSeconds(30));
+        double pooled = throughput("pooled, batches of " + BATCH_SIZE, () -> {
+            List<Callable<Void>> senders = new ArrayList<>();
+            for (int t = 0; t < SENDER_THREADS; t++) {
+                List<MimeMessage> share = share(messages, t);
+                senders.add(() -> {
+                    for (int from = 0; from < share.size(); from += BATCH_SIZE) {
+                        assertThat(pool.send(share.subList(from, Math.min(from + BATCH_SIZE, share.size())))).isEmpty();
+                    }
+                    return null;
+                });
+            }
+            return senders;
+        });
+        pool.shutdown();
+        System.out.printf("sessions: %d before, %d pooled%n", sessionsBefore, server.sessions.get());
+
+        assertThat(deliveredBefore).isEqualTo(MESSAGES);
+        assertThat(server.delivered).hasValue(MESSAGES);
+        assertThat(server.sessions.get()).isLessThanOrEqualTo(MESSAGES / 100 + SENDER_THREADS);
+        assertThat(pooled).isGreaterThan(perMessage);
+    }
+
+    private List<MimeMessage> messages() throws MessagingException {
+        List<MimeMessage> messages = new ArrayList<>();
+        for (int i = 0; i < MESSAGES; i++) {
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+            helper.setFrom("noreply@telemedicine.test");
+            helper.setTo("patient" + i + "@telemedicine.test");
+            helper.setSubject("Appointment Confirmation");
+            helper.setText("<p>Your appointment is confirmed.</p>", true);
+            messages.add(message);
+        }
+        return messages;
+    }
+
+    private static List<MimeMessage> share(List<MimeMessage> messages, int thread) {
+        int size = messages.size() / SENDER_THREADS;
+        return messages.subList(thread * size, (thread + 1) * size);
+    }
+
+    private static double throughput(String name, Callable<List<Callable<Void>>> senders) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(SENDER_THREADS);
+        try {
+            List<Callable<Void>> tasks = senders.call();
+            long started = System.nanoTime();
+            for (Future<Void> result : executor.invokeAll(tasks)) {
+                result.get();
+            }
+            double perSecond = MESSAGES * 1e9 / (System.nanoTime() - started);
+            System.out.printf("%-40s %,8.0f msg/s%n", name, perSecond);
+            return perSecond;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Accepts every message; just enough of RFC 5321 for Jakarta Mail
+    private static final class FakeSmtpServer implements AutoCloseable {
+
+        private final ServerSocket socket = new ServerSocket(0);
+        private final ExecutorService sessionsExecutor = Executors.newCachedThreadPool();
+        private final long connectDelayMillis;
+        private final AtomicInteger sessions = new AtomicInteger();
+        private final AtomicInteger delivered = new AtomicInteger();
+
+        private FakeSmtpServer(long connectDelayMillis) throws IOException {
+            this.connectDelayMillis = connectDelayMillis;
+            sessionsExecutor.execute(() -> {
+                while (!socket.isClosed()) {
+                    try {
+                        Socket client = socket.accept();
+                        sessionsExecutor.execute(() -> serve(client));
+                    } catch (IOException e) {
+                        return;
+                    }
+                }
+            });
+        }
+
+        private int port() {
+            return socket.getLocalPort();
+        }
+
+        private void serve(Socket client) {
+            try (client) {
+                sessions.incrementAndGet();
+                Thread.sleep(connectDelayMillis);
+                BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.US_ASCII));
+                OutputStream out = client.getOutputStream();
+                reply(out, "220 localhost ESMTP");
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                    switch (command) {
+                        case "EHLO" -> reply(out, "250-localhost\r\n250 8BITMIME");
+                        case "DATA" -> {
+                            reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                            while ((line = in.readLine()) != null && !line.equals(".")) {
+                                // Message body is discarded
+                            }
+                            delivered.incrementAndGet();
+                            reply(out, "250 OK");
+                        }
+                        case "QUIT" -> {
+                            reply(out, "221 Bye");
+                            return;
+                        }
+                        default -> reply(out, "250 OK");
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private static void reply(OutputStream out, String response) throws IOException {
+            out.write((response + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+            sessionsExecutor.shutdownNow();
+        }
+    }
+}